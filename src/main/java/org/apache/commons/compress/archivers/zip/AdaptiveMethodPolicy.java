@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.Deflater;
+
+import org.apache.commons.compress.archivers.sevenz.SevenZFile;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
+import org.apache.commons.compress.compressors.lzma.LZMAUtils;
+import org.apache.commons.compress.compressors.snappy.FramedSnappyCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZUtils;
+import org.apache.commons.compress.compressors.z.ZCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+
+/**
+ * Chooses between {@link ZipMethod#STORED STORED} and {@link ZipMethod#DEFLATED DEFLATED} for ZIP entries from a sample of their head.
+ * <p>
+ * Entries starting with the signature of a compressed format, like JPEG, PNG, MP4, ZIP, gzip or xz, are stored. Otherwise the byte entropy of the sample
+ * decides: data close to random is stored, data with a high entropy is deflated with {@link Deflater#BEST_SPEED} and everything else with the configured
+ * level. With trial compression enabled, part of samples with a high entropy is deflated to decide between storing and fast deflating.
+ * </p>
+ * <p>
+ * The policy applies to entries without a method, see {@link ZipArchiveOutputStream#setMethodPolicy(AdaptiveMethodPolicy)} and
+ * {@link ParallelScatterZipCreator#setMethodPolicy(AdaptiveMethodPolicy)}. It counts its decisions, a policy shared between several streams reports their
+ * combined decisions.
+ * </p>
+ *
+ * @ThreadSafe
+ * @since 1.29.0
+ */
+public final class AdaptiveMethodPolicy {
+
+    /**
+     * How to write an entry.
+     */
+    public enum Decision {
+
+        /** Stores the entry. */
+        STORE,
+
+        /**
+         * Deflates the entry with {@link Deflater#NO_COMPRESSION}, for incompressible entries that can't be stored because their size isn't known upfront
+         * when writing to a non-seekable stream.
+         */
+        DEFLATE_NO_COMPRESSION,
+
+        /** Deflates the entry with {@link Deflater#BEST_SPEED}. */
+        DEFLATE_FAST,
+
+        /** Deflates the entry with the configured level. */
+        DEFLATE
+    }
+
+    /** Default size of the sample. */
+    public static final int DEFAULT_SAMPLE_SIZE = 64 * 1024;
+
+    /** Samples shorter than this are deflated, their entropy says little and storing saves little. */
+    private static final int MIN_SAMPLE_SIZE = 256;
+
+    /** Number of bytes of the sample deflated by a trial compression. */
+    private static final int TRIAL_SIZE = 16 * 1024;
+
+    /** Entropy in bits per byte from which data is considered incompressible. */
+    private static final double STORE_ENTROPY = 7.5;
+
+    /** Entropy in bits per byte from which data is considered hard to compress. */
+    private static final double FAST_ENTROPY = 6.0;
+
+    /** Ratio of compressed to uncompressed trial data from which data is stored. */
+    private static final double STORE_RATIO = 0.95;
+
+    /** Ratio of compressed to uncompressed trial data from which data is deflated fast. */
+    private static final double FAST_RATIO = 0.8;
+
+    /**
+     * Computes the order-0 entropy of the given bytes.
+     *
+     * @param data   The data.
+     * @param length The number of bytes to consider.
+     * @return The entropy in bits per byte, between 0 and 8.
+     */
+    static double entropy(final byte[] data, final int length) {
+        final int[] histogram = new int[256];
+        for (int i = 0; i < length; i++) {
+            histogram[data[i] & 0xff]++;
+        }
+        double entropy = 0;
+        for (final int count : histogram) {
+            if (count > 0) {
+                final double p = (double) count / length;
+                entropy -= p * Math.log(p);
+            }
+        }
+        return entropy / Math.log(2);
+    }
+
+    /**
+     * Tests whether the data starts with the signature of a compressed format.
+     */
+    private static boolean isCompressedFormat(final byte[] data, final int length) {
+        return startsWith(data, length, 0, 0xFF, 0xD8, 0xFF) // JPEG
+                || startsWith(data, length, 0, 0x89, 'P', 'N', 'G') // PNG
+                || startsWith(data, length, 0, 'G', 'I', 'F', '8') // GIF
+                || startsWith(data, length, 0, 'R', 'I', 'F', 'F') && startsWith(data, length, 8, 'W', 'E', 'B', 'P') // WebP
+                || startsWith(data, length, 4, 'f', 't', 'y', 'p') // MP4, QuickTime, HEIF and other ISO media
+                || startsWith(data, length, 0, 0x1A, 0x45, 0xDF, 0xA3) // Matroska, WebM
+                || startsWith(data, length, 0, 'O', 'g', 'g', 'S') // Ogg
+                || startsWith(data, length, 0, 'f', 'L', 'a', 'C') // FLAC
+                || startsWith(data, length, 0, 'I', 'D', '3') // MP3
+                || ZipArchiveInputStream.matches(data, length) || SevenZFile.matches(data, length) || GzipCompressorInputStream.matches(data, length)
+                || BZip2CompressorInputStream.matches(data, length) || XZUtils.matches(data, length) || LZMAUtils.matches(data, length)
+                || ZstdUtils.matches(data, length) || FramedLZ4CompressorInputStream.matches(data, length)
+                || FramedSnappyCompressorInputStream.matches(data, length) || ZCompressorInputStream.matches(data, length);
+    }
+
+    private static boolean startsWith(final byte[] data, final int length, final int offset, final int... signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((data[offset + i] & 0xff) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deflates the head of the sample with {@link Deflater#BEST_SPEED}.
+     *
+     * @return The ratio of compressed to uncompressed size.
+     */
+    private static double trialCompress(final byte[] data, final int length) {
+        final int trialLength = Math.min(length, TRIAL_SIZE);
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(data, 0, trialLength);
+            deflater.finish();
+            final byte[] buffer = new byte[4096];
+            long compressed = 0;
+            while (!deflater.finished()) {
+                compressed += deflater.deflate(buffer);
+            }
+            return (double) compressed / trialLength;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private final int sampleSize;
+
+    private final boolean trialCompression;
+
+    private final AtomicLongArray counts = new AtomicLongArray(Decision.values().length);
+
+    /**
+     * Constructs a new instance sampling {@value #DEFAULT_SAMPLE_SIZE} bytes with trial compression.
+     */
+    public AdaptiveMethodPolicy() {
+        this(DEFAULT_SAMPLE_SIZE, true);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param sampleSize       The number of bytes sampled from the head of each entry.
+     * @param trialCompression Whether to deflate part of samples with a high entropy to decide between storing and fast deflating.
+     * @throws IllegalArgumentException if {@code sampleSize} is less than 1.
+     */
+    public AdaptiveMethodPolicy(final int sampleSize, final boolean trialCompression) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("Invalid sample size: " + sampleSize);
+        }
+        this.sampleSize = sampleSize;
+        this.trialCompression = trialCompression;
+    }
+
+    /**
+     * Decides how to write an entry.
+     *
+     * @param sample   The head of the entry.
+     * @param length   The number of bytes in the sample.
+     * @param canStore Whether the entry can be stored, {@link Decision#DEFLATE_NO_COMPRESSION} is used instead of {@link Decision#STORE} otherwise.
+     * @return The decision.
+     */
+    Decision decide(final byte[] sample, final int length, final boolean canStore) {
+        final Decision decision = decide(sample, length);
+        final Decision effective = decision == Decision.STORE && !canStore ? Decision.DEFLATE_NO_COMPRESSION : decision;
+        counts.incrementAndGet(effective.ordinal());
+        return effective;
+    }
+
+    private Decision decide(final byte[] sample, final int length) {
+        if (length < MIN_SAMPLE_SIZE) {
+            return Decision.DEFLATE;
+        }
+        if (isCompressedFormat(sample, length)) {
+            return Decision.STORE;
+        }
+        final double entropy = entropy(sample, length);
+        if (entropy >= STORE_ENTROPY) {
+            return Decision.STORE;
+        }
+        if (entropy < FAST_ENTROPY) {
+            return Decision.DEFLATE;
+        }
+        if (!trialCompression) {
+            return Decision.DEFLATE_FAST;
+        }
+        final double ratio = trialCompress(sample, length);
+        return ratio >= STORE_RATIO ? Decision.STORE : ratio >= FAST_RATIO ? Decision.DEFLATE_FAST : Decision.DEFLATE;
+    }
+
+    /**
+     * Gets the number of entries this policy has made the given decision for.
+     *
+     * @param decision The decision.
+     * @return The number of entries.
+     */
+    public long getCount(final Decision decision) {
+        return counts.get(decision.ordinal());
+    }
+
+    /**
+     * Gets the number of bytes sampled from the head of each entry.
+     *
+     * @return The sample size.
+     */
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    /**
+     * Gets the compression level to deflate an entry with.
+     *
+     * @param decision The decision for the entry, one of the deflating ones.
+     * @param level    The configured level.
+     * @return The level, never higher than the configured one unless that is {@link Deflater#DEFAULT_COMPRESSION}.
+     */
+    int getLevel(final Decision decision, final int level) {
+        switch (decision) {
+        case DEFLATE_NO_COMPRESSION:
+            return Deflater.NO_COMPRESSION;
+        case DEFLATE_FAST:
+            return level == Deflater.DEFAULT_COMPRESSION ? Deflater.BEST_SPEED : Math.min(level, Deflater.BEST_SPEED);
+        default:
+            return level;
+        }
+    }
+
+    /**
+     * Tests whether part of samples with a high entropy is deflated to decide between storing and fast deflating.
+     *
+     * @return Whether trial compression is enabled.
+     */
+    public boolean isTrialCompression() {
+        return trialCompression;
+    }
+}
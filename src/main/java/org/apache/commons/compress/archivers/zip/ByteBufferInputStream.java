@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Input stream reading the remaining bytes of a {@link ByteBuffer}, usually a slice of a memory-mapped archive.
+ * <p>
+ * Optionally appends a single zero byte, the dummy byte an {@link java.util.zip.Inflater} for raw DEFLATE data may need after the end of the compressed
+ * data.
+ * </p>
+ *
+ * @NotThreadSafe
+ */
+final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    private boolean trailingZeroByte;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param buffer           The buffer to read, its position is advanced while reading.
+     * @param trailingZeroByte whether to read a zero byte after the remaining bytes of the buffer.
+     */
+    ByteBufferInputStream(final ByteBuffer buffer, final boolean trailingZeroByte) {
+        this.buffer = buffer;
+        this.trailingZeroByte = trailingZeroByte;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining() + (trailingZeroByte ? 1 : 0);
+    }
+
+    @Override
+    public int read() {
+        if (buffer.hasRemaining()) {
+            return buffer.get() & 0xff;
+        }
+        if (trailingZeroByte) {
+            trailingZeroByte = false;
+            return 0;
+        }
+        return -1;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) {
+        IOUtils.checkFromIndexSize(b, off, len);
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            if (!trailingZeroByte) {
+                return -1;
+            }
+            trailingZeroByte = false;
+            b[off] = 0;
+            return 1;
+        }
+        final int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(final long n) {
+        if (n <= 0) {
+            return 0;
+        }
+        final int skipped = (int) Math.min(n, buffer.remaining());
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+}
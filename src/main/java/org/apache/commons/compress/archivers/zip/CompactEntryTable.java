@@ -0,0 +1,348 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Table of the entries of a {@link ZipFile} stored in parallel primitive arrays.
+ * <p>
+ * Only the data needed to find entries and their contents is kept, {@link ZipArchiveEntry} instances are re-created from the central directory when they are
+ * handed out. Entries are identified by their index in central directory order.
+ * </p>
+ * <p>
+ * Entries are added while the central directory is parsed or read from a previously written table, {@link #seal()} must be called before the table is
+ * queried.
+ * </p>
+ *
+ * @NotThreadSafe until sealed, immutable afterwards.
+ */
+final class CompactEntryTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int NONE = -1;
+
+    /**
+     * Number of bytes used by an entry in the output of {@link #writeTo(DataOutput)}.
+     */
+    static final int BYTES_PER_ENTRY = 5 * Long.BYTES + 3 * Integer.BYTES + Short.BYTES;
+
+    private int size;
+
+    /** Offsets of the central file headers, right behind their signatures. */
+    private long[] centralDirectoryOffsets = new long[INITIAL_CAPACITY];
+
+    private long[] localHeaderOffsets = new long[INITIAL_CAPACITY];
+
+    private long[] dataOffsets = new long[INITIAL_CAPACITY];
+
+    private long[] compressedSizes = new long[INITIAL_CAPACITY];
+
+    private long[] sizes = new long[INITIAL_CAPACITY];
+
+    private int[] crcs = new int[INITIAL_CAPACITY];
+
+    private short[] methods = new short[INITIAL_CAPACITY];
+
+    private int[] diskNumberStarts = new int[INITIAL_CAPACITY];
+
+    private int[] nameHashes = new int[INITIAL_CAPACITY];
+
+    /** Heads of the hash chains, indexed by name hash. */
+    private int[] buckets;
+
+    /** Next entry of the same hash chain, in central directory order. */
+    private int[] next;
+
+    /**
+     * Adds an entry.
+     *
+     * @param entry                  The fully parsed entry.
+     * @param centralDirectoryOffset The offset of the entry's central file header, right behind the signature.
+     * @return The index of the entry.
+     */
+    int add(final ZipArchiveEntry entry, final long centralDirectoryOffset) {
+        if (size == centralDirectoryOffsets.length) {
+            grow(size * 2);
+        }
+        final int index = size++;
+        centralDirectoryOffsets[index] = centralDirectoryOffset;
+        localHeaderOffsets[index] = entry.getLocalHeaderOffset();
+        dataOffsets[index] = entry.getDataOffset();
+        compressedSizes[index] = entry.getCompressedSize();
+        sizes[index] = entry.getSize();
+        crcs[index] = (int) entry.getCrc();
+        methods[index] = (short) entry.getMethod();
+        diskNumberStarts[index] = (int) entry.getDiskNumberStart();
+        nameHashes[index] = entry.getName().hashCode();
+        return index;
+    }
+
+    /**
+     * Gets the offset of the central file header of an entry, right behind its signature.
+     *
+     * @param index The index of the entry.
+     * @return The offset of the central file header.
+     */
+    long getCentralDirectoryOffset(final int index) {
+        return centralDirectoryOffsets[index];
+    }
+
+    /**
+     * Removes all entries.
+     */
+    void clear() {
+        size = 0;
+        grow(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Gets the compressed size of an entry.
+     *
+     * @param index The index of the entry.
+     * @return The compressed size.
+     */
+    long getCompressedSize(final int index) {
+        return compressedSizes[index];
+    }
+
+    /**
+     * Gets the CRC of an entry.
+     *
+     * @param index The index of the entry.
+     * @return The CRC.
+     */
+    long getCrc(final int index) {
+        return crcs[index] & 0xffffffffL;
+    }
+
+    /**
+     * Gets the offset of the data of an entry.
+     *
+     * @param index The index of the entry.
+     * @return The data offset or {@link org.apache.commons.compress.archivers.EntryStreamOffsets#OFFSET_UNKNOWN}.
+     */
+    long getDataOffset(final int index) {
+        return dataOffsets[index];
+    }
+
+    /**
+     * Gets the number of the disk an entry starts on.
+     *
+     * @param index The index of the entry.
+     * @return The disk number.
+     */
+    long getDiskNumberStart(final int index) {
+        return diskNumberStarts[index] & 0xffffffffL;
+    }
+
+    /**
+     * Gets the index of the first entry, in central directory order, whose name has the given hash code.
+     *
+     * @param nameHash The hash code of the name.
+     * @return The index of the entry or -1.
+     */
+    int getFirstIndex(final int nameHash) {
+        return buckets.length == 0 ? NONE : buckets[nameHash & buckets.length - 1];
+    }
+
+    /**
+     * Gets the offset of the local file header of an entry.
+     *
+     * @param index The index of the entry.
+     * @return The local file header offset.
+     */
+    long getLocalHeaderOffset(final int index) {
+        return localHeaderOffsets[index];
+    }
+
+    /**
+     * Gets the compression method of an entry.
+     *
+     * @param index The index of the entry.
+     * @return The compression method.
+     */
+    int getMethod(final int index) {
+        return methods[index] & 0xffff;
+    }
+
+    /**
+     * Gets the hash code of the name of an entry.
+     *
+     * @param index The index of the entry.
+     * @return The hash code of the name.
+     */
+    int getNameHash(final int index) {
+        return nameHashes[index];
+    }
+
+    /**
+     * Gets the index of the next entry, in central directory order, that may have the same name as the given entry.
+     *
+     * @param index The index of the entry.
+     * @return The index of the next entry or -1.
+     */
+    int getNextIndex(final int index) {
+        return next[index];
+    }
+
+    /**
+     * Gets the indices of all entries in the order their contents appear within the archive.
+     *
+     * @return The indices sorted by disk number and local file header offset.
+     */
+    int[] getPhysicalOrder() {
+        return IntStream.range(0, size).boxed()
+                .sorted(Comparator.<Integer>comparingLong(this::getDiskNumberStart).thenComparingLong(this::getLocalHeaderOffset))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Gets the uncompressed size of an entry.
+     *
+     * @param index The index of the entry.
+     * @return The uncompressed size.
+     */
+    long getSize(final int index) {
+        return sizes[index];
+    }
+
+    private void grow(final int capacity) {
+        centralDirectoryOffsets = Arrays.copyOf(centralDirectoryOffsets, capacity);
+        localHeaderOffsets = Arrays.copyOf(localHeaderOffsets, capacity);
+        dataOffsets = Arrays.copyOf(dataOffsets, capacity);
+        compressedSizes = Arrays.copyOf(compressedSizes, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        crcs = Arrays.copyOf(crcs, capacity);
+        methods = Arrays.copyOf(methods, capacity);
+        diskNumberStarts = Arrays.copyOf(diskNumberStarts, capacity);
+        nameHashes = Arrays.copyOf(nameHashes, capacity);
+    }
+
+    /**
+     * Reads entries written by {@link #writeTo(DataOutput)}, replacing all entries of this table.
+     *
+     * @param input The input to read from.
+     * @param count The number of entries to read.
+     * @throws IOException if an I/O error occurs.
+     */
+    void readFrom(final DataInput input, final int count) throws IOException {
+        size = 0;
+        grow(count);
+        for (int i = 0; i < count; i++) {
+            centralDirectoryOffsets[i] = input.readLong();
+        }
+        for (int i = 0; i < count; i++) {
+            localHeaderOffsets[i] = input.readLong();
+        }
+        for (int i = 0; i < count; i++) {
+            dataOffsets[i] = input.readLong();
+        }
+        for (int i = 0; i < count; i++) {
+            compressedSizes[i] = input.readLong();
+        }
+        for (int i = 0; i < count; i++) {
+            sizes[i] = input.readLong();
+        }
+        for (int i = 0; i < count; i++) {
+            crcs[i] = input.readInt();
+        }
+        for (int i = 0; i < count; i++) {
+            methods[i] = input.readShort();
+        }
+        for (int i = 0; i < count; i++) {
+            diskNumberStarts[i] = input.readInt();
+        }
+        for (int i = 0; i < count; i++) {
+            nameHashes[i] = input.readInt();
+        }
+        size = count;
+    }
+
+    /**
+     * Trims the arrays and builds the name index; no entries may be added afterwards.
+     */
+    void seal() {
+        if (centralDirectoryOffsets.length != size) {
+            grow(size);
+        }
+        final int bucketCount = size == 0 ? 0 : Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        buckets = new int[bucketCount];
+        Arrays.fill(buckets, NONE);
+        next = new int[size];
+        // walk backwards so each chain ends up in central directory order
+        for (int i = size - 1; i >= 0; i--) {
+            final int bucket = nameHashes[i] & bucketCount - 1;
+            next[i] = buckets[bucket];
+            buckets[bucket] = i;
+        }
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return The number of entries.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Writes all entries, {@link #readFrom(DataInput, int)} reads them back.
+     *
+     * @param output The output to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeTo(final DataOutput output) throws IOException {
+        for (int i = 0; i < size; i++) {
+            output.writeLong(centralDirectoryOffsets[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            output.writeLong(localHeaderOffsets[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            output.writeLong(dataOffsets[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            output.writeLong(compressedSizes[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            output.writeLong(sizes[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            output.writeInt(crcs[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            output.writeShort(methods[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            output.writeInt(diskNumberStarts[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            output.writeInt(nameHashes[i]);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.parallel.InputStreamSupplier;
+
+/**
+ * Cache of compressed entry data on local disk, keyed by the SHA-256 of the uncompressed data, the compression method and level.
+ * <p>
+ * Building archives from mostly unchanged files compresses the same data over and over again. {@link ZipArchiveOutputStream#setEntryCache(CompressedEntryCache)}
+ * and {@link ParallelScatterZipCreator#setEntryCache(CompressedEntryCache)} make them hash the data of an entry first and copy the compressed data, CRC and
+ * sizes from the cache if it holds them, compressing and adding the data to the cache otherwise.
+ * </p>
+ * <p>
+ * Each cached entry is a file in the cache directory. Once the files exceed {@code maxSize} bytes the least recently used ones are deleted. The order of use
+ * survives restarts using the modification times of the files. Several caches, even of different processes, may share a directory, they only evict the files
+ * they know about.
+ * </p>
+ *
+ * @ThreadSafe
+ * @since 1.29.0
+ */
+public final class CompressedEntryCache {
+
+    /**
+     * Compressed data, CRC and sizes of a cached entry.
+     * <p>
+     * The file is opened while the entry is looked up, so its data stays readable until the entry is closed even if the file is evicted meanwhile.
+     * </p>
+     */
+    static final class CachedEntry implements Closeable {
+
+        private final FileChannel channel;
+        private final int method;
+        private final long crc;
+        private final long size;
+        private final long compressedSize;
+
+        private CachedEntry(final FileChannel channel, final int method, final long crc, final long size, final long compressedSize) {
+            this.channel = channel;
+            this.method = method;
+            this.crc = crc;
+            this.size = size;
+            this.compressedSize = compressedSize;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * Gets the channel reading the file holding the compressed data.
+         *
+         * @return The channel, open until this entry is closed.
+         */
+        FileChannel getChannel() {
+            return channel;
+        }
+
+        long getCompressedSize() {
+            return compressedSize;
+        }
+
+        long getCrc() {
+            return crc;
+        }
+
+        /**
+         * Gets the offset of the compressed data within {@link #getChannel() the file}.
+         *
+         * @return The offset.
+         */
+        long getDataOffset() {
+            return HEADER_LENGTH;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        /**
+         * Sets method, CRC and sizes of the given entry.
+         *
+         * @param entry The entry.
+         */
+        void transferTo(final ZipArchiveEntry entry) {
+            entry.setMethod(method);
+            entry.setCrc(crc);
+            entry.setSize(size);
+            entry.setCompressedSize(compressedSize);
+        }
+    }
+
+    /** Method, CRC, size and compressed size. */
+    private static final int HEADER_LENGTH = Integer.BYTES + 3 * Long.BYTES;
+
+    private static final String SUFFIX = ".zipentry";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static String toHex(final byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX_DIGITS[bytes[i] >> 4 & 0xf];
+            chars[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    private final Path directory;
+
+    private final long maxSize;
+
+    /** Sizes of the cached files by name, least recently used first. */
+    private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalSize;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Constructs a new instance, picking up the entries already cached in the directory.
+     *
+     * @param directory The cache directory, created if it doesn't exist.
+     * @param maxSize   The maximum number of bytes of all cached files.
+     * @throws IOException if the directory can't be created or listed.
+     */
+    public CompressedEntryCache(final Path directory, final long maxSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize;
+        final List<Path> existing = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).forEach(existing::add);
+        }
+        final Map<Path, FileTime> times = new LinkedHashMap<>();
+        for (final Path file : existing) {
+            times.put(file, Files.getLastModifiedTime(file));
+        }
+        existing.sort(Comparator.comparing(times::get));
+        synchronized (this) {
+            for (final Path file : existing) {
+                add(file.getFileName().toString(), Files.size(file));
+            }
+            evict(null);
+        }
+    }
+
+    private void add(final String name, final long size) {
+        final Long previous = files.put(name, size);
+        totalSize += size - (previous != null ? previous : 0);
+    }
+
+    /**
+     * Compresses the data of the given source into the cache, keeping the file open for the returned entry.
+     */
+    private CachedEntry compress(final Path file, final InputStreamSupplier source, final int method, final int level) throws IOException {
+        final Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final CachedEntry compressed;
+            try (InputStream in = source.get();
+                    StreamCompressor compressor = StreamCompressor.create(channel, new Deflater(level, true))) {
+                channel.position(HEADER_LENGTH);
+                compressor.deflate(in, method);
+                compressed = new CachedEntry(channel, method, compressor.getCrc32(), compressor.getBytesRead(), compressor.getBytesWrittenForLastEntry());
+                final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+                header.putInt(compressed.method).putLong(compressed.crc).putLong(compressed.size).putLong(compressed.compressedSize).flip();
+                channel.write(header, 0);
+            }
+            // the open channel still reads the moved file
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel = null;
+            return compressed;
+        } finally {
+            if (channel != null) {
+                channel.close();
+            }
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Deletes the least recently used files until the cache fits into its maximum size.
+     *
+     * @param keep The name of a file to keep even if it doesn't fit, or null.
+     */
+    private void evict(final String keep) {
+        final Iterator<Map.Entry<String, Long>> iterator = files.entrySet().iterator();
+        while (totalSize > maxSize && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(directory.resolve(eldest.getKey()));
+            } catch (final IOException e) {
+                // still open elsewhere, retried once used again
+                continue;
+            }
+            totalSize -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Gets the compressed data of the given source, compressing it into the cache if it isn't cached yet.
+     * <p>
+     * The returned entry is never evicted by this call, even if it is larger than the maximum size of the cache, and holds its file open until it is closed.
+     * </p>
+     *
+     * @param source The uncompressed data, read twice if it isn't cached.
+     * @param method The compression method, {@link ZipEntry#STORED} or {@link ZipEntry#DEFLATED}.
+     * @param level  The compression level.
+     * @return The cached entry, to be closed by the caller, or null if the cache directory has been removed.
+     * @throws IOException if reading the source or accessing the cache fails.
+     */
+    CachedEntry get(final InputStreamSupplier source, final int method, final int level) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+        final byte[] buffer = new byte[8192];
+        try (InputStream in = source.get()) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        final String name = toHex(digest.digest()) + "-" + method + "-" + (method == ZipEntry.STORED ? 0 : level) + SUFFIX;
+        final Path file = directory.resolve(name);
+        final CachedEntry cached = read(file);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            synchronized (this) {
+                add(name, HEADER_LENGTH + cached.compressedSize);
+            }
+            try {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (final IOException e) {
+                // the order of use is only kept in memory then
+            }
+            return cached;
+        }
+        missCount.incrementAndGet();
+        final CachedEntry compressed;
+        try {
+            compressed = compress(file, source, method, level);
+        } catch (final NoSuchFileException e) {
+            // a cache must not fail the caller, who compresses the data itself
+            return null;
+        }
+        synchronized (this) {
+            add(name, HEADER_LENGTH + compressed.compressedSize);
+            evict(name);
+        }
+        return compressed;
+    }
+
+    /**
+     * Gets the number of entries found in the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of entries that had to be compressed.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Gets the number of bytes of all cached files known to this cache.
+     *
+     * @return The number of bytes.
+     */
+    public synchronized long getSize() {
+        return totalSize;
+    }
+
+    /**
+     * Reads the header of a cached file, keeping the file open for the returned entry.
+     *
+     * @return The cached entry or null if the file doesn't exist, has been evicted meanwhile or is damaged.
+     */
+    private CachedEntry read(final Path file) throws IOException {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (final NoSuchFileException e) {
+            return null;
+        }
+        CachedEntry cached = null;
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read fully
+            }
+            if (!header.hasRemaining()) {
+                header.flip();
+                final CachedEntry candidate = new CachedEntry(channel, header.getInt(), header.getLong(), header.getLong(), header.getLong());
+                if (channel.size() == HEADER_LENGTH + candidate.compressedSize) {
+                    cached = candidate;
+                }
+            }
+            return cached;
+        } finally {
+            if (cached == null) {
+                channel.close();
+            }
+        }
+    }
+}
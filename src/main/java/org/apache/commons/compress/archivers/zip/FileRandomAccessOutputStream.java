@@ -64,6 +64,12 @@ public synchronized long position() {
         return position;
     }
 
+    @Override
+    synchronized void transferFrom(final FileChannel source, final long sourcePosition, final long count) throws IOException {
+        ZipIoUtil.transferAll(source, sourcePosition, count, channel);
+        position += count;
+    }
+
     @Override
     public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
         ZipIoUtil.writeAll(channel, ByteBuffer.wrap(b, off, len));
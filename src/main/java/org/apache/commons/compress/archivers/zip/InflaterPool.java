@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Inflater;
+
+/**
+ * Bounded pool of {@link Inflater}s for raw DEFLATE data as found in ZIP archives.
+ * <p>
+ * Every {@link Inflater} holds native zlib state which is only freed once it is {@link Inflater#end() ended}. Reading many small deflated entries creates and
+ * ends an {@link Inflater} per entry; sharing a pool between {@link ZipFile}s and {@link ZipArchiveInputStream}s using
+ * {@link ZipFile.Builder#setInflaterPool(InflaterPool)} and {@link ZipArchiveInputStream.AbstractBuilder#setInflaterPool(InflaterPool)} reuses them instead.
+ * </p>
+ * <p>
+ * The pool keeps at most {@code capacity} idle inflaters, inflaters released to a full pool are ended. {@link #close() Closing} the pool ends all idle
+ * inflaters, inflaters released afterwards are ended as well.
+ * </p>
+ *
+ * @ThreadSafe
+ * @since 1.29.0
+ */
+public final class InflaterPool implements Closeable {
+
+    private final BlockingQueue<Inflater> idle;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param capacity The maximum number of idle inflaters kept by the pool.
+     * @throws IllegalArgumentException if {@code capacity} is less than 1.
+     */
+    public InflaterPool(final int capacity) {
+        this.idle = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Takes an idle inflater from the pool or creates a new one if there is none.
+     *
+     * @return An inflater for raw DEFLATE data, to be handed back using {@link #release(Inflater)}.
+     */
+    public Inflater acquire() {
+        final Inflater inflater = idle.poll();
+        if (inflater != null) {
+            hitCount.incrementAndGet();
+            return inflater;
+        }
+        missCount.incrementAndGet();
+        return new Inflater(true);
+    }
+
+    /**
+     * Ends all idle inflaters; inflaters released afterwards are ended right away.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        drain();
+    }
+
+    private void drain() {
+        Inflater inflater;
+        while ((inflater = idle.poll()) != null) {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Gets the number of {@link #acquire()} calls served by an idle inflater.
+     *
+     * @return The number of pool hits.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of idle inflaters currently kept by the pool.
+     *
+     * @return The number of idle inflaters.
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Gets the number of {@link #acquire()} calls that had to create a new inflater.
+     *
+     * @return The number of pool misses.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Hands an inflater obtained from {@link #acquire()} back to the pool.
+     * <p>
+     * The inflater is reset and kept for reuse, or ended if the pool is full or closed. It must not be used by the caller afterwards.
+     * </p>
+     *
+     * @param inflater The inflater to release.
+     */
+    public void release(final Inflater inflater) {
+        if (closed) {
+            inflater.end();
+            return;
+        }
+        inflater.reset();
+        if (!idle.offer(inflater)) {
+            inflater.end();
+        } else if (closed) {
+            // lost a race with close()
+            drain();
+        }
+    }
+}
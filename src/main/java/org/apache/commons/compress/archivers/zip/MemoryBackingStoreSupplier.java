@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.compress.parallel.ScatterGatherBackingStore;
+import org.apache.commons.compress.parallel.ScatterGatherBackingStoreSupplier;
+
+/**
+ * Implements {@link ScatterGatherBackingStoreSupplier} keeping the scattered data in memory and spilling to temporary files only when running out of budget.
+ * <p>
+ * Each store keeps the data written to it in heap chunks of {@value #CHUNK_SIZE} bytes. Once a store holds {@code maxStoreMemory} bytes, or all stores of
+ * this supplier together hold {@code maxMemory} bytes, the store writes all further data to a temporary file created like {@link DefaultBackingStoreSupplier}
+ * does. Reading a store back only touches the file for the spilled part. Chunks of closed stores are kept for reuse by later stores, the supplier never holds
+ * more than {@code maxMemory} bytes of chunks.
+ * </p>
+ * <p>
+ * For example:
+ * </p>
+ *
+ * <pre>
+ * final ParallelScatterZipCreator zipCreator = new ParallelScatterZipCreator(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()),
+ *         new MemoryBackingStoreSupplier(null, 64 * 1024 * 1024, 256 * 1024 * 1024));
+ * </pre>
+ *
+ * @ThreadSafe
+ * @since 1.29.0
+ */
+public class MemoryBackingStoreSupplier implements ScatterGatherBackingStoreSupplier {
+
+    /**
+     * Keeps data in chunks and spills to a file-based store.
+     */
+    private final class MemoryBackingStore implements ScatterGatherBackingStore {
+
+        private final List<byte[]> chunks = new ArrayList<>();
+
+        /** Number of bytes used in the last chunk. */
+        private int lastChunkLength = CHUNK_SIZE;
+
+        private ScatterGatherBackingStore spill;
+
+        @Override
+        public void close() throws IOException {
+            try {
+                closeForWriting();
+            } finally {
+                chunks.forEach(idleChunks::offer);
+                chunks.clear();
+                lastChunkLength = CHUNK_SIZE;
+                if (spill != null) {
+                    spill.close();
+                }
+            }
+        }
+
+        @Override
+        public void closeForWriting() throws IOException {
+            if (spill != null) {
+                spill.closeForWriting();
+            }
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            final List<InputStream> streams = new ArrayList<>(chunks.size() + 1);
+            for (int i = 0; i < chunks.size(); i++) {
+                final int length = i == chunks.size() - 1 ? lastChunkLength : CHUNK_SIZE;
+                streams.add(new ByteBufferInputStream(ByteBuffer.wrap(chunks.get(i), 0, length), false));
+            }
+            if (spill != null) {
+                streams.add(spill.getInputStream());
+            }
+            return new SequenceInputStream(Collections.enumeration(streams));
+        }
+
+        @Override
+        public void writeOut(final byte[] data, final int offset, final int length) throws IOException {
+            int off = offset;
+            int len = length;
+            while (len > 0 && spill == null) {
+                if (lastChunkLength == CHUNK_SIZE) {
+                    final byte[] chunk = chunks.size() < maxChunksPerStore ? acquireChunk() : null;
+                    if (chunk == null) {
+                        spill = fileBackingStoreSupplier.get();
+                        break;
+                    }
+                    chunks.add(chunk);
+                    lastChunkLength = 0;
+                }
+                final int n = Math.min(len, CHUNK_SIZE - lastChunkLength);
+                System.arraycopy(data, off, chunks.get(chunks.size() - 1), lastChunkLength, n);
+                lastChunkLength += n;
+                off += n;
+                len -= n;
+            }
+            if (len > 0) {
+                spill.writeOut(data, off, len);
+            }
+        }
+    }
+
+    /**
+     * Size of the chunks holding the data of a store.
+     */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private final DefaultBackingStoreSupplier fileBackingStoreSupplier;
+
+    private final long maxChunksPerStore;
+
+    private final long maxChunks;
+
+    private final AtomicLong allocatedChunks = new AtomicLong();
+
+    /** Chunks of closed stores, counted by {@link #allocatedChunks}. */
+    private final Queue<byte[]> idleChunks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param dir            folder for temporary files, may be null to use the default temporary-file directory, must exist if non-null.
+     * @param maxStoreMemory The maximum number of bytes a single store keeps in memory, rounded down to a multiple of {@value #CHUNK_SIZE}.
+     * @param maxMemory      The maximum number of bytes all stores of this supplier keep in memory, rounded down to a multiple of {@value #CHUNK_SIZE}.
+     * @throws IllegalArgumentException if {@code maxStoreMemory} or {@code maxMemory} is negative.
+     */
+    public MemoryBackingStoreSupplier(final Path dir, final long maxStoreMemory, final long maxMemory) {
+        if (maxStoreMemory < 0 || maxMemory < 0) {
+            throw new IllegalArgumentException("Memory limits must not be negative: " + maxStoreMemory + ", " + maxMemory);
+        }
+        this.fileBackingStoreSupplier = new DefaultBackingStoreSupplier(dir);
+        this.maxChunksPerStore = maxStoreMemory / CHUNK_SIZE;
+        this.maxChunks = maxMemory / CHUNK_SIZE;
+    }
+
+    /**
+     * Takes an idle chunk or allocates one if the budget allows.
+     *
+     * @return The chunk or {@code null} if the budget is exhausted.
+     */
+    private byte[] acquireChunk() {
+        final byte[] chunk = idleChunks.poll();
+        if (chunk != null) {
+            return chunk;
+        }
+        long allocated;
+        do {
+            allocated = allocatedChunks.get();
+            if (allocated >= maxChunks) {
+                return null;
+            }
+        } while (!allocatedChunks.compareAndSet(allocated, allocated + 1));
+        return new byte[CHUNK_SIZE];
+    }
+
+    @Override
+    public ScatterGatherBackingStore get() throws IOException {
+        return new MemoryBackingStore();
+    }
+
+    /**
+     * Gets the number of bytes currently held in chunks, by stores or for reuse.
+     *
+     * @return The number of bytes.
+     */
+    public long getAllocatedMemory() {
+        return allocatedChunks.get() * CHUNK_SIZE;
+    }
+}
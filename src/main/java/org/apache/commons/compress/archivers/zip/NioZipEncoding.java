@@ -27,12 +27,19 @@
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * A ZipEncoding, which uses a {@link Charset} to encode names.
  * <p>
  * The methods of this class are reentrant.
  * </p>
+ * <p>
+ * Names consisting of ASCII characters only, the vast majority, are converted without a {@link CharsetEncoder} or {@link CharsetDecoder} if the charset maps
+ * ASCII to itself, names in UTF-8 use the conversions of {@link String} unless they are malformed. Encoders and decoders for all other names are reused per
+ * thread.
+ * </p>
  *
  * @Immutable
  */
@@ -43,6 +50,21 @@ final class NioZipEncoding implements ZipEncoding, CharsetAccessor {
     private static final String REPLACEMENT_STRING = String.valueOf(REPLACEMENT);
     private static final char[] HEX_CHARS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F' };
 
+    /**
+     * Tests whether the given charset encodes and decodes ASCII characters as the bytes of the same value.
+     */
+    private static boolean isAsciiCompatible(final Charset charset) {
+        if (!charset.canEncode()) {
+            return false;
+        }
+        final byte[] ascii = new byte[0x80];
+        for (int i = 0; i < ascii.length; i++) {
+            ascii[i] = (byte) i;
+        }
+        final String chars = new String(ascii, StandardCharsets.US_ASCII);
+        return Arrays.equals(ascii, chars.getBytes(charset)) && chars.equals(new String(ascii, charset));
+    }
+
     private static ByteBuffer encodeFully(final CharsetEncoder enc, final CharBuffer cb, final ByteBuffer out) {
         ByteBuffer buffer = out;
         while (cb.hasRemaining()) {
@@ -97,8 +119,17 @@ private static int estimateInitialBufferSize(final CharsetEncoder enc, final int
 
     private final Charset charset;
 
+    /**
+     * Whether the charset is UTF-8, which replaces malformed input.
+     */
     private final boolean useReplacement;
 
+    private final boolean asciiCompatible;
+
+    private final ThreadLocal<CharsetEncoder> encoder = ThreadLocal.withInitial(this::newEncoder);
+
+    private final ThreadLocal<CharsetDecoder> decoder = ThreadLocal.withInitial(this::newDecoder);
+
     /**
      * Constructs an NioZipEncoding using the given charset.
      *
@@ -107,6 +138,7 @@ private static int estimateInitialBufferSize(final CharsetEncoder enc, final int
     NioZipEncoding(final Charset charset) {
         this.charset = charset;
         this.useReplacement = ZipEncodingHelper.isUTF8(charset);
+        this.asciiCompatible = useReplacement || isAsciiCompatible(charset);
     }
 
     /**
@@ -114,7 +146,15 @@ private static int estimateInitialBufferSize(final CharsetEncoder enc, final int
      */
     @Override
     public boolean canEncode(final String name) {
-        return newEncoder().canEncode(name);
+        if (asciiCompatible && ZipEncodingHelper.isAscii(name)) {
+            return true;
+        }
+        if (useReplacement) {
+            return ZipEncodingHelper.isWellFormed(name);
+        }
+        final CharsetEncoder enc = encoder.get();
+        enc.reset();
+        return enc.canEncode(name);
     }
 
     /**
@@ -122,7 +162,19 @@ public boolean canEncode(final String name) {
      */
     @Override
     public String decode(final byte[] data) throws IOException {
-        return newDecoder().decode(ByteBuffer.wrap(data)).toString();
+        if (asciiCompatible) {
+            final int ascii = ZipEncodingHelper.countAscii(data);
+            if (ascii == data.length) {
+                return new String(data, StandardCharsets.ISO_8859_1);
+            }
+            if (useReplacement) {
+                final String name = ZipEncodingHelper.decodeUtf8(data, ascii);
+                if (name != null) {
+                    return name;
+                }
+            }
+        }
+        return decoder.get().decode(ByteBuffer.wrap(data)).toString();
     }
 
     /**
@@ -130,7 +182,14 @@ public String decode(final byte[] data) throws IOException {
      */
     @Override
     public ByteBuffer encode(final String name) {
-        final CharsetEncoder enc = newEncoder();
+        if (asciiCompatible && ZipEncodingHelper.isAscii(name)) {
+            return ByteBuffer.wrap(name.getBytes(StandardCharsets.ISO_8859_1));
+        }
+        if (useReplacement && ZipEncodingHelper.isWellFormed(name)) {
+            return ByteBuffer.wrap(name.getBytes(StandardCharsets.UTF_8));
+        }
+        final CharsetEncoder enc = encoder.get();
+        enc.reset();
         final CharBuffer cb = CharBuffer.wrap(name);
         CharBuffer tmp = null;
         ByteBuffer out = ByteBuffer.allocate(estimateInitialBufferSize(enc, cb.remaining()));
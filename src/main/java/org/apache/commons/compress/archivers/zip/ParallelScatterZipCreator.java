@@ -21,6 +21,7 @@
 import static org.apache.commons.compress.archivers.zip.ZipArchiveEntryRequest.createZipArchiveEntryRequest;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.UncheckedIOException;
 import java.util.Deque;
 import java.util.concurrent.Callable;
@@ -48,6 +49,12 @@
  * The client can supply an {@link java.util.concurrent.ExecutorService}, but for reasons of memory model consistency, this will be shut down by this class
  * prior to completion.
  * </p>
+ * <p>
+ * By default, all entries are compressed into backing stores before {@link #writeTo writeTo} copies them to the target archive. In streaming mode, enabled by
+ * {@link #ParallelScatterZipCreator(ExecutorService, ScatterGatherBackingStoreSupplier, int, ZipArchiveOutputStream, int) passing the target archive
+ * upfront}, each entry is compressed into a backing store of its own and copied to the target as soon as it and all entries submitted before it are done.
+ * The copying happens on the client thread while it submits entries, and submitting blocks while too many entries are in flight.
+ * </p>
  *
  * @since 1.10
  */
@@ -64,6 +71,51 @@ public class ParallelScatterZipCreator {
 
     private final int compressionLevel;
 
+    /**
+     * The target archive in streaming mode, null otherwise.
+     */
+    private final ZipArchiveOutputStream streamingTarget;
+
+    /**
+     * The maximum number of submitted entries not yet written to {@link #streamingTarget}.
+     */
+    private final int maxInFlight;
+
+    /**
+     * Whether an entry failed in streaming mode, no further entries are submitted or written.
+     */
+    private boolean streamingFailed;
+
+    private int maxQueueDepth;
+
+    private long waitNanos;
+
+    /**
+     * Chooses the method of entries without one or null.
+     */
+    private AdaptiveMethodPolicy methodPolicy;
+
+    /**
+     * Cache of compressed entry data or null.
+     */
+    private CompressedEntryCache entryCache;
+
+    /**
+     * Whether the data of ZSTD entries is compressed, using {@link #zstdLevel} and {@link #zstdWorkers}.
+     */
+    private boolean zstdCompression;
+
+    private int zstdLevel;
+
+    private int zstdWorkers;
+
+    /**
+     * Whether the data of XZ entries is compressed, using {@link #xzPreset}.
+     */
+    private boolean xzCompression;
+
+    private int xzPreset;
+
     private final ThreadLocal<ScatterZipOutputStream> tlScatterStreams = new ThreadLocal<ScatterZipOutputStream>() {
         @Override
         protected ScatterZipOutputStream initialValue() {
@@ -115,13 +167,46 @@ public ParallelScatterZipCreator(final ExecutorService executorService, final Sc
      */
     public ParallelScatterZipCreator(final ExecutorService executorService, final ScatterGatherBackingStoreSupplier backingStoreSupplier,
             final int compressionLevel) throws IllegalArgumentException {
+        this(executorService, backingStoreSupplier, compressionLevel, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a ParallelScatterZipCreator in streaming mode.
+     * <p>
+     * Entries are written to {@code target} in the order they have been submitted, as soon as they and all entries submitted before them are done.
+     * Submitting an entry blocks while {@code maxInFlight} submitted entries haven't been written yet. Each entry uses a backing store of its own, a supplier
+     * keeping data in memory like {@link MemoryBackingStoreSupplier} avoids a temporary file per entry. {@link #writeTo writeTo} must be called with the same
+     * target to write the remaining entries.
+     * </p>
+     * <p>
+     * Callables passed to {@link #submit(Callable)} must return the {@link ScatterZipOutputStream} they have written to, as the ones created by
+     * {@link #createCallable createCallable} do. If writing to the target fails or the thread is interrupted while waiting to submit, an
+     * {@link UncheckedIOException} is thrown and the entry isn't submitted. If compressing an entry fails, no further entries are submitted and
+     * {@link #writeTo writeTo} throws the failure.
+     * </p>
+     *
+     * @param executorService      The executorService to use. For technical reasons, this will be shut down by this class.
+     * @param backingStoreSupplier The supplier of backing store which shall be used.
+     * @param compressionLevel     The compression level used in compression, this value should be -1(default level) or between 0~9.
+     * @param target               The archive to write entries to.
+     * @param maxInFlight          The maximum number of submitted entries not yet written to the target.
+     * @throws IllegalArgumentException if the compression level or {@code maxInFlight} is illegal.
+     * @since 1.29.0
+     */
+    public ParallelScatterZipCreator(final ExecutorService executorService, final ScatterGatherBackingStoreSupplier backingStoreSupplier,
+            final int compressionLevel, final ZipArchiveOutputStream target, final int maxInFlight) throws IllegalArgumentException {
         if ((compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) && compressionLevel != Deflater.DEFAULT_COMPRESSION) {
             throw new IllegalArgumentException("Compression level is expected between -1~9");
         }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Maximum number of entries in flight must be positive: " + maxInFlight);
+        }
 
         this.backingStoreSupplier = backingStoreSupplier;
         this.executorService = executorService;
         this.compressionLevel = compressionLevel;
+        this.streamingTarget = target;
+        this.maxInFlight = maxInFlight;
     }
 
     /**
@@ -155,6 +240,18 @@ private void closeAll() {
         for (final ScatterZipOutputStream scatterStream : streams) {
             IOUtils.closeQuietly(scatterStream);
         }
+        if (streamingTarget != null) {
+            // per entry streams not written yet
+            for (final Future<? extends ScatterZipOutputStream> future : futures) {
+                if (future.isDone() && !future.isCancelled()) {
+                    try {
+                        IOUtils.closeQuietly(future.get());
+                    } catch (final ExecutionException | InterruptedException e) {
+                        // failed entries close their streams themselves
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -177,15 +274,11 @@ private void closeAll() {
 
     public final Callable<ScatterZipOutputStream> createCallable(final ZipArchiveEntry zipArchiveEntry, final InputStreamSupplier source) {
         final int method = zipArchiveEntry.getMethod();
-        if (method == ZipMethod.UNKNOWN_CODE) {
+        if (method == ZipMethod.UNKNOWN_CODE && methodPolicy == null) {
             throw new IllegalArgumentException("Method must be set on zipArchiveEntry: " + zipArchiveEntry);
         }
         final ZipArchiveEntryRequest zipArchiveEntryRequest = createZipArchiveEntryRequest(zipArchiveEntry, source);
-        return () -> {
-            final ScatterZipOutputStream scatterStream = tlScatterStreams.get();
-            scatterStream.addArchiveEntry(zipArchiveEntryRequest);
-            return scatterStream;
-        };
+        return () -> addToScatterStream(zipArchiveEntryRequest);
     }
 
     /**
@@ -205,11 +298,26 @@ public final Callable<ScatterZipOutputStream> createCallable(final ZipArchiveEnt
      * @since 1.13
      */
     public final Callable<ScatterZipOutputStream> createCallable(final ZipArchiveEntryRequestSupplier zipArchiveEntryRequestSupplier) {
-        return () -> {
+        return () -> addToScatterStream(zipArchiveEntryRequestSupplier.get());
+    }
+
+    /**
+     * Compresses an entry into the scatter stream of the current thread, or into a scatter stream of its own in streaming mode.
+     */
+    private ScatterZipOutputStream addToScatterStream(final ZipArchiveEntryRequest zipArchiveEntryRequest) throws IOException {
+        if (streamingTarget == null) {
             final ScatterZipOutputStream scatterStream = tlScatterStreams.get();
-            scatterStream.addArchiveEntry(zipArchiveEntryRequestSupplier.get());
+            scatterStream.addArchiveEntry(zipArchiveEntryRequest);
             return scatterStream;
-        };
+        }
+        final ScatterZipOutputStream scatterStream = createDeferred(backingStoreSupplier);
+        try {
+            scatterStream.addArchiveEntry(zipArchiveEntryRequest);
+        } catch (final IOException | RuntimeException e) {
+            IOUtils.closeQuietly(scatterStream);
+            throw e;
+        }
+        return scatterStream;
     }
 
     @SuppressWarnings("resource") // Caller closes
@@ -217,7 +325,17 @@ private ScatterZipOutputStream createDeferred(final ScatterGatherBackingStoreSup
         final ScatterGatherBackingStore bs = scatterGatherBackingStoreSupplier.get();
         // lifecycle is bound to the ScatterZipOutputStream returned
         final StreamCompressor sc = StreamCompressor.create(compressionLevel, bs); // NOSONAR
-        return new ScatterZipOutputStream(bs, sc);
+        if (zstdCompression) {
+            sc.setZstdCompression(zstdLevel, zstdWorkers);
+        }
+        if (xzCompression) {
+            sc.setXzCompression(xzPreset);
+        }
+        final ScatterZipOutputStream scatterStream = new ScatterZipOutputStream(bs, sc);
+        scatterStream.setLevel(compressionLevel);
+        scatterStream.setMethodPolicy(methodPolicy);
+        scatterStream.setEntryCache(entryCache);
+        return scatterStream;
     }
 
     /**
@@ -226,7 +344,76 @@ private ScatterZipOutputStream createDeferred(final ScatterGatherBackingStoreSup
      * @return A string.
      */
     public ScatterStatistics getStatisticsMessage() {
-        return new ScatterStatistics(compressionDoneAt - startedAt, scatterDoneAt - compressionDoneAt);
+        return new ScatterStatistics(compressionDoneAt - startedAt, scatterDoneAt - compressionDoneAt, maxQueueDepth, TimeUnit.NANOSECONDS.toMillis(waitNanos),
+                methodPolicy);
+    }
+
+    /**
+     * Sets a cache of compressed entry data, must be called before adding entries.
+     * <p>
+     * The payload of each entry with a method is then read once to look up its compressed data in the cache, and once more to compress it into the cache on
+     * a miss, so the {@link InputStreamSupplier}s must be able to supply their stream more than once. Entries whose method is chosen by a
+     * {@link #setMethodPolicy(AdaptiveMethodPolicy) policy} bypass the cache.
+     * </p>
+     *
+     * @param entryCache The cache or null to compress all entries.
+     * @since 1.29.0
+     */
+    public void setEntryCache(final CompressedEntryCache entryCache) {
+        this.entryCache = entryCache;
+    }
+
+    /**
+     * Sets the policy choosing between storing and deflating entries without a method, must be called before adding entries.
+     * <p>
+     * Without a policy the method must be set on all entries. The decisions of the policy are reported by {@link #getStatisticsMessage()}.
+     * </p>
+     *
+     * @param methodPolicy The policy or null to require a method.
+     * @since 1.29.0
+     */
+    public void setMethodPolicy(final AdaptiveMethodPolicy methodPolicy) {
+        this.methodPolicy = methodPolicy;
+    }
+
+    /**
+     * Makes this creator compress the data of {@link ZipMethod#XZ XZ} entries, must be called before adding entries.
+     * <p>
+     * By default the payload of XZ entries must be XZ compressed already and is written as is.
+     * </p>
+     *
+     * @param preset The XZ preset, from 0 to 9, see {@link org.tukaani.xz.LZMA2Options#LZMA2Options(int)}.
+     * @throws IllegalArgumentException if the preset is invalid.
+     * @since 1.29.0
+     */
+    public void setXzCompression(final int preset) {
+        if (preset < 0 || preset > 9) {
+            throw new IllegalArgumentException("Invalid XZ preset: " + preset);
+        }
+        this.xzCompression = true;
+        this.xzPreset = preset;
+    }
+
+    /**
+     * Makes this creator compress the data of {@link ZipMethod#ZSTD ZSTD} and {@link ZipMethod#ZSTD_DEPRECATED ZSTD_DEPRECATED} entries, must be called
+     * before adding entries.
+     * <p>
+     * By default the payload of Zstandard entries must be compressed already and is written as is. Entries are compressed in parallel already, so
+     * {@code workers} is best left at 0 unless there are few large entries.
+     * </p>
+     *
+     * @param level   The Zstandard compression level, 3 is the default of zstd.
+     * @param workers The number of threads compressing each entry, 0 to compress on the thread of the entry.
+     * @throws IllegalArgumentException if {@code workers} is negative.
+     * @since 1.29.0
+     */
+    public void setZstdCompression(final int level, final int workers) {
+        if (workers < 0) {
+            throw new IllegalArgumentException("Invalid number of workers: " + workers);
+        }
+        this.zstdCompression = true;
+        this.zstdLevel = level;
+        this.zstdWorkers = workers;
     }
 
     /**
@@ -236,6 +423,10 @@ public ScatterStatistics getStatisticsMessage() {
      * @param callable The callable to run, created by {@link #createCallable createCallable}, possibly wrapped by caller.
      */
     public final void submit(final Callable<? extends Object> callable) {
+        if (streamingTarget != null) {
+            submitStreamAwareCallable(() -> (ScatterZipOutputStream) callable.call());
+            return;
+        }
         submitStreamAwareCallable(() -> {
             callable.call();
             return tlScatterStreams.get();
@@ -250,7 +441,65 @@ public final void submit(final Callable<? extends Object> callable) {
      * @since 1.19
      */
     public final void submitStreamAwareCallable(final Callable<? extends ScatterZipOutputStream> callable) {
+        if (streamingTarget == null) {
+            futures.add(executorService.submit(callable));
+            return;
+        }
+        writeCompletedEntries(maxInFlight - 1);
+        if (streamingFailed) {
+            return;
+        }
         futures.add(executorService.submit(callable));
+        maxQueueDepth = Math.max(maxQueueDepth, futures.size());
+        writeCompletedEntries(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Writes entries to the streaming target in submission order as long as they are done, waiting for them while more than {@code maxPending} entries
+     * are pending.
+     */
+    private void writeCompletedEntries(final int maxPending) {
+        Future<? extends ScatterZipOutputStream> head;
+        while (!streamingFailed && (head = futures.peek()) != null) {
+            if (!head.isDone()) {
+                if (futures.size() <= maxPending) {
+                    return;
+                }
+                final long start = System.nanoTime();
+                try {
+                    head.get();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    // submitting anyway would exceed maxInFlight
+                    throw new UncheckedIOException((InterruptedIOException) new InterruptedIOException("Interrupted while waiting for entries").initCause(e));
+                } catch (final ExecutionException e) {
+                    // reported by writeTo
+                } finally {
+                    waitNanos += System.nanoTime() - start;
+                }
+            }
+            final ScatterZipOutputStream scatterStream;
+            try {
+                scatterStream = head.get();
+            } catch (final InterruptedException | ExecutionException e) {
+                // reported by writeTo, a done future doesn't wait
+                streamingFailed = true;
+                return;
+            }
+            futures.poll();
+            try {
+                writeAndClose(scatterStream, streamingTarget);
+            } catch (final IOException e) {
+                streamingFailed = true;
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void writeAndClose(final ScatterZipOutputStream scatterStream, final ZipArchiveOutputStream target) throws IOException {
+        try (ScatterZipOutputStream closeable = scatterStream) {
+            scatterStream.writeTo(target);
+        }
     }
 
     /**
@@ -269,7 +518,11 @@ public final void submitStreamAwareCallable(final Callable<? extends ScatterZipO
      * @throws ExecutionException   If something happens in the parallel execution.
      */
     public void writeTo(final ZipArchiveOutputStream targetStream) throws IOException, InterruptedException, ExecutionException {
-
+        if (streamingTarget != null) {
+            writeRemainingTo(targetStream);
+            return;
+        }
+        maxQueueDepth = futures.size();
         try {
             // Make sure we catch any exceptions from parallel phase
             try {
@@ -299,4 +552,35 @@ public void writeTo(final ZipArchiveOutputStream targetStream) throws IOExceptio
             closeAll();
         }
     }
+
+    /**
+     * Writes the entries not written yet in streaming mode.
+     */
+    private void writeRemainingTo(final ZipArchiveOutputStream targetStream) throws IOException, InterruptedException, ExecutionException {
+        if (targetStream != streamingTarget) {
+            throw new IllegalArgumentException("Streaming mode requires writing to the target given to the constructor");
+        }
+        try {
+            try {
+                Future<? extends ScatterZipOutputStream> head;
+                while ((head = futures.peek()) != null) {
+                    final ScatterZipOutputStream scatterStream = head.get();
+                    futures.poll();
+                    if (futures.isEmpty()) {
+                        compressionDoneAt = System.currentTimeMillis();
+                    }
+                    writeAndClose(scatterStream, targetStream);
+                }
+            } finally {
+                executorService.shutdown();
+            }
+            executorService.awaitTermination(1000 * 60L, TimeUnit.SECONDS); // == Infinity. We really *must* wait for this to complete
+            if (compressionDoneAt == 0) {
+                compressionDoneAt = System.currentTimeMillis();
+            }
+            scatterDoneAt = System.currentTimeMillis();
+        } finally {
+            closeAll();
+        }
+    }
 }
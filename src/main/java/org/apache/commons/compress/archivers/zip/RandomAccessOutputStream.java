@@ -19,8 +19,11 @@
 
 package org.apache.commons.compress.archivers.zip;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * Abstraction over OutputStream which also allows random access writes.
@@ -36,6 +39,32 @@ abstract class RandomAccessOutputStream extends OutputStream {
      */
     abstract long position() throws IOException;
 
+    /**
+     * Writes a range of a file at the current position of this stream.
+     * <p>
+     * This implementation copies through a heap buffer, implementations writing to a channel transfer the bytes between the channels instead.
+     * </p>
+     *
+     * @param source   The file to read from.
+     * @param position The position of the range within the file.
+     * @param count    The number of bytes to write.
+     * @throws IOException if an I/O error occurs or the file ends before {@code count} bytes have been read.
+     */
+    void transferFrom(final FileChannel source, final long position, final long count) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(count, ZipArchiveOutputStream.COPY_BUFFER_SIZE));
+        long done = 0;
+        while (done < count) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), count - done));
+            final int read = source.read(buffer, position + done);
+            if (read < 0) {
+                throw new EOFException("Truncated source, expected " + count + " bytes at offset " + position);
+            }
+            write(buffer.array(), 0, read);
+            done += read;
+        }
+    }
+
     @Override
     public void write(final int b) throws IOException {
         write(new byte[] { (byte) b });
@@ -26,10 +26,21 @@
 public class ScatterStatistics {
     private final long compressionElapsed;
     private final long mergingElapsed;
+    private final int maxQueueDepth;
+    private final long waitElapsed;
+    private final long storedEntries;
+    private final long fastDeflatedEntries;
+    private final long deflatedEntries;
 
-    ScatterStatistics(final long compressionElapsed, final long mergingElapsed) {
+    ScatterStatistics(final long compressionElapsed, final long mergingElapsed, final int maxQueueDepth, final long waitElapsed,
+            final AdaptiveMethodPolicy methodPolicy) {
         this.compressionElapsed = compressionElapsed;
         this.mergingElapsed = mergingElapsed;
+        this.maxQueueDepth = maxQueueDepth;
+        this.waitElapsed = waitElapsed;
+        this.storedEntries = methodPolicy != null ? methodPolicy.getCount(AdaptiveMethodPolicy.Decision.STORE) : 0;
+        this.fastDeflatedEntries = methodPolicy != null ? methodPolicy.getCount(AdaptiveMethodPolicy.Decision.DEFLATE_FAST) : 0;
+        this.deflatedEntries = methodPolicy != null ? methodPolicy.getCount(AdaptiveMethodPolicy.Decision.DEFLATE) : 0;
     }
 
     /**
@@ -41,6 +52,41 @@ public long getCompressionElapsed() {
         return compressionElapsed;
     }
 
+    /**
+     * The number of entries the method policy decided to deflate with the configured level.
+     *
+     * @return The number of entries, 0 without a method policy.
+     * @see ParallelScatterZipCreator#setMethodPolicy(AdaptiveMethodPolicy)
+     * @since 1.29.0
+     */
+    public long getDeflatedEntries() {
+        return deflatedEntries;
+    }
+
+    /**
+     * The number of entries the method policy decided to deflate with {@link java.util.zip.Deflater#BEST_SPEED}.
+     *
+     * @return The number of entries, 0 without a method policy.
+     * @see ParallelScatterZipCreator#setMethodPolicy(AdaptiveMethodPolicy)
+     * @since 1.29.0
+     */
+    public long getFastDeflatedEntries() {
+        return fastDeflatedEntries;
+    }
+
+    /**
+     * The maximum number of entries submitted but not yet written to the target archive.
+     * <p>
+     * Without streaming this is the number of entries waiting when the results are merged.
+     * </p>
+     *
+     * @return The maximum queue depth.
+     * @since 1.29.0
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
     /**
      * The number of milliseconds elapsed in merging the results of the parallel compression, the IO phase
      *
@@ -50,9 +96,31 @@ public long getMergingElapsed() {
         return mergingElapsed;
     }
 
+    /**
+     * The number of entries the method policy decided to store.
+     *
+     * @return The number of entries, 0 without a method policy.
+     * @see ParallelScatterZipCreator#setMethodPolicy(AdaptiveMethodPolicy)
+     * @since 1.29.0
+     */
+    public long getStoredEntries() {
+        return storedEntries;
+    }
+
+    /**
+     * The number of milliseconds submitting entries was blocked in streaming mode because too many entries were in flight.
+     *
+     * @return The number of milliseconds spent waiting.
+     * @since 1.29.0
+     */
+    public long getWaitElapsed() {
+        return waitElapsed;
+    }
+
     @Override
     public String toString() {
-        return "compressionElapsed=" + compressionElapsed + "ms, mergingElapsed=" + mergingElapsed + "ms";
+        return "compressionElapsed=" + compressionElapsed + "ms, mergingElapsed=" + mergingElapsed + "ms, maxQueueDepth=" + maxQueueDepth + ", waitElapsed="
+                + waitElapsed + "ms, storedEntries=" + storedEntries + ", fastDeflatedEntries=" + fastDeflatedEntries + ", deflatedEntries=" + deflatedEntries;
     }
 
 }
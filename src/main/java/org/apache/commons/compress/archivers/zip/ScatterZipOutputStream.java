@@ -18,11 +18,16 @@
  */
 package org.apache.commons.compress.archivers.zip;
 
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.Queue;
@@ -54,12 +59,14 @@ public class ScatterZipOutputStream implements Closeable {
 
     private static final class CompressedEntry {
         final ZipArchiveEntryRequest zipArchiveEntryRequest;
+        final int method;
         final long crc;
         final long compressedSize;
         final long size;
 
-        CompressedEntry(final ZipArchiveEntryRequest zipArchiveEntryRequest, final long crc, final long compressedSize, final long size) {
+        CompressedEntry(final ZipArchiveEntryRequest zipArchiveEntryRequest, final int method, final long crc, final long compressedSize, final long size) {
             this.zipArchiveEntryRequest = zipArchiveEntryRequest;
+            this.method = method;
             this.crc = crc;
             this.compressedSize = compressedSize;
             this.size = size;
@@ -75,7 +82,7 @@ public ZipArchiveEntry transferToArchiveEntry() {
             entry.setCompressedSize(compressedSize);
             entry.setSize(size);
             entry.setCrc(crc);
-            entry.setMethod(zipArchiveEntryRequest.getMethod());
+            entry.setMethod(method);
             return entry;
         }
     }
@@ -86,6 +93,9 @@ public ZipArchiveEntry transferToArchiveEntry() {
     public static class ZipEntryWriter implements Closeable {
         private final Iterator<CompressedEntry> itemsIterator;
         private final InputStream inputStream;
+        /** Channel to read from instead of {@link #inputStream} if the backing store is file-based. */
+        private final FileChannel channel;
+        private long position;
 
         /**
          * Constructs a new instance.
@@ -96,12 +106,13 @@ public static class ZipEntryWriter implements Closeable {
         public ZipEntryWriter(final ScatterZipOutputStream out) throws IOException {
             out.backingStore.closeForWriting();
             itemsIterator = out.items.iterator();
-            inputStream = out.backingStore.getInputStream();
+            channel = out.openChannel();
+            inputStream = channel == null ? out.backingStore.getInputStream() : null;
         }
 
         @Override
         public void close() throws IOException {
-            IOUtils.close(inputStream);
+            IOUtils.close(inputStream, channel);
         }
 
         /**
@@ -112,6 +123,11 @@ public void close() throws IOException {
          */
         public void writeNextZipEntry(final ZipArchiveOutputStream target) throws IOException {
             final CompressedEntry compressedEntry = itemsIterator.next();
+            if (channel != null) {
+                target.addRawArchiveEntry(compressedEntry.transferToArchiveEntry(), channel, position);
+                position += compressedEntry.compressedSize;
+                return;
+            }
             // @formatter:off
             try (BoundedInputStream rawStream = BoundedInputStream.builder()
                     .setInputStream(inputStream)
@@ -185,6 +201,18 @@ public static ScatterZipOutputStream pathBased(final Path path, final int compre
 
     private ZipEntryWriter zipEntryWriter;
 
+    /** Chooses the method of entries without one or null. */
+    private AdaptiveMethodPolicy methodPolicy;
+
+    /** The level {@link #streamCompressor} has been created with. */
+    private int level;
+
+    /** Buffer for the samples of {@link #methodPolicy}. */
+    private byte[] sample;
+
+    /** Cache of compressed entry data or null. */
+    private CompressedEntryCache entryCache;
+
     /**
      * Constructs a new instance.
      *
@@ -203,13 +231,82 @@ public ScatterZipOutputStream(final ScatterGatherBackingStore backingStore, fina
      * @throws IOException If writing fails.
      */
     public void addArchiveEntry(final ZipArchiveEntryRequest zipArchiveEntryRequest) throws IOException {
+        int method = zipArchiveEntryRequest.getMethod();
+        if (entryCache != null && (method == ZipMethod.STORED.getCode() || method == ZipMethod.DEFLATED.getCode())
+                && addCachedEntry(zipArchiveEntryRequest, method)) {
+            return;
+        }
         try (InputStream payloadStream = zipArchiveEntryRequest.getPayloadStream()) {
-            streamCompressor.deflate(payloadStream, zipArchiveEntryRequest.getMethod());
+            if (method == ZipMethod.UNKNOWN_CODE && methodPolicy != null) {
+                method = deflateAdaptive(payloadStream);
+            } else {
+                streamCompressor.deflate(payloadStream, method);
+            }
         }
-        items.add(new CompressedEntry(zipArchiveEntryRequest, streamCompressor.getCrc32(), streamCompressor.getBytesWrittenForLastEntry(),
+        items.add(new CompressedEntry(zipArchiveEntryRequest, method, streamCompressor.getCrc32(), streamCompressor.getBytesWrittenForLastEntry(),
                 streamCompressor.getBytesRead()));
     }
 
+    /**
+     * Copies the compressed data of an entry from {@link #entryCache}, compressing it into the cache first on a miss.
+     *
+     * @return Whether the entry has been added, false if the cache is unusable.
+     */
+    private boolean addCachedEntry(final ZipArchiveEntryRequest zipArchiveEntryRequest, final int method) throws IOException {
+        final CompressedEntryCache.CachedEntry cachedEntry = entryCache.get(zipArchiveEntryRequest.getPayloadSupplier(), method, level);
+        if (cachedEntry == null) {
+            return false;
+        }
+        final byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        try (CompressedEntryCache.CachedEntry cached = cachedEntry) {
+            final FileChannel channel = cached.getChannel();
+            final long position = cached.getDataOffset();
+            for (long done = 0; done < cached.getCompressedSize();) {
+                byteBuffer.clear();
+                byteBuffer.limit((int) Math.min(buffer.length, cached.getCompressedSize() - done));
+                final int read = channel.read(byteBuffer, position + done);
+                if (read < 0) {
+                    throw new EOFException("Truncated cached data of " + zipArchiveEntryRequest.getZipArchiveEntry().getName());
+                }
+                streamCompressor.writeCounted(buffer, 0, read);
+                done += read;
+            }
+            items.add(new CompressedEntry(zipArchiveEntryRequest, method, cached.getCrc(), cached.getCompressedSize(), cached.getSize()));
+        }
+        return true;
+    }
+
+    /**
+     * Samples the head of the payload and compresses it using the method and level chosen by {@link #methodPolicy}.
+     *
+     * @return The method used.
+     */
+    private int deflateAdaptive(final InputStream payloadStream) throws IOException {
+        if (sample == null || sample.length != methodPolicy.getSampleSize()) {
+            sample = new byte[methodPolicy.getSampleSize()];
+        }
+        final int length = IOUtils.read(payloadStream, sample);
+        final AdaptiveMethodPolicy.Decision decision = methodPolicy.decide(sample, length, true);
+        final InputStream payload = new SequenceInputStream(new ByteArrayInputStream(sample, 0, length), payloadStream);
+        if (decision == AdaptiveMethodPolicy.Decision.STORE) {
+            streamCompressor.deflate(payload, ZipMethod.STORED.getCode());
+            return ZipMethod.STORED.getCode();
+        }
+        final int entryLevel = methodPolicy.getLevel(decision, level);
+        if (entryLevel != level) {
+            streamCompressor.setLevel(entryLevel);
+        }
+        try {
+            streamCompressor.deflate(payload, ZipMethod.DEFLATED.getCode());
+        } finally {
+            if (entryLevel != level) {
+                streamCompressor.setLevel(level);
+            }
+        }
+        return ZipMethod.DEFLATED.getCode();
+    }
+
     /**
      * Closes this stream, freeing all resources involved in the creation of this stream.
      *
@@ -228,6 +325,33 @@ public void close() throws IOException {
         }
     }
 
+    /**
+     * Sets the cache of compressed entry data used for entries whose request has a method.
+     *
+     * @param entryCache The cache or null to compress all entries.
+     */
+    void setEntryCache(final CompressedEntryCache entryCache) {
+        this.entryCache = entryCache;
+    }
+
+    /**
+     * Sets the compression level the {@link StreamCompressor} of this stream has been created with.
+     *
+     * @param level The compression level.
+     */
+    void setLevel(final int level) {
+        this.level = level;
+    }
+
+    /**
+     * Sets the policy choosing between storing and deflating entries whose request has no method.
+     *
+     * @param methodPolicy The policy or null to require a method.
+     */
+    void setMethodPolicy(final AdaptiveMethodPolicy methodPolicy) {
+        this.methodPolicy = methodPolicy;
+    }
+
     /**
      * Writes the contents of this scatter stream to a target archive.
      *
@@ -237,6 +361,16 @@ public void close() throws IOException {
      */
     public void writeTo(final ZipArchiveOutputStream target) throws IOException {
         backingStore.closeForWriting();
+        try (FileChannel channel = openChannel()) {
+            if (channel != null) {
+                long position = 0;
+                for (final CompressedEntry compressedEntry : items) {
+                    target.addRawArchiveEntry(compressedEntry.transferToArchiveEntry(), channel, position);
+                    position += compressedEntry.compressedSize;
+                }
+                return;
+            }
+        }
         try (InputStream data = backingStore.getInputStream()) {
             for (final CompressedEntry compressedEntry : items) {
                 // @formatter:off
@@ -252,6 +386,15 @@ public void writeTo(final ZipArchiveOutputStream target) throws IOException {
         }
     }
 
+    /**
+     * Opens a channel to the compressed data if the backing store is file-based, which lets the gather phase transfer it between channels.
+     *
+     * @return The channel or {@code null}.
+     */
+    private FileChannel openChannel() throws IOException {
+        return backingStore instanceof FileBasedScatterGatherBackingStore ? ((FileBasedScatterGatherBackingStore) backingStore).getChannel() : null;
+    }
+
     /**
      * Gets a ZIP entry writer for this scatter stream.
      *
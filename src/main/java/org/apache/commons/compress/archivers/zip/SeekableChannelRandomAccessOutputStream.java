@@ -20,6 +20,7 @@
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 
 /**
@@ -44,6 +45,11 @@ public synchronized long position() throws IOException {
         return channel.position();
     }
 
+    @Override
+    synchronized void transferFrom(final FileChannel source, final long sourcePosition, final long count) throws IOException {
+        ZipIoUtil.transferAll(source, sourcePosition, count, channel);
+    }
+
     @Override
     public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
         ZipIoUtil.writeAll(this.channel, ByteBuffer.wrap(b, off, len));
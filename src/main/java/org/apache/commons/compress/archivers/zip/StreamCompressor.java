@@ -23,18 +23,32 @@
 import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.zip.CRC32;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 
+import org.apache.commons.compress.compressors.deflate.DeflaterPool;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
 import org.apache.commons.compress.parallel.ScatterGatherBackingStore;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.ArrayUtils;
+import org.tukaani.xz.LZMA2Options;
 
 /**
  * Encapsulates a {@link Deflater} and CRC calculator, handling multiple types of output streams. Currently {@link java.util.zip.ZipEntry#DEFLATED} and
- * {@link java.util.zip.ZipEntry#STORED} are the only supported compression methods.
+ * {@link java.util.zip.ZipEntry#STORED} are the only supported compression methods, unless compression of {@link ZipMethod#ZSTD} and {@link ZipMethod#XZ}
+ * entries has been enabled; the data of such entries is written as is otherwise.
  *
  * @since 1.10
  */
@@ -55,6 +69,24 @@ protected void writeOut(final byte[] data, final int offset, final int length) t
         }
     }
 
+    /**
+     * The raw DEFLATE data of a block, ending on a byte boundary.
+     */
+    private static final class DeflatedBlock {
+
+        private final byte[] data;
+        private final int length;
+        private final long crc;
+        private final int sourceLength;
+
+        private DeflatedBlock(final byte[] data, final int length, final long crc, final int sourceLength) {
+            this.data = data;
+            this.length = length;
+            this.crc = crc;
+            this.sourceLength = sourceLength;
+        }
+    }
+
     private static final class OutputStreamCompressor extends StreamCompressor {
 
         private final OutputStream os;
@@ -109,6 +141,11 @@ protected void writeOut(final byte[] data, final int offset, final int length) t
     private static final int DEFLATER_BLOCK_SIZE = 8192;
     private static final int BUFFER_SIZE = 4096;
 
+    /**
+     * Size of the window of raw DEFLATE data, a block deflated in parallel is primed with this many trailing bytes of its predecessor.
+     */
+    static final int DICTIONARY_SIZE = 32 * 1024;
+
     /**
      * Creates a stream compressor with the given compression level.
      *
@@ -132,6 +169,24 @@ public static StreamCompressor create(final int compressionLevel, final ScatterG
         return new ScatterGatherBackingStoreCompressor(deflater, bs);
     }
 
+    /**
+     * Creates a stream compressor with the given compression level using a pooled {@link Deflater}.
+     * <p>
+     * The deflater is returned to the pool when the compressor is closed. Blocks deflated in parallel take their deflaters from the pool as well.
+     * </p>
+     *
+     * @param compressionLevel The {@link Deflater} compression level.
+     * @param bs               The ScatterGatherBackingStore to receive output.
+     * @param deflaterPool     The pool to take deflaters from.
+     * @return A stream compressor.
+     * @since 1.29.0
+     */
+    public static StreamCompressor create(final int compressionLevel, final ScatterGatherBackingStore bs, final DeflaterPool deflaterPool) {
+        final StreamCompressor compressor = new ScatterGatherBackingStoreCompressor(deflaterPool.acquire(compressionLevel, Deflater.DEFAULT_STRATEGY, true), bs);
+        compressor.deflaterPool = deflaterPool;
+        return compressor;
+    }
+
     /**
      * Creates a stream compressor with the default compression level.
      *
@@ -175,7 +230,56 @@ static StreamCompressor create(final SeekableByteChannel os, final Deflater defl
         return new SeekableByteChannelCompressor(deflater, os);
     }
 
+    /**
+     * Deflates a block into raw DEFLATE data that ends on a byte boundary, so blocks can be concatenated.
+     *
+     * @param input        The block.
+     * @param length       The number of bytes in the block.
+     * @param dictionary   The preceding block of the entry or null.
+     * @param level        The compression level.
+     * @param last         Whether this is the last block of the entry, which ends the DEFLATE stream instead of being sync flushed.
+     * @param deflaterPool The pool to take the deflater from or null.
+     * @return The deflated block.
+     */
+    private static DeflatedBlock deflateBlock(final byte[] input, final int length, final byte[] dictionary, final int level, final boolean last,
+            final DeflaterPool deflaterPool) {
+        final CRC32 blockCrc = new CRC32();
+        blockCrc.update(input, 0, length);
+        final Deflater blockDeflater = deflaterPool != null ? deflaterPool.acquire(level, Deflater.DEFAULT_STRATEGY, true) : new Deflater(level, true);
+        try {
+            if (dictionary != null) {
+                blockDeflater.setDictionary(dictionary, dictionary.length - DICTIONARY_SIZE, DICTIONARY_SIZE);
+            }
+            blockDeflater.setInput(input, 0, length);
+            if (last) {
+                blockDeflater.finish();
+            }
+            byte[] data = new byte[length + (length >> 6) + 64];
+            int dataLength = 0;
+            while (true) {
+                if (dataLength == data.length) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+                dataLength += blockDeflater.deflate(data, dataLength, data.length - dataLength, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                // a flush is complete once the deflater leaves space in the output
+                if (last ? blockDeflater.finished() : dataLength < data.length) {
+                    return new DeflatedBlock(data, dataLength, blockCrc.getValue(), length);
+                }
+            }
+        } finally {
+            if (deflaterPool != null) {
+                deflaterPool.release(blockDeflater, true);
+            } else {
+                blockDeflater.end();
+            }
+        }
+    }
+
     private final Deflater deflater;
+
+    /** Pool {@link #deflater} and the deflaters of parallel blocks are taken from or null. */
+    private DeflaterPool deflaterPool;
+    private boolean closed;
     private final CRC32 crc = new CRC32();
     private long writtenToOutputStreamForLastEntry;
     private long sourcePayloadLength;
@@ -183,13 +287,58 @@ static StreamCompressor create(final SeekableByteChannel os, final Deflater defl
     private final byte[] outputBuffer = new byte[BUFFER_SIZE];
     private final byte[] readerBuf = new byte[BUFFER_SIZE];
 
+    /** Executor deflating blocks in parallel or null. */
+    private ExecutorService parallelExecutor;
+    private int parallelBlockSize;
+    private int parallelLevel;
+    private int maxBlocksInFlight;
+
+    /** Blocks of the current entry submitted to {@link #parallelExecutor} but not written yet, in order. */
+    private final Deque<Future<DeflatedBlock>> pendingBlocks = new ArrayDeque<>();
+
+    /** The block being filled. */
+    private byte[] block;
+    private int blockLength;
+
+    /** The last block submitted for the current entry, its tail is the dictionary of the next block. */
+    private byte[] previousBlock;
+
+    /** Whether the current entry is deflated in blocks, its CRC is {@link #parallelCrc} then. */
+    private boolean parallelEntry;
+    private long parallelCrc;
+
+    /** Whether the data of ZSTD entries is compressed, using {@link #zstdLevel} and {@link #zstdWorkers}. */
+    private boolean zstdCompression;
+    private int zstdLevel;
+    private int zstdWorkers;
+
+    /** Whether the data of XZ entries is compressed, using {@link #xzPreset}. */
+    private boolean xzCompression;
+    private int xzPreset;
+
+    /** Compresses the data of the current ZSTD or XZ entry, or null. */
+    private OutputStream methodStream;
+
     StreamCompressor(final Deflater deflater) {
         this.deflater = deflater;
     }
 
+    private void cancelPendingBlocks() {
+        pendingBlocks.forEach(future -> future.cancel(true));
+        pendingBlocks.clear();
+    }
+
     @Override
     public void close() throws IOException {
-        deflater.end();
+        cancelPendingBlocks();
+        IOUtils.closeQuietly(methodStream);
+        methodStream = null;
+        if (deflaterPool == null) {
+            deflater.end();
+        } else if (!closed) {
+            deflaterPool.release(deflater, true);
+        }
+        closed = true;
     }
 
     void deflate() throws IOException {
@@ -212,9 +361,7 @@ public void deflate(final InputStream source, final int method) throws IOExcepti
         while ((length = source.read(readerBuf, 0, readerBuf.length)) >= 0) {
             write(readerBuf, 0, length, method);
         }
-        if (method == ZipEntry.DEFLATED) {
-            flushDeflater();
-        }
+        finish(method);
     }
 
     private void deflateUntilInputIsNeeded() throws IOException {
@@ -223,13 +370,51 @@ private void deflateUntilInputIsNeeded() throws IOException {
         }
     }
 
+    /**
+     * Writes all data of the current entry still held by the compressor of the given method.
+     *
+     * @param method The compression method of the entry.
+     * @throws IOException When failures happen.
+     */
+    void finish(final int method) throws IOException {
+        if (method == ZipEntry.DEFLATED) {
+            flushDeflater();
+        } else if (compresses(method)) {
+            // ends the frame or stream, the output wrapper ignores the close
+            methodStream(method).close();
+            methodStream = null;
+        }
+    }
+
     void flushDeflater() throws IOException {
+        if (parallelEntry) {
+            submitBlock(true);
+            writeDeflatedBlocks(0);
+            return;
+        }
+        if (blockLength > 0) {
+            // an entry smaller than a block is deflated on this thread
+            final int length = blockLength;
+            blockLength = 0;
+            crc.update(block, 0, length);
+            writeDeflated(block, 0, length);
+        }
         deflater.finish();
         while (!deflater.finished()) {
             deflate();
         }
     }
 
+    /**
+     * Tests whether this compressor compresses the data of entries using the given method, rather than writing it as is.
+     *
+     * @param method The compression method.
+     * @return Whether the data is compressed.
+     */
+    boolean compresses(final int method) {
+        return method == ZipEntry.DEFLATED || zstdCompression && ZipMethod.isZstd(method) || xzCompression && method == ZipMethod.XZ.getCode();
+    }
+
     /**
      * Gets the number of bytes read from the source stream
      *
@@ -254,7 +439,7 @@ public long getBytesWrittenForLastEntry() {
      * @return The CRC-32.
      */
     public long getCrc32() {
-        return crc.getValue();
+        return parallelEntry ? parallelCrc : crc.getValue();
     }
 
     /**
@@ -266,11 +451,136 @@ public long getTotalBytesWritten() {
         return totalWrittenToOutputStream;
     }
 
+    /**
+     * Counts bytes the caller has written to the output directly, bypassing this compressor.
+     *
+     * @param length The number of bytes.
+     */
+    void countWritten(final long length) {
+        writtenToOutputStreamForLastEntry += length;
+        totalWrittenToOutputStream += length;
+    }
+
+    /**
+     * Gets the stream compressing the current ZSTD or XZ entry, creating it on first use.
+     */
+    private OutputStream methodStream(final int method) throws IOException {
+        if (methodStream == null) {
+            final OutputStream output = new OutputStream() {
+
+                @Override
+                public void write(final byte[] b, final int off, final int len) throws IOException {
+                    writeCounted(b, off, len);
+                }
+
+                @Override
+                public void write(final int b) throws IOException {
+                    write(new byte[] { (byte) b }, 0, 1);
+                }
+            };
+            if (ZipMethod.isZstd(method)) {
+                methodStream = ZstdCompressorOutputStream.builder().setOutputStream(output).setLevel(zstdLevel).setWorkers(zstdWorkers).get();
+            } else {
+                methodStream = XZCompressorOutputStream.builder().setOutputStream(output).setLzma2Options(new LZMA2Options(xzPreset)).get();
+            }
+        }
+        return methodStream;
+    }
+
     void reset() {
         crc.reset();
+        IOUtils.closeQuietly(methodStream);
+        methodStream = null;
         deflater.reset();
         sourcePayloadLength = 0;
         writtenToOutputStreamForLastEntry = 0;
+        cancelPendingBlocks();
+        blockLength = 0;
+        previousBlock = null;
+        parallelEntry = false;
+        parallelCrc = 0;
+    }
+
+    /**
+     * Sets the compression level of subsequent entries, must only be called between entries.
+     *
+     * @param level The compression level.
+     */
+    void setLevel(final int level) {
+        deflater.setLevel(level);
+        parallelLevel = level;
+    }
+
+    /**
+     * Sets the pool {@link #deflater} has been taken from, it is released to the pool on close.
+     *
+     * @param deflaterPool The pool.
+     */
+    void setDeflaterPool(final DeflaterPool deflaterPool) {
+        this.deflaterPool = deflaterPool;
+    }
+
+    /**
+     * Sets an executor to deflate the data of subsequent entries in blocks, must only be called between entries.
+     * <p>
+     * Each block is deflated by a {@link Deflater} of its own, primed with the last {@value #DICTIONARY_SIZE} bytes of the preceding block as dictionary.
+     * All but the last block of an entry end with a sync flush, so the concatenated blocks form a single raw DEFLATE stream. Entries smaller than a block are
+     * deflated on the calling thread.
+     * </p>
+     *
+     * @param executor          The executor or null to deflate on the calling thread.
+     * @param blockSize         The number of uncompressed bytes per block, at least {@value #DICTIONARY_SIZE}.
+     * @param maxBlocksInFlight The maximum number of blocks submitted but not yet written.
+     * @param level             The compression level.
+     */
+    void setParallelDeflate(final ExecutorService executor, final int blockSize, final int maxBlocksInFlight, final int level) {
+        if (block != null && block.length != blockSize) {
+            block = null;
+        }
+        this.parallelExecutor = executor;
+        this.parallelBlockSize = blockSize;
+        this.maxBlocksInFlight = maxBlocksInFlight;
+        this.parallelLevel = level;
+    }
+
+    /**
+     * Enables compression of subsequent {@link ZipMethod#XZ} entries, must only be called between entries.
+     *
+     * @param preset The XZ preset, from 0 to 9.
+     */
+    void setXzCompression(final int preset) {
+        this.xzCompression = true;
+        this.xzPreset = preset;
+    }
+
+    /**
+     * Enables compression of subsequent {@link ZipMethod#ZSTD} entries, must only be called between entries.
+     *
+     * @param level   The Zstandard compression level.
+     * @param workers The number of threads compressing each entry, 0 to compress on the calling thread.
+     */
+    void setZstdCompression(final int level, final int workers) {
+        this.zstdCompression = true;
+        this.zstdLevel = level;
+        this.zstdWorkers = workers;
+    }
+
+    /**
+     * Submits the filled part of {@link #block} to the executor.
+     */
+    private void submitBlock(final boolean last) {
+        // an entry ending on a block boundary is finished with an empty block
+        final byte[] input = block != null ? block : ArrayUtils.EMPTY_BYTE_ARRAY;
+        final int length = blockLength;
+        final byte[] dictionary = previousBlock;
+        final int level = parallelLevel;
+        final DeflaterPool pool = deflaterPool;
+        pendingBlocks.add(parallelExecutor.submit(() -> deflateBlock(input, length, dictionary, level, last, pool)));
+        // the submitted array is still read by the task and the next block
+        previousBlock = last ? null : input;
+        block = null;
+        blockLength = 0;
+        parallelEntry = true;
     }
 
     /**
@@ -285,16 +595,64 @@ void reset() {
      */
     long write(final byte[] b, final int offset, final int length, final int method) throws IOException {
         final long current = writtenToOutputStreamForLastEntry;
-        crc.update(b, offset, length);
-        if (method == ZipEntry.DEFLATED) {
-            writeDeflated(b, offset, length);
+        if (method == ZipEntry.DEFLATED && parallelExecutor != null) {
+            writeBlocks(b, offset, length);
         } else {
-            writeCounted(b, offset, length);
+            crc.update(b, offset, length);
+            if (method == ZipEntry.DEFLATED) {
+                writeDeflated(b, offset, length);
+            } else if (compresses(method)) {
+                methodStream(method).write(b, offset, length);
+            } else {
+                writeCounted(b, offset, length);
+            }
         }
         sourcePayloadLength += length;
         return writtenToOutputStreamForLastEntry - current;
     }
 
+    /**
+     * Collects bytes into blocks, submitting each full block and writing deflated blocks once more than {@link #maxBlocksInFlight} are pending.
+     */
+    private void writeBlocks(final byte[] b, final int offset, final int length) throws IOException {
+        int off = offset;
+        int len = length;
+        while (len > 0) {
+            if (block == null) {
+                block = new byte[parallelBlockSize];
+            }
+            final int n = Math.min(len, block.length - blockLength);
+            System.arraycopy(b, off, block, blockLength, n);
+            blockLength += n;
+            off += n;
+            len -= n;
+            if (blockLength == block.length) {
+                submitBlock(false);
+                writeDeflatedBlocks(maxBlocksInFlight);
+            }
+        }
+    }
+
+    /**
+     * Writes the oldest pending blocks in order until at most {@code maxPending} blocks remain.
+     */
+    private void writeDeflatedBlocks(final int maxPending) throws IOException {
+        while (pendingBlocks.size() > maxPending) {
+            final DeflatedBlock deflated;
+            try {
+                deflated = pendingBlocks.peek().get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw (IOException) new InterruptedIOException("Interrupted while deflating blocks").initCause(e);
+            } catch (final ExecutionException e) {
+                throw new IOException("Failed to deflate block", e.getCause());
+            }
+            pendingBlocks.remove();
+            writeCounted(deflated.data, 0, deflated.length);
+            parallelCrc = ZipUtil.crc32Combine(parallelCrc, deflated.crc, deflated.sourceLength);
+        }
+    }
+
     /**
      * Writes the specified byte array to the output stream.
      *
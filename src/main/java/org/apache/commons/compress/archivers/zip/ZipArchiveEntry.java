@@ -301,6 +301,26 @@ private static String toEntryName(final Path inputPath, final String entryName,
     private int alignment;
     private ZipExtraField[] extraFields;
     private UnparseableExtraFieldData unparseableExtra;
+
+    /**
+     * Central directory extra data to be parsed on first access to the extra fields, guarded by {@code this}.
+     */
+    private byte[] deferredCentralDirectoryExtra;
+
+    /**
+     * Local file data extra data to be parsed on first access to the extra fields after {@link #deferredCentralDirectoryExtra}, guarded by {@code this}.
+     */
+    private byte[] deferredLocalFileDataExtra;
+
+    /**
+     * Whether there is deferred extra data, written last when deferred extra data has been parsed.
+     */
+    private volatile boolean extraDeferred;
+
+    /**
+     * Whether deferred extra data is being parsed by the thread holding the lock, guarded by {@code this}.
+     */
+    private boolean parsingDeferredExtra;
     private String name;
     private byte[] rawName;
     private GeneralPurposeBit generalPurposeBit = new GeneralPurposeBit();
@@ -504,6 +524,7 @@ public ZipArchiveEntry(final ZipEntry entry) throws ZipException {
      * @param ze An extra field.
      */
     public void addAsFirstExtraField(final ZipExtraField ze) {
+        parseDeferredExtra();
         if (ze instanceof UnparseableExtraFieldData) {
             unparseableExtra = (UnparseableExtraFieldData) ze;
         } else {
@@ -531,6 +552,7 @@ public void addAsFirstExtraField(final ZipExtraField ze) {
      * @param ze An extra field.
      */
     public void addExtraField(final ZipExtraField ze) {
+        parseDeferredExtra();
         internalAddExtraField(ze);
         setExtra();
     }
@@ -570,6 +592,7 @@ private void addNTFSTimestamp(final FileTime lastModifiedTime, final FileTime la
      */
     @Override
     public Object clone() {
+        parseDeferredExtra();
         final ZipArchiveEntry e = (ZipArchiveEntry) super.clone();
 
         e.setInternalAttributes(getInternalAttributes());
@@ -582,6 +605,38 @@ private ZipExtraField[] copyOf(final ZipExtraField[] src, final int length) {
         return Arrays.copyOf(src, length);
     }
 
+    /**
+     * Defers parsing the given central directory and local file data extra data until the extra fields or the times they may hold are accessed.
+     * <p>
+     * The central directory data is merged before the local file data, like {@link #setCentralDirectoryExtra(byte[])} followed by
+     * {@link #setExtra(byte[])} would.
+     * </p>
+     *
+     * @param central The central directory extra data or {@code null}.
+     * @param local   The local file data extra data or {@code null}.
+     */
+    synchronized void deferExtra(final byte[] central, final byte[] local) {
+        if (central != null) {
+            if (deferredCentralDirectoryExtra != null || deferredLocalFileDataExtra != null) {
+                parseDeferredExtra();
+            }
+            deferredCentralDirectoryExtra = central;
+        }
+        if (local != null) {
+            if (deferredLocalFileDataExtra != null) {
+                parseDeferredExtra();
+            }
+            deferredLocalFileDataExtra = local;
+        }
+        extraDeferred = deferredCentralDirectoryExtra != null || deferredLocalFileDataExtra != null;
+    }
+
+    private synchronized void discardDeferredExtra() {
+        deferredCentralDirectoryExtra = null;
+        deferredLocalFileDataExtra = null;
+        extraDeferred = false;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (this == obj) {
@@ -655,9 +710,19 @@ private ZipExtraField[] getAllExtraFieldsNoCopy() {
      * @return The central directory extra data.
      */
     public byte[] getCentralDirectoryExtra() {
+        parseDeferredExtra();
         return ExtraFieldUtils.mergeCentralDirectoryData(getAllExtraFieldsNoCopy());
     }
 
+    /**
+     * Gets the length of the extra data for the central directory without parsing deferred extra data.
+     *
+     * @return The length of the central directory extra data.
+     */
+    synchronized int getCentralDirectoryExtraLength() {
+        return deferredCentralDirectoryExtra != null ? deferredCentralDirectoryExtra.length : getCentralDirectoryExtra().length;
+    }
+
     /**
      * * Gets the source of the comment field value.
      *
@@ -668,6 +733,12 @@ public CommentSource getCommentSource() {
         return commentSource;
     }
 
+    @Override
+    public FileTime getCreationTime() {
+        parseDeferredExtra();
+        return super.getCreationTime();
+    }
+
     @Override
     public long getDataOffset() {
         return dataOffset;
@@ -697,6 +768,12 @@ public long getExternalAttributes() {
         return externalAttributes;
     }
 
+    @Override
+    public byte[] getExtra() {
+        parseDeferredExtra();
+        return super.getExtra();
+    }
+
     /**
      * Gets an extra field by its header id.
      *
@@ -704,6 +781,7 @@ public long getExternalAttributes() {
      * @return null if no such field exists.
      */
     public ZipExtraField getExtraField(final ZipShort type) {
+        parseDeferredExtra();
         if (extraFields != null) {
             for (final ZipExtraField extraField : extraFields) {
                 if (type.equals(extraField.getHeaderId())) {
@@ -725,6 +803,7 @@ public ZipExtraField getExtraField(final ZipShort type) {
      * @return An array of the extra fields.
      */
     public ZipExtraField[] getExtraFields() {
+        parseDeferredExtra();
         return getParseableExtraFields();
     }
 
@@ -736,6 +815,7 @@ public ZipExtraField[] getExtraFields() {
      * @since 1.1
      */
     public ZipExtraField[] getExtraFields(final boolean includeUnparseable) {
+        parseDeferredExtra();
         return includeUnparseable ? getAllExtraFields() : getParseableExtraFields();
     }
 
@@ -804,6 +884,12 @@ public int getInternalAttributes() {
         return internalAttributes;
     }
 
+    @Override
+    public FileTime getLastAccessTime() {
+        parseDeferredExtra();
+        return super.getLastAccessTime();
+    }
+
     /**
      * Wraps {@link ZipEntry#getTime} with a {@link Date} as the entry's last modified date.
      *
@@ -817,6 +903,12 @@ public Date getLastModifiedDate() {
         return new Date(getTime());
     }
 
+    @Override
+    public FileTime getLastModifiedTime() {
+        parseDeferredExtra();
+        return super.getLastModifiedTime();
+    }
+
     /**
      * Gets the extra data for the local file data.
      *
@@ -954,6 +1046,7 @@ public long getSize() {
      */
     @Override
     public long getTime() {
+        parseDeferredExtra();
         if (lastModifiedDateSet) {
             return getLastModifiedTime().toMillis();
         }
@@ -981,6 +1074,7 @@ public int getUnixMode() {
      * @since 1.1
      */
     public UnparseableExtraFieldData getUnparseableExtraFieldData() {
+        parseDeferredExtra();
         return unparseableExtra;
     }
 
@@ -1098,7 +1192,7 @@ public boolean isUnixSymlink() {
      */
     private void mergeExtraFields(final ZipExtraField[] f, final boolean local) {
         if (extraFields == null) {
-            setExtraFields(f);
+            internalSetExtraFields(f);
         } else {
             for (final ZipExtraField element : f) {
                 final ZipExtraField existing;
@@ -1137,6 +1231,41 @@ private void mergeExtraFields(final ZipExtraField[] f, final boolean local) {
         }
     }
 
+    /**
+     * Parses extra data deferred by {@link #deferExtra(byte[], byte[])}, if any.
+     */
+    private void parseDeferredExtra() {
+        if (extraDeferred) {
+            synchronized (this) {
+                // the extra fields are modified while parsing, which must not parse again
+                if (extraDeferred && !parsingDeferredExtra) {
+                    parsingDeferredExtra = true;
+                    try {
+                        if (deferredCentralDirectoryExtra != null) {
+                            final byte[] central = deferredCentralDirectoryExtra;
+                            deferredCentralDirectoryExtra = null;
+                            mergeExtraFields(parseExtraFields(central, false, ExtraFieldParsingMode.BEST_EFFORT), false);
+                        }
+                        if (deferredLocalFileDataExtra != null) {
+                            final byte[] local = deferredLocalFileDataExtra;
+                            deferredLocalFileDataExtra = null;
+                            mergeExtraFields(parseExtraFields(local, true, ExtraFieldParsingMode.BEST_EFFORT), true);
+                        }
+                    } catch (final ZipException e) {
+                        // actually this is not possible as of Commons Compress 1.19
+                        throw new IllegalArgumentException("Error parsing extra fields for entry: " // NOSONAR
+                                + getName() + " - " + e.getMessage(), e);
+                    } finally {
+                        deferredCentralDirectoryExtra = null;
+                        deferredLocalFileDataExtra = null;
+                        parsingDeferredExtra = false;
+                        extraDeferred = false;
+                    }
+                }
+            }
+        }
+    }
+
     private ZipExtraField[] parseExtraFields(final byte[] data, final boolean local, final ExtraFieldParsingBehavior parsingBehavior) throws ZipException {
         if (extraFieldFactory != null) {
             return ExtraFieldUtils.parse(data, local, new ExtraFieldParsingBehavior() {
@@ -1180,6 +1309,7 @@ public void removeExtraField(final ZipShort type) {
      * @since 1.1
      */
     public void removeUnparseableExtraFieldData() {
+        parseDeferredExtra();
         if (unparseableExtra == null) {
             throw new NoSuchElementException();
         }
@@ -1224,6 +1354,7 @@ private void setAttributes(final Path inputPath, final LinkOption... options) th
      * @param b An array of bytes to be parsed into extra fields.
      */
     public void setCentralDirectoryExtra(final byte[] b) {
+        parseDeferredExtra();
         try {
             mergeExtraFields(parseExtraFields(b, false, ExtraFieldParsingMode.BEST_EFFORT), false);
         } catch (final ZipException e) {
@@ -1244,6 +1375,7 @@ public void setCommentSource(final CommentSource commentSource) {
 
     @Override
     public ZipEntry setCreationTime(final FileTime time) {
+        parseDeferredExtra();
         super.setCreationTime(time);
         setExtraTimeFields();
         return this;
@@ -1287,6 +1419,7 @@ public void setExternalAttributes(final long value) {
      * super's data directly and on every update.
      */
     protected void setExtra() {
+        parseDeferredExtra();
         // ZipEntry will update the time fields here, so we need to reprocess them afterwards
         super.setExtra(ExtraFieldUtils.mergeLocalFileDataData(getAllExtraFieldsNoCopy()));
         // Reprocess and overwrite the modifications made by ZipEntry#setExtra(byte[])
@@ -1302,6 +1435,7 @@ protected void setExtra() {
      */
     @Override
     public void setExtra(final byte[] extra) throws RuntimeException {
+        parseDeferredExtra();
         try {
             mergeExtraFields(parseExtraFields(extra, true, ExtraFieldParsingMode.BEST_EFFORT), true);
         } catch (final ZipException e) {
@@ -1317,6 +1451,11 @@ public void setExtra(final byte[] extra) throws RuntimeException {
      * @param fields An array of extra fields.
      */
     public void setExtraFields(final ZipExtraField[] fields) {
+        discardDeferredExtra();
+        internalSetExtraFields(fields);
+    }
+
+    private void internalSetExtraFields(final ZipExtraField[] fields) {
         unparseableExtra = null;
         final List<ZipExtraField> newFields = new ArrayList<>();
         if (fields != null) {
@@ -1372,6 +1511,7 @@ public void setInternalAttributes(final int internalAttributes) {
 
     @Override
     public ZipEntry setLastAccessTime(final FileTime fileTime) {
+        parseDeferredExtra();
         super.setLastAccessTime(fileTime);
         setExtraTimeFields();
         return this;
@@ -1379,6 +1519,7 @@ public ZipEntry setLastAccessTime(final FileTime fileTime) {
 
     @Override
     public ZipEntry setLastModifiedTime(final FileTime fileTime) {
+        parseDeferredExtra();
         internalSetLastModifiedTime(fileTime);
         setExtraTimeFields();
         return this;
@@ -1507,6 +1648,7 @@ public void setTime(final FileTime fileTime) {
      */
     @Override
     public void setTime(final long timeEpochMillis) {
+        parseDeferredExtra();
         if (ZipUtil.isDosTime(timeEpochMillis)) {
             super.setTime(timeEpochMillis);
             this.time = timeEpochMillis;
@@ -74,6 +74,15 @@ public InputStream getPayloadStream() {
         return payloadSupplier.get();
     }
 
+    /**
+     * Gets the supplier of the payload, for readers that need to read it more than once.
+     *
+     * @return The payload supplier.
+     */
+    InputStreamSupplier getPayloadSupplier() {
+        return payloadSupplier;
+    }
+
     /**
      * Gets the underlying entry. Do not use this method from threads that did not create the instance itself !
      *
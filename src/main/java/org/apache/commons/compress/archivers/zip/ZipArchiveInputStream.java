@@ -24,13 +24,12 @@
 import static org.apache.commons.compress.archivers.zip.ZipConstants.WORD;
 import static org.apache.commons.compress.archivers.zip.ZipConstants.ZIP64_MAGIC;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.function.Function;
 import java.util.zip.CRC32;
@@ -39,7 +38,6 @@
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 
-import org.apache.commons.compress.MemoryLimitException;
 import org.apache.commons.compress.archivers.AbstractArchiveBuilder;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
@@ -90,6 +88,7 @@ public class ZipArchiveInputStream extends ArchiveInputStream<ZipArchiveEntry> i
         private boolean useUnicodeExtraFields = true;
         private boolean supportStoredEntryDataDescriptor;
         private boolean skipSplitSignature;
+        private InflaterPool inflaterPool;
 
         /**
          * Constructs a new instance.
@@ -98,6 +97,16 @@ protected AbstractBuilder() {
             setCharset(StandardCharsets.UTF_8);
         }
 
+        /**
+         * Gets the pool providing the inflater for deflated entries.
+         *
+         * @return The pool or {@code null}.
+         * @since 1.29.0
+         */
+        protected InflaterPool getInflaterPool() {
+            return inflaterPool;
+        }
+
         /**
          * Tests whether the stream should skip the ZIP split signature.
          *
@@ -126,6 +135,21 @@ protected boolean isUseUnicodeExtraFields() {
             return useUnicodeExtraFields;
         }
 
+        /**
+         * Sets the pool providing the inflater for deflated entries.
+         *
+         * <p>The inflater is taken from the pool when the stream is created and handed back when it is closed. Defaults to {@code null}, a new inflater
+         * is created for each stream.</p>
+         *
+         * @param inflaterPool The pool or {@code null}.
+         * @return {@code this} instance.
+         * @since 1.29.0
+         */
+        public B setInflaterPool(final InflaterPool inflaterPool) {
+            this.inflaterPool = inflaterPool;
+            return asThis();
+        }
+
         /**
          * Sets whether the stream should skip the ZIP split signature
          * ({@code 08074B50}) at the beginning of the input.
@@ -300,6 +324,17 @@ private static final class CurrentEntry {
          */
         private InputStream inputStream;
 
+        /**
+         * Number of bytes after the data of a STORED entry with a data descriptor in {@link ZipArchiveInputStream#buf} that may belong to the data descriptor
+         * or the following signature, scanned again together with the next bytes read.
+         */
+        private int storedCarry;
+
+        /**
+         * Whether the end of a STORED entry with a data descriptor has been found and its data descriptor has been read.
+         */
+        private boolean storedDataDescriptorRead;
+
         @SuppressWarnings("unchecked") // Caller beware
         private <T extends InputStream> T checkInputStream() throws ZipException {
             if (inputStream == null) {
@@ -343,6 +378,46 @@ public static Builder builder() {
         return new Builder();
     }
 
+    /**
+     * Finds the next position holding the two bytes all signatures start with, reading eight bytes at a time.
+     * <p>
+     * Each word read is XORed with eight copies of {@code 'P'}, so the bytes holding {@code 'P'} become zero and are flagged by the classic "has zero byte"
+     * bit trick. Words without {@code 'P'}, the vast majority in entry data, are skipped without looking at their bytes.
+     * </p>
+     *
+     * @param littleEndian The bytes to search as a little endian buffer backed by an array.
+     * @param from         The position to start at.
+     * @param to           The position to stop before, at least one byte must follow it.
+     * @return The position of the next {@code "PK"} or -1 if there is none.
+     */
+    static int indexOfSignature(final ByteBuffer littleEndian, final int from, final int to) {
+        final byte[] b = littleEndian.array();
+        int i = from;
+        while (i < to) {
+            if (i + Long.BYTES <= b.length) {
+                final long x = littleEndian.getLong(i) ^ 0x5050505050505050L;
+                final long zeroBytes = (x - 0x0101010101010101L) & ~x & 0x8080808080808080L;
+                if (zeroBytes == 0) {
+                    i += Long.BYTES;
+                    continue;
+                }
+                // the lowest flagged byte is always a 'P'
+                i += Long.numberOfTrailingZeros(zeroBytes) >>> 3;
+                if (i >= to) {
+                    break;
+                }
+            } else if (b[i] != LFH[0]) {
+                i++;
+                continue;
+            }
+            if (b[i + 1] == LFH[1]) {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
     /**
      * Checks if the signature matches what is expected for a ZIP file. Does not currently handle self-extracting ZIPs which may have arbitrary leading content.
      *
@@ -366,12 +441,18 @@ public static boolean matches(final byte[] buffer, final int length) {
     /** Whether to look for and use Unicode extra fields. */
     private final boolean useUnicodeExtraFields;
 
+    /** Pool providing {@link #inf} or null. */
+    private final InflaterPool inflaterPool;
+
     /** Inflater used for all deflated entries. */
-    private final Inflater inf = new Inflater(true);
+    private final Inflater inf;
 
     /** Buffer used to read from the wrapped stream. */
     private final ByteBuffer buf = ByteBuffer.allocate(ZipArchiveOutputStream.BUFFER_SIZE);
 
+    /** Little endian view of {@link #buf} to scan it eight bytes at a time. */
+    private final ByteBuffer bufLittleEndian = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
     /** The entry that is currently being read. */
     private CurrentEntry current;
 
@@ -381,11 +462,6 @@ public static boolean matches(final byte[] buffer, final int length) {
     /** Whether the stream has reached the central directory - and thus found all entries. */
     private boolean hitCentralDirectory;
 
-    /**
-     * When reading a stored entry that uses the data descriptor this stream has to read the full entry and caches it. This is the cache.
-     */
-    private ByteArrayInputStream lastStoredEntry;
-
     /**
      * Whether the stream will try to read STORED entries that use a data descriptor. Setting it to true means we will not stop reading an entry with the
      * compressed size, instead we will stop reading an entry when a data descriptor is met (by finding the Data Descriptor Signature). This will completely
@@ -430,6 +506,8 @@ protected ZipArchiveInputStream(final AbstractBuilder<?, ?> builder) throws IOEx
         this.useUnicodeExtraFields = builder.isUseUnicodeExtraFields();
         this.supportStoredEntryDataDescriptor = builder.isSupportStoredEntryDataDescriptor();
         this.skipSplitSignature = builder.isSkipSplitSignature();
+        this.inflaterPool = builder.getInflaterPool();
+        this.inf = inflaterPool != null ? inflaterPool.acquire() : new Inflater(true);
         // haven't read anything so far
         buf.limit(0);
     }
@@ -538,64 +616,6 @@ public ZipArchiveInputStream(
         // @formatter:on
     }
 
-    /**
-     * Checks whether the current buffer contains the signature of a &quot;data descriptor&quot;, &quot;local file header&quot; or &quot;central directory
-     * entry&quot;.
-     * <p>
-     * If it contains such a signature, reads the data descriptor and positions the stream right after the data descriptor.
-     * </p>
-     */
-    private boolean bufferContainsSignature(
-            final ByteArrayOutputStream bos, final int offset, final int lastRead, final int expectedDDLen)
-            throws IOException {
-        boolean done = false;
-        for (int i = 0; !done && i < offset + lastRead - 4; i++) {
-            if (buf.array()[i] == LFH[0] && buf.array()[i + 1] == LFH[1]) {
-                int expectDDPos = i;
-                if (i >= expectedDDLen && buf.array()[i + 2] == LFH[2] && buf.array()[i + 3] == LFH[3]
-                        || buf.array()[i + 2] == CFH[2] && buf.array()[i + 3] == CFH[3]) {
-                    // found an LFH or CFH:
-                    expectDDPos = i - expectedDDLen;
-                    done = true;
-                } else if (buf.array()[i + 2] == DD[2] && buf.array()[i + 3] == DD[3]) {
-                    // found DD:
-                    done = true;
-                }
-                if (done) {
-                    // * push back bytes read in excess as well as the data
-                    // descriptor
-                    // * copy the remaining bytes to cache
-                    // * read data descriptor
-                    pushback(buf.array(), expectDDPos, offset + lastRead - expectDDPos);
-                    bos.write(buf.array(), 0, expectDDPos);
-                    readDataDescriptor();
-                }
-            }
-        }
-        return done;
-    }
-
-    /**
-     * If the last read bytes could hold a data descriptor and an incomplete signature then save the last bytes to the front of the buffer and cache everything
-     * in front of the potential data descriptor into the given ByteArrayOutputStream.
-     * <p>
-     * Data descriptor plus incomplete signature (3 bytes in the worst case) can be 20 bytes max.
-     * </p>
-     */
-    private int cacheBytesRead(final ByteArrayOutputStream bos, int offset, final int lastRead, final int expectedDDLen) throws MemoryLimitException {
-        final int cacheable = offset + lastRead - expectedDDLen - 3;
-        if (cacheable > 0) {
-            final int request = (bos.size() + cacheable) * 2;
-            MemoryLimitException.checkBytes(request + 2 * 1024 * 1024, Runtime.getRuntime().totalMemory()); // 2 MB headroom
-            bos.write(buf.array(), 0, cacheable);
-            System.arraycopy(buf.array(), cacheable, buf.array(), 0, expectedDDLen + 3);
-            offset = expectedDDLen + 3;
-        } else {
-            offset += lastRead;
-        }
-        return offset;
-    }
-
     /**
      * Tests whether this class is able to read the given entry.
      * <p>
@@ -620,7 +640,11 @@ public void close() throws IOException {
             try {
                 in.close();
             } finally {
-                inf.end();
+                if (inflaterPool != null) {
+                    inflaterPool.release(inf);
+                } else {
+                    inf.end();
+                }
             }
         }
     }
@@ -668,13 +692,12 @@ private void closeEntry() throws IOException {
                 drainCurrentEntryData();
             }
         }
-        if (lastStoredEntry == null && current.hasDataDescriptor) {
+        if (!current.storedDataDescriptorRead && current.hasDataDescriptor) {
             readDataDescriptor();
         }
         inf.reset();
         buf.clear().flip();
         current = null;
-        lastStoredEntry = null;
     }
 
     /**
@@ -1254,10 +1277,16 @@ private byte[] readRange(final int len) throws IOException {
      */
     private int readStored(final byte[] buffer, final int offset, final int length) throws IOException {
         if (current.hasDataDescriptor) {
-            if (lastStoredEntry == null) {
+            while (!buf.hasRemaining()) {
+                if (current.storedDataDescriptorRead) {
+                    return -1;
+                }
                 readStoredEntry();
             }
-            return lastStoredEntry.read(buffer, offset, length);
+            final int toRead = Math.min(buf.remaining(), length);
+            buf.get(buffer, offset, toRead);
+            current.bytesRead += toRead;
+            return toRead;
         }
         final long csize = current.entry.getSize();
         if (current.bytesRead >= csize) {
@@ -1285,49 +1314,88 @@ private int readStored(final byte[] buffer, final int offset, final int length)
     }
 
     /**
-     * Caches a stored entry that uses the data descriptor.
+     * Reads the next chunk of a stored entry that uses the data descriptor.
      * <ul>
-     * <li>Reads a stored entry until the signature of a local file header, central directory header or data descriptor has been found.</li>
-     * <li>Stores all entry data in lastStoredEntry.</li>
-     * <li>Rewinds the stream to position at the data descriptor.</li>
-     * <li>reads the data descriptor</li>
+     * <li>Reads until the signature of a local file header, central directory header or data descriptor has been found or the buffer is full.</li>
+     * <li>Makes the data in front of the signature, or in front of the bytes that might start a data descriptor, available in {@link #buf}.</li>
+     * <li>Rewinds the stream to position at the data descriptor and reads it if a signature has been found.</li>
      * </ul>
      * <p>
-     * After calling this method the entry should know its size, the entry's data is cached and the stream is positioned at the next local file or central
-     * directory header.
+     * Only a buffer of the entry is held in memory. Once the data descriptor has been read the entry knows its size and the stream is positioned at the next
+     * local file or central directory header.
      * </p>
      */
     private void readStoredEntry() throws IOException {
-        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        int off = 0;
-        boolean done = false;
+        final byte[] b = buf.array();
+        // move the bytes scanned again to the front
+        System.arraycopy(b, buf.limit(), b, 0, current.storedCarry);
+        int off = current.storedCarry;
         // length of DD without signature
         final int ddLen = current.usesZip64 ? WORD + 2 * DWORD : 3 * WORD;
-        while (!done) {
-            final int r = in.read(buf.array(), off, ZipArchiveOutputStream.BUFFER_SIZE - off);
+        while (true) {
+            final int r = in.read(b, off, ZipArchiveOutputStream.BUFFER_SIZE - off);
             if (r <= 0) {
                 // read the whole archive without ever finding a
                 // central directory
                 throw new ArchiveException("Truncated ZIP file");
             }
-            if (r + off < 4) {
-                // buffer too small to check for a signature, loop
-                off += r;
-                continue;
-            }
-            done = bufferContainsSignature(bos, off, r, ddLen);
-            if (!done) {
-                off = cacheBytesRead(bos, off, r, ddLen);
+            count(r);
+            off += r;
+            if (off >= 4) {
+                // buffer large enough to check for a signature
+                break;
             }
         }
-        if (current.entry.getCompressedSize() != current.entry.getSize()) {
-            throw new ZipException("Compressed and uncompressed size don't match" + USE_ZIPFILE_INSTEAD_OF_STREAM_DISCLAIMER);
+        final int ddPos = findDataDescriptor(off, ddLen);
+        buf.position(0);
+        if (ddPos >= 0) {
+            // * push back bytes read in excess as well as the data descriptor
+            // * read data descriptor
+            pushback(b, ddPos, off - ddPos);
+            buf.limit(ddPos);
+            current.storedCarry = 0;
+            readDataDescriptor();
+            current.storedDataDescriptorRead = true;
+            if (current.entry.getCompressedSize() != current.entry.getSize()) {
+                throw new ZipException("Compressed and uncompressed size don't match" + USE_ZIPFILE_INSTEAD_OF_STREAM_DISCLAIMER);
+            }
+            if (current.bytesRead + ddPos != current.entry.getSize()) {
+                throw new ZipException("Actual and claimed size don't match" + USE_ZIPFILE_INSTEAD_OF_STREAM_DISCLAIMER);
+            }
+        } else {
+            // data descriptor plus incomplete signature (3 bytes in the worst case) can be 20 bytes max.
+            final int available = Math.max(off - ddLen - 3, 0);
+            buf.limit(available);
+            current.storedCarry = off - available;
         }
-        final byte[] b = bos.toByteArray();
-        if (b.length != current.entry.getSize()) {
-            throw new ZipException("Actual and claimed size don't match" + USE_ZIPFILE_INSTEAD_OF_STREAM_DISCLAIMER);
+    }
+
+    /**
+     * Searches the first {@code length} bytes of {@link #buf} for the signature of a &quot;data descriptor&quot;, &quot;local file header&quot; or
+     * &quot;central directory entry&quot; following the data of a stored entry.
+     *
+     * @param length        The number of bytes to search.
+     * @param expectedDDLen The length of a data descriptor without signature.
+     * @return The position of the data descriptor or -1 if no signature has been found.
+     * @throws ZipException if a central directory entry follows too closely to leave room for a data descriptor.
+     */
+    private int findDataDescriptor(final int length, final int expectedDDLen) throws ZipException {
+        final byte[] b = buf.array();
+        final int end = length - 4;
+        for (int i = indexOfSignature(bufLittleEndian, 0, end); i >= 0; i = indexOfSignature(bufLittleEndian, i + 1, end)) {
+            if (i >= expectedDDLen && b[i + 2] == LFH[2] && b[i + 3] == LFH[3] || b[i + 2] == CFH[2] && b[i + 3] == CFH[3]) {
+                // found an LFH or CFH:
+                if (i < expectedDDLen) {
+                    throw new ZipException("Truncated data descriptor" + USE_ZIPFILE_INSTEAD_OF_STREAM_DISCLAIMER);
+                }
+                return i - expectedDDLen;
+            }
+            if (b[i + 2] == DD[2] && b[i + 3] == DD[3]) {
+                // found DD:
+                return i;
+            }
         }
-        lastStoredEntry = new ByteArrayInputStream(b);
+        return -1;
     }
 
     /**
@@ -18,30 +18,43 @@
  */
 package org.apache.commons.compress.archivers.zip;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
 import java.util.zip.Deflater;
 import java.util.zip.ZipException;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.compressors.deflate.DeflaterPool;
+import org.apache.commons.compress.parallel.InputStreamSupplier;
 import org.apache.commons.io.Charsets;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.channels.CloseShieldChannel;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.lang3.ArrayUtils;
 
 /**
@@ -53,8 +66,13 @@
  * </p>
  * <p>
  * If SeekableByteChannel cannot be used, this implementation will use a Data Descriptor to store size and CRC information for {@link #DEFLATED DEFLATED}
- * entries, you don't need to calculate them yourself. Unfortunately, this is not possible for the {@link #STORED STORED} method, where setting the CRC and
- * uncompressed size information is required before {@link #putArchiveEntry(ZipArchiveEntry)} can be called.
+ * entries, you don't need to calculate them yourself. Unfortunately, this is not possible for the {@link #STORED STORED} method, where setting the
+ * uncompressed size information is required before {@link #putArchiveEntry(ZipArchiveEntry)} can be called. If the CRC of a STORED entry isn't set, it is
+ * written to a data descriptor as well, some streaming readers like {@link java.util.zip.ZipInputStream} can't read such entries.
+ * </p>
+ * <p>
+ * The size of an archive written to a non-seekable output only depends on its STORED entries, so {@link #computeArchiveSize(Iterable)} can tell it before it
+ * is written, for example to send a {@code Content-Length}.
  * </p>
  * <p>
  * As of Apache Commons Compress 1.3, the class transparently supports Zip64 extensions and thus individual entries and archives larger than 4 GB or with more
@@ -106,6 +124,11 @@ private static final class CurrentEntry {
          */
         private boolean hasWritten;
 
+        /**
+         * Whether the entry is {@link #STORED STORED} without a known CRC and written to a non-seekable output, its CRC is written to a data descriptor.
+         */
+        private boolean crcDeferred;
+
         private CurrentEntry(final ZipArchiveEntry entry) {
             this.entry = entry;
         }
@@ -154,6 +177,11 @@ public String toString() {
     }
 
     static final int BUFFER_SIZE = 512;
+
+    /**
+     * Size of the buffer used to copy raw entry data.
+     */
+    static final int COPY_BUFFER_SIZE = 32768;
     private static final int LFH_SIG_OFFSET = 0;
     private static final int LFH_VERSION_NEEDED_OFFSET = 4;
     private static final int LFH_GPB_OFFSET = 6;
@@ -288,6 +316,60 @@ public String toString() {
      */
     private boolean hasCompressionLevelChanged;
 
+    /**
+     * Executor deflating blocks of DEFLATED entries in parallel or null.
+     */
+    private ExecutorService parallelDeflateExecutor;
+
+    private int parallelDeflateBlockSize;
+
+    private int parallelDeflateMaxBlocksInFlight;
+
+    /**
+     * Chooses the method of entries without one or null.
+     */
+    private AdaptiveMethodPolicy methodPolicy;
+
+    /**
+     * Entry waiting for its method to be chosen by {@link #methodPolicy}, its local file header is written once {@link #sample} is full or the entry is
+     * closed.
+     */
+    private ZipArchiveEntry pendingEntry;
+
+    /**
+     * Head of the data of {@link #pendingEntry}.
+     */
+    private byte[] sample;
+
+    private int sampleLength;
+
+    /**
+     * Cache of compressed entry data used by {@link #addArchiveEntry(ZipArchiveEntry, InputStreamSupplier)} or null.
+     */
+    private CompressedEntryCache entryCache;
+
+    /**
+     * Channel of an archive opened by {@link #append(SeekableByteChannel)}, truncated by {@link #finish()}, or null.
+     */
+    private SeekableByteChannel appendChannel;
+
+    /**
+     * Directory of {@link #spillFile}, or null to keep all entries in memory until {@link #finish()}.
+     */
+    private Path spillDirectory;
+
+    /**
+     * Temporary file holding the central file headers of closed entries, created when the first entry is closed after setting {@link #spillDirectory}.
+     */
+    private Path spillFile;
+
+    private OutputStream spillStream;
+
+    /**
+     * Number of entries whose central file headers have been written to {@link #spillFile} instead of being kept in {@link #entries}.
+     */
+    private int spilledEntries;
+
     /**
      * Default compression method for next entry.
      */
@@ -371,13 +453,18 @@ public String toString() {
 
     private Zip64Mode zip64Mode = Zip64Mode.AsNeeded;
 
-    private final byte[] copyBuffer = new byte[32768];
+    private final byte[] copyBuffer = new byte[COPY_BUFFER_SIZE];
 
     /**
      * Whether we are creating a split zip
      */
     private final boolean isSplitZip;
 
+    /**
+     * Whether this stream only computes the size of an archive, see {@link #computeArchiveSize(Iterable)}.
+     */
+    private boolean simulation;
+
     /**
      * Holds the number of Central Directories on each disk. This is used when writing Zip64 End Of Central Directory and End Of Central Directory.
      */
@@ -428,6 +515,25 @@ public ZipArchiveOutputStream(final OutputStream out) {
         this.isSplitZip = false;
     }
 
+    /**
+     * Creates a new ZIP OutputStream filtering the underlying stream, taking its {@link Deflater} from a pool.
+     * <p>
+     * The deflater is returned to the pool when this stream is finished. Blocks deflated in parallel, see
+     * {@link #setParallelDeflate(ExecutorService, int, int)}, take their deflaters from the pool as well.
+     * </p>
+     *
+     * @param out          The output stream to zip.
+     * @param deflaterPool The pool to take deflaters from.
+     * @since 1.29.0
+     */
+    public ZipArchiveOutputStream(final OutputStream out, final DeflaterPool deflaterPool) {
+        this.out = out;
+        this.def = deflaterPool.acquire(level, Deflater.DEFAULT_STRATEGY, true);
+        this.streamCompressor = StreamCompressor.create(out, def);
+        this.streamCompressor.setDeflaterPool(deflaterPool);
+        this.isSplitZip = false;
+    }
+
     /**
      * Creates a split ZIP Archive.
      * <p>
@@ -484,6 +590,57 @@ public ZipArchiveOutputStream(final SeekableByteChannel channel) {
         this.isSplitZip = false;
     }
 
+    /**
+     * Creates a new ZIP OutputStream writing to a SeekableByteChannel, taking its {@link Deflater} from a pool.
+     * <p>
+     * The deflater is returned to the pool when this stream is finished. Blocks deflated in parallel, see
+     * {@link #setParallelDeflate(ExecutorService, int, int)}, take their deflaters from the pool as well.
+     * </p>
+     *
+     * @param channel      The channel to ZIP to.
+     * @param deflaterPool The pool to take deflaters from.
+     * @since 1.29.0
+     */
+    public ZipArchiveOutputStream(final SeekableByteChannel channel, final DeflaterPool deflaterPool) {
+        this.out = new SeekableChannelRandomAccessOutputStream(channel);
+        this.def = deflaterPool.acquire(level, Deflater.DEFAULT_STRATEGY, true);
+        this.streamCompressor = StreamCompressor.create(out, def);
+        this.streamCompressor.setDeflaterPool(deflaterPool);
+        this.isSplitZip = false;
+    }
+
+    /**
+     * Adds an archive entry with the data of the given source.
+     * <p>
+     * The entry is put, its data copied from the source and the entry closed. With an {@link #setEntryCache(CompressedEntryCache) entry cache} the source is
+     * read once to look up its compressed data in the cache, and once more to compress it on a miss; the compressed data is then written like
+     * {@link #addRawArchiveEntry(ZipArchiveEntry, InputStream) raw data} with the CRC and sizes set on the entry. Entries whose method is chosen by a
+     * {@link #setMethodPolicy(AdaptiveMethodPolicy) policy} bypass the cache.
+     * </p>
+     *
+     * @param entry  The archive entry to add.
+     * @param source The data of the entry, may be asked for more than one stream.
+     * @throws IOException If reading the source, accessing the cache or writing fails.
+     * @since 1.29.0
+     */
+    public void addArchiveEntry(final ZipArchiveEntry entry, final InputStreamSupplier source) throws IOException {
+        final int entryMethod = entry.getMethod() == ZipMethod.UNKNOWN_CODE && methodPolicy == null ? method : entry.getMethod();
+        final CompressedEntryCache.CachedEntry cachedEntry = entryCache == null || entryMethod != STORED && entryMethod != DEFLATED ? null
+                : entryCache.get(source, entryMethod, level);
+        if (cachedEntry == null) {
+            putArchiveEntry(entry);
+            try (InputStream in = source.get()) {
+                IOUtils.copy(in, this, copyBuffer.length);
+            }
+            closeArchiveEntry();
+            return;
+        }
+        try (CompressedEntryCache.CachedEntry cached = cachedEntry) {
+            cached.transferTo(entry);
+            addRawArchiveEntry(entry, cached.getChannel(), cached.getDataOffset());
+        }
+    }
+
     /**
      * Adds an archive entry with a raw input stream.
      * <p>
@@ -499,20 +656,54 @@ public ZipArchiveOutputStream(final SeekableByteChannel channel) {
      * @throws IOException If copying fails.
      */
     public void addRawArchiveEntry(final ZipArchiveEntry entry, final InputStream rawStream) throws IOException {
-        final ZipArchiveEntry ae = new ZipArchiveEntry(entry);
-        if (hasZip64Extra(ae)) {
-            // Will be re-added as required. this may make the file generated with this method
-            // somewhat smaller than standard mode,
-            // since standard mode is unable to remove the ZIP 64 header.
-            ae.removeExtraField(Zip64ExtendedInformationExtraField.HEADER_ID);
-        }
-        final boolean is2PhaseSource = ae.getCrc() != ZipArchiveEntry.CRC_UNKNOWN && ae.getSize() != ArchiveEntry.SIZE_UNKNOWN
-                && ae.getCompressedSize() != ArchiveEntry.SIZE_UNKNOWN;
-        putArchiveEntry(ae, is2PhaseSource);
+        final boolean is2PhaseSource = putRawArchiveEntry(entry);
         copyFromZipInputStream(rawStream, is2PhaseSource);
         closeCopiedEntry(is2PhaseSource);
     }
 
+    /**
+     * Adds an archive entry with raw data read from a range of a file.
+     * <p>
+     * Works like {@link #addRawArchiveEntry(ZipArchiveEntry, InputStream)} reading {@link ZipArchiveEntry#getCompressedSize()} bytes, which must be known. If
+     * this stream writes to a channel, the data is moved using {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, which can
+     * avoid copying it through user space. Headers are written as usual.
+     * </p>
+     *
+     * @param entry    The archive entry to add.
+     * @param source   The file holding the raw data of the entry.
+     * @param position The position of the raw data within the file.
+     * @throws IOException If copying fails.
+     */
+    void addRawArchiveEntry(final ZipArchiveEntry entry, final FileChannel source, final long position) throws IOException {
+        final long length = entry.getCompressedSize();
+        if (length == ArchiveEntry.SIZE_UNKNOWN) {
+            throw new IllegalArgumentException("Compressed size of " + entry.getName() + " is unknown");
+        }
+        final boolean is2PhaseSource = putRawArchiveEntry(entry);
+        if (!is2PhaseSource) {
+            ZipUtil.checkRequestedFeatures(this.entry.entry);
+        }
+        this.entry.hasWritten = true;
+        if (out instanceof RandomAccessOutputStream) {
+            ((RandomAccessOutputStream) out).transferFrom(source, position, length);
+            streamCompressor.countWritten(length);
+        } else {
+            final ByteBuffer buffer = ByteBuffer.wrap(copyBuffer);
+            for (long done = 0; done < length;) {
+                buffer.clear();
+                buffer.limit((int) Math.min(copyBuffer.length, length - done));
+                final int read = source.read(buffer, position + done);
+                if (read < 0) {
+                    throw new EOFException("Truncated raw data of " + entry.getName());
+                }
+                streamCompressor.writeCounted(copyBuffer, 0, read);
+                done += read;
+            }
+        }
+        count(length);
+        closeCopiedEntry(is2PhaseSource);
+    }
+
     /**
      * Adds UnicodeExtra fields for name and file comment if mode is ALWAYS or the data cannot be encoded using the configured encoding.
      */
@@ -533,6 +724,69 @@ private void addUnicodeExtraFields(final ZipArchiveEntry ze, final boolean encod
         }
     }
 
+    /**
+     * Opens an existing archive to append entries to it without rewriting the data of its entries.
+     * <p>
+     * The central directory of the archive is parsed into the returned stream, which then writes new entries where the old central directory started.
+     * {@link #finish() Finishing} the stream writes a central directory listing the existing entries followed by the new ones, keeps the archive comment and
+     * truncates the channel after the new end of central directory record. Appending therefore only costs writing the new entries and the central directory,
+     * no matter how big the existing entries are.
+     * </p>
+     * <p>
+     * The old central directory is overwritten by the first new entry, the archive is invalid until the stream is finished. Like
+     * {@link ZipFile#copyRawEntries(ZipArchiveOutputStream, ZipArchiveEntryPredicate)}, the central directory records of existing entries are rewritten using
+     * the settings of this stream, like its encoding. Split archives are not supported.
+     * </p>
+     *
+     * @param channel The archive, readable, writable and positioned anywhere; closed when the returned stream is closed.
+     * @return A stream writing to the end of the archive.
+     * @throws IOException if the archive can't be read or is a split archive.
+     * @since 1.29.0
+     */
+    public static ZipArchiveOutputStream append(final SeekableByteChannel channel) throws IOException {
+        final ZipArchiveOutputStream zos = new ZipArchiveOutputStream(channel);
+        try (ZipFile zipFile = ZipFile.builder().setSeekableByteChannel(CloseShieldChannel.wrap(channel)).setIgnoreLocalFileHeader(true).get()) {
+            zipFile.stream().forEach(existing -> {
+                if (existing.getDiskNumberStart() != 0) {
+                    throw new ArchiveException("Can't append to a split archive");
+                }
+                zos.entries.add(existing);
+                zos.metaData.put(existing, new EntryMetaData(existing.getLocalHeaderOffset(), existing.getGeneralPurposeBit().usesDataDescriptor()));
+            });
+            zos.setComment(zos.zipEncoding.decode(ZipFile.readArchiveComment(channel)));
+            final long centralDirectoryStart = zipFile.getCentralDirectoryStartOffset();
+            channel.position(centralDirectoryStart);
+            zos.streamCompressor.countWritten(centralDirectoryStart);
+            zos.appendChannel = channel;
+        } catch (final IOException | RuntimeException e) {
+            // leaves the channel open for the caller
+            zos.metaData.clear();
+            zos.entries.clear();
+            zos.streamCompressor.close();
+            throw e;
+        }
+        return zos;
+    }
+
+    /**
+     * Opens an existing archive file to append entries to it without rewriting the data of its entries.
+     *
+     * @param path The archive.
+     * @return A stream writing to the end of the archive.
+     * @throws IOException if the archive can't be read or is a split archive.
+     * @see #append(SeekableByteChannel)
+     * @since 1.29.0
+     */
+    public static ZipArchiveOutputStream append(final Path path) throws IOException {
+        final SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return append(channel);
+        } catch (final IOException | RuntimeException e) {
+            IOUtils.closeQuietly(channel);
+            throw e;
+        }
+    }
+
     /**
      * Tests whether this stream is able to write the given entry.
      * <p>
@@ -587,12 +841,16 @@ public void close() throws IOException {
      */
     @Override
     public void closeArchiveEntry() throws IOException {
+        if (pendingEntry != null) {
+            putPendingEntry(true);
+        }
         preClose();
 
         flushDeflater();
 
         final long bytesWritten = streamCompressor.getTotalBytesWritten() - entry.dataStart;
-        final long realCrc = streamCompressor.getCrc32();
+        // a simulation only counts the data
+        final long realCrc = simulation && !entry.crcDeferred ? entry.entry.getCrc() : streamCompressor.getCrc32();
         entry.bytesRead = streamCompressor.getBytesRead();
         final Zip64Mode effectiveMode = getEffectiveZip64Mode(entry.entry);
         final boolean actuallyNeedsZip64 = handleSizesAndCrc(bytesWritten, realCrc, effectiveMode);
@@ -600,6 +858,27 @@ public void closeArchiveEntry() throws IOException {
         streamCompressor.reset();
     }
 
+    /**
+     * Puts a copy of an entry whose raw data is added by the caller, without its Zip64 extra field.
+     *
+     * @param entry The entry to copy.
+     * @return whether CRC and sizes of the entry are known upfront.
+     * @throws IOException on error.
+     */
+    private boolean putRawArchiveEntry(final ZipArchiveEntry entry) throws IOException {
+        final ZipArchiveEntry ae = new ZipArchiveEntry(entry);
+        if (hasZip64Extra(ae)) {
+            // Will be re-added as required. this may make the file generated with this method
+            // somewhat smaller than standard mode,
+            // since standard mode is unable to remove the ZIP 64 header.
+            ae.removeExtraField(Zip64ExtendedInformationExtraField.HEADER_ID);
+        }
+        final boolean is2PhaseSource = ae.getCrc() != ZipArchiveEntry.CRC_UNKNOWN && ae.getSize() != ArchiveEntry.SIZE_UNKNOWN
+                && ae.getCompressedSize() != ArchiveEntry.SIZE_UNKNOWN;
+        putArchiveEntry(ae, is2PhaseSource);
+        return is2PhaseSource;
+    }
+
     /**
      * Writes all necessary data for this entry.
      *
@@ -623,9 +902,61 @@ private void closeEntry(final boolean actuallyNeedsZip64, final boolean phased)
         if (!phased) {
             writeDataDescriptor(entry.entry);
         }
+        if (spillDirectory != null) {
+            spill(entry.entry);
+        }
         entry = null;
     }
 
+    /**
+     * Computes the size of the archive this stream writes for the given entries before any of them has been written.
+     * <p>
+     * All entries must be {@link #STORED STORED} with a known size, entries without a CRC are laid out with a data descriptor. The size accounts for the
+     * encoding, Zip64 mode, Unicode extra field policy and comment of this stream as well as for the extra fields, alignment and Zip64 needs of the entries, it
+     * is exact as long as none of them changes until the archive has been written.
+     * </p>
+     *
+     * @param plannedEntries The entries in the order they are going to be written.
+     * @return The number of bytes of the archive.
+     * @throws IllegalArgumentException if an entry isn't STORED or its size is unknown.
+     * @throws IllegalStateException    if this stream writes to a seekable output or a split archive or has already been started.
+     * @throws Zip64RequiredException   if the archive requires Zip64 extensions and {@link #setUseZip64} is {@link Zip64Mode#Never}.
+     * @throws IOException              if an entry can't be copied.
+     * @since 1.29.0
+     */
+    public long computeArchiveSize(final Iterable<? extends ZipArchiveEntry> plannedEntries) throws IOException {
+        if (isSeekable() || isSplitZip) {
+            throw new IllegalStateException("Can't compute the size of an archive written to a seekable output or split");
+        }
+        if (finished || pendingEntry != null || streamCompressor.getTotalBytesWritten() > 0) {
+            throw new IllegalStateException("The archive has already been started");
+        }
+        // the data of the entries is only counted, everything else written
+        final CountingOutputStream headers = new CountingOutputStream(NullOutputStream.INSTANCE);
+        long dataSize = 0;
+        try (ZipArchiveOutputStream sizer = new ZipArchiveOutputStream(headers)) {
+            sizer.simulation = true;
+            sizer.setEncoding(charset);
+            sizer.useUtf8Flag = useUtf8Flag;
+            sizer.fallbackToUtf8 = fallbackToUtf8;
+            sizer.createUnicodeExtraFields = createUnicodeExtraFields;
+            sizer.zip64Mode = zip64Mode;
+            sizer.comment = comment;
+            for (final ZipArchiveEntry planned : plannedEntries) {
+                if (planned.getMethod() != STORED || planned.getSize() == ArchiveEntry.SIZE_UNKNOWN) {
+                    throw new IllegalArgumentException("Only STORED entries of known size have a predictable size: " + planned.getName());
+                }
+                final ZipArchiveEntry copy = new ZipArchiveEntry(planned);
+                copy.setAlignment(planned.getAlignment());
+                sizer.putArchiveEntry(copy);
+                sizer.streamCompressor.countWritten(planned.getSize());
+                dataSize += planned.getSize();
+                sizer.closeArchiveEntry();
+            }
+        }
+        return headers.getByteCount() + dataSize;
+    }
+
     private void copyFromZipInputStream(final InputStream src, final boolean phased) throws IOException {
         if (entry == null) {
             throw new IllegalStateException("No current entry");
@@ -853,7 +1184,7 @@ private byte[] createLocalFileHeader(final ZipArchiveEntry ze, final ByteBuffer
         ZipUtil.toDosTime(ze.getTime(), buf, LFH_TIME_OFFSET);
 
         // CRC
-        if (phased || !(zipMethod == DEFLATED || out instanceof RandomAccessOutputStream)) {
+        if (phased || !(dataDescriptor || out instanceof RandomAccessOutputStream)) {
             ZipLong.putLong(ze.getCrc(), buf, LFH_CRC_OFFSET);
         } else {
             System.arraycopy(LZERO, 0, buf, LFH_CRC_OFFSET, ZipConstants.WORD);
@@ -870,7 +1201,7 @@ private byte[] createLocalFileHeader(final ZipArchiveEntry ze, final ByteBuffer
         } else if (phased) {
             ZipLong.putLong(ze.getCompressedSize(), buf, LFH_COMPRESSED_SIZE_OFFSET);
             ZipLong.putLong(ze.getSize(), buf, LFH_ORIGINAL_SIZE_OFFSET);
-        } else if (zipMethod == DEFLATED || out instanceof RandomAccessOutputStream) {
+        } else if (dataDescriptor || out instanceof RandomAccessOutputStream) {
             System.arraycopy(LZERO, 0, buf, LFH_COMPRESSED_SIZE_OFFSET, ZipConstants.WORD);
             System.arraycopy(LZERO, 0, buf, LFH_ORIGINAL_SIZE_OFFSET, ZipConstants.WORD);
         } else if (ZipMethod.isZstd(zipMethod) || zipMethod == ZipMethod.XZ.getCode()) {
@@ -904,6 +1235,17 @@ protected final void deflate() throws IOException {
         streamCompressor.deflate();
     }
 
+    private void deleteSpillFile() throws IOException {
+        if (spillFile != null) {
+            try {
+                spillStream.close();
+            } finally {
+                Files.deleteIfExists(spillFile);
+                spillFile = null;
+            }
+        }
+    }
+
     /**
      * Closes the underlying stream/file without finishing the archive, the result will likely be a corrupt archive.
      * <p>
@@ -911,8 +1253,12 @@ protected final void deflate() throws IOException {
      * </p>
      */
     void destroy() throws IOException {
-        if (out != null) {
-            super.close();
+        try {
+            deleteSpillFile();
+        } finally {
+            if (out != null) {
+                super.close();
+            }
         }
     }
 
@@ -928,7 +1274,7 @@ public void finish() throws IOException {
             throw new ArchiveException("This archive has already been finished");
         }
 
-        if (entry != null) {
+        if (entry != null || pendingEntry != null) {
             throw new ArchiveException("This archive contains unclosed entries.");
         }
 
@@ -960,6 +1306,10 @@ public void finish() throws IOException {
 
         writeZip64CentralDirectory();
         writeCentralDirectoryEnd();
+        if (appendChannel != null) {
+            // the old central directory may have been longer
+            appendChannel.truncate(appendChannel.position());
+        }
         metaData.clear();
         entries.clear();
         streamCompressor.close();
@@ -983,12 +1333,10 @@ public void flush() throws IOException {
     }
 
     /**
-     * Ensures all bytes sent to the deflater are written to the stream.
+     * Ensures all bytes sent to the deflater, or the compressor of a ZSTD or XZ entry, are written to the stream.
      */
     private void flushDeflater() throws IOException {
-        if (entry.entry.getMethod() == DEFLATED) {
-            streamCompressor.flushDeflater();
-        }
+        streamCompressor.finish(entry.entry.getMethod());
     }
 
     /**
@@ -1009,7 +1357,7 @@ public long getBytesWritten() {
      */
     private Zip64Mode getEffectiveZip64Mode(final ZipArchiveEntry ze) {
         if (zip64Mode != Zip64Mode.AsNeeded || out instanceof RandomAccessOutputStream ||
-                ze.getMethod() != DEFLATED || ze.getSize() != ArchiveEntry.SIZE_UNKNOWN) {
+                !streamCompressor.compresses(ze.getMethod()) || ze.getSize() != ArchiveEntry.SIZE_UNKNOWN) {
             return zip64Mode;
         }
         return Zip64Mode.Never;
@@ -1042,6 +1390,13 @@ private ByteBuffer getName(final ZipArchiveEntry ze) throws IOException {
         return getEntryEncoding(ze).encode(ze.getName());
     }
 
+    /**
+     * Gets the number of entries in the central directory, kept in memory or spilled to {@link #spillFile}.
+     */
+    private int getNumberOfEntries() {
+        return entries.size() + spilledEntries;
+    }
+
     /**
      * Gets the existing ZIP64 extended information extra field or create a new one and add it to the entry.
      *
@@ -1074,7 +1429,7 @@ private Zip64ExtendedInformationExtraField getZip64Extra(final ZipArchiveEntry z
      */
     private boolean handleSizesAndCrc(final long bytesWritten, final long crc, final Zip64Mode effectiveMode) throws ZipException {
         final int zipMethod = entry.entry.getMethod();
-        if (zipMethod == DEFLATED) {
+        if (streamCompressor.compresses(zipMethod)) {
             // It turns out def.getBytesRead() returns wrong values if the size exceeds 4 GB on Java < Java7 entry.entry.setSize(def.getBytesRead());
             entry.entry.setSize(entry.bytesRead);
             entry.entry.setCompressedSize(bytesWritten);
@@ -1082,6 +1437,11 @@ private boolean handleSizesAndCrc(final long bytesWritten, final long crc, final
         } else if (ZipMethod.isZstd(zipMethod) || zipMethod == ZipMethod.XZ.getCode()) {
             entry.entry.setCompressedSize(bytesWritten);
             entry.entry.setCrc(crc);
+        } else if (entry.crcDeferred) {
+            if (entry.entry.getSize() != bytesWritten) {
+                throw new ZipException("Bad size for entry " + entry.entry.getName() + ": " + entry.entry.getSize() + " instead of " + bytesWritten);
+            }
+            entry.entry.setCrc(crc);
         } else if (!(out instanceof RandomAccessOutputStream)) {
             if (entry.entry.getCrc() != crc) {
                 throw new ZipException("Bad CRC checksum for entry " + entry.entry.getName() + ": " + Long.toHexString(entry.entry.getCrc()) + " instead of " +
@@ -1177,6 +1537,20 @@ private void preClose() throws IOException {
      */
     @Override
     public void putArchiveEntry(final ZipArchiveEntry archiveEntry) throws IOException {
+        if (methodPolicy != null && archiveEntry.getMethod() == ZipMethod.UNKNOWN_CODE) {
+            if (finished) {
+                throw new ArchiveException("Stream has already been finished");
+            }
+            if (entry != null || pendingEntry != null) {
+                closeArchiveEntry();
+            }
+            pendingEntry = archiveEntry;
+            sampleLength = 0;
+            if (sample == null || sample.length != methodPolicy.getSampleSize()) {
+                sample = new byte[methodPolicy.getSampleSize()];
+            }
+            return;
+        }
         putArchiveEntry(archiveEntry, false);
     }
 
@@ -1195,7 +1569,7 @@ private void putArchiveEntry(final ZipArchiveEntry archiveEntry, final boolean p
             throw new ArchiveException("Stream has already been finished");
         }
 
-        if (entry != null) {
+        if (entry != null || pendingEntry != null) {
             closeArchiveEntry();
         }
 
@@ -1217,7 +1591,7 @@ private void putArchiveEntry(final ZipArchiveEntry archiveEntry, final boolean p
                 // sizes are already known
                 size = new ZipEightByteInteger(entry.entry.getSize());
                 compressedSize = new ZipEightByteInteger(entry.entry.getCompressedSize());
-            } else if (entry.entry.getMethod() == STORED && entry.entry.getSize() != ArchiveEntry.SIZE_UNKNOWN) {
+            } else if (entry.entry.getMethod() == STORED && entry.entry.getSize() != ArchiveEntry.SIZE_UNKNOWN && !entry.crcDeferred) {
                 // actually, we already know the sizes
                 compressedSize = size = new ZipEightByteInteger(entry.entry.getSize());
             } else {
@@ -1234,9 +1608,44 @@ private void putArchiveEntry(final ZipArchiveEntry archiveEntry, final boolean p
             def.setLevel(level);
             hasCompressionLevelChanged = false;
         }
+        if (entry.entry.getMethod() == DEFLATED) {
+            streamCompressor.setParallelDeflate(parallelDeflateExecutor, parallelDeflateBlockSize, parallelDeflateMaxBlocksInFlight, level);
+        }
         writeLocalFileHeader(archiveEntry, phased);
     }
 
+    /**
+     * Lets {@link #methodPolicy} choose the method of {@link #pendingEntry}, writes its local file header and the sample.
+     *
+     * @param complete Whether the sample holds all data of the entry.
+     */
+    private void putPendingEntry(final boolean complete) throws IOException {
+        final ZipArchiveEntry archiveEntry = pendingEntry;
+        pendingEntry = null;
+        // without random access the sizes of stored entries must be known upfront
+        final AdaptiveMethodPolicy.Decision decision = methodPolicy.decide(sample, sampleLength, complete || isSeekable());
+        if (decision == AdaptiveMethodPolicy.Decision.STORE) {
+            archiveEntry.setMethod(STORED);
+            if (complete) {
+                final CRC32 crc = new CRC32();
+                crc.update(sample, 0, sampleLength);
+                archiveEntry.setSize(sampleLength);
+                archiveEntry.setCrc(crc.getValue());
+            }
+            putArchiveEntry(archiveEntry, false);
+        } else {
+            archiveEntry.setMethod(DEFLATED);
+            putArchiveEntry(archiveEntry, false);
+            final int entryLevel = methodPolicy.getLevel(decision, level);
+            if (entryLevel != level) {
+                streamCompressor.setLevel(entryLevel);
+                // restores the configured level for the next entry
+                hasCompressionLevelChanged = true;
+            }
+        }
+        write(sample, 0, sampleLength);
+    }
+
     /**
      * When using random access output, write the local file header and potentially the ZIP64 extra containing the correct CRC and compressed/uncompressed
      * sizes.
@@ -1290,6 +1699,36 @@ private void rewriteSizesAndCrc(final boolean actuallyNeedsZip64) throws IOExcep
         }
     }
 
+    /**
+     * Makes this stream keep the central file headers of subsequently closed entries in a temporary file instead of in memory.
+     * <p>
+     * The central directory is written by {@link #finish()}, so by default this stream holds every entry and its metadata until then, which adds up for
+     * archives with millions of entries. With a spill directory the central file header of an entry is created once the entry is closed and appended to a
+     * temporary file in that directory, the entry itself is dropped. {@link #finish()} copies the file into the archive and deletes it, {@link #close()}
+     * deletes it in any case.
+     * </p>
+     * <p>
+     * The resulting archive is the same except that the "version made by" of entries closed before the first entry requiring Zip64 extensions doesn't
+     * claim Zip64 support, and that an entry whose offset requires Zip64 extensions with {@link Zip64Mode#Never} fails when it is closed rather than on
+     * {@link #finish()}.
+     * </p>
+     *
+     * @param directory The directory to create the temporary file in.
+     * @throws UnsupportedOperationException if this stream creates a split archive.
+     * @throws IllegalStateException         if central file headers have already been written to a temporary file.
+     * @since 1.29.0
+     */
+    public void setCentralDirectorySpillDirectory(final Path directory) {
+        Objects.requireNonNull(directory, "directory");
+        if (isSplitZip) {
+            throw new UnsupportedOperationException("Can't spill the central directory of a split archive");
+        }
+        if (spillFile != null) {
+            throw new IllegalStateException("Central file headers have already been spilled to " + spillFile);
+        }
+        this.spillDirectory = directory;
+    }
+
     /**
      * Sets the file comment.
      *
@@ -1345,6 +1784,16 @@ public void setEncoding(final String encoding) {
         setEncoding(Charsets.toCharset(encoding));
     }
 
+    /**
+     * Sets a cache of compressed entry data used by {@link #addArchiveEntry(ZipArchiveEntry, InputStreamSupplier)}.
+     *
+     * @param entryCache The cache or null to compress all entries.
+     * @since 1.29.0
+     */
+    public void setEntryCache(final CompressedEntryCache entryCache) {
+        this.entryCache = entryCache;
+    }
+
     /**
      * Sets whether to fall back to UTF and the language encoding flag if the file name cannot be encoded using the specified encoding.
      * <p>
@@ -1389,6 +1838,55 @@ public void setMethod(final int method) {
         this.method = method;
     }
 
+    /**
+     * Sets a policy choosing between storing and deflating subsequent entries without a method.
+     * <p>
+     * The data of such an entry is buffered until {@link AdaptiveMethodPolicy#getSampleSize()} bytes have been written or the entry is closed, the policy
+     * then chooses the method from this sample and the local file header is written. Without random access, see {@link #isSeekable()}, entries are only stored
+     * if they fit into the sample, other incompressible entries are deflated with {@link Deflater#NO_COMPRESSION} instead. The decisions are counted by the
+     * policy.
+     * </p>
+     * <p>
+     * Entries with a method set using {@link ZipArchiveEntry#setMethod(int)} are written as usual, the default method set using {@link #setMethod(int)} isn't
+     * used while a policy is set.
+     * </p>
+     *
+     * @param methodPolicy The policy or null to use the default method for entries without a method.
+     * @since 1.29.0
+     */
+    public void setMethodPolicy(final AdaptiveMethodPolicy methodPolicy) {
+        this.methodPolicy = methodPolicy;
+    }
+
+    /**
+     * Sets an executor to deflate the data of subsequent {@link #DEFLATED DEFLATED} entries in blocks on multiple threads.
+     * <p>
+     * The data of an entry is split into blocks of {@code blockSize} bytes that are deflated independently, each using the last 32 KiB of the preceding
+     * block as preset dictionary, and joined into a single DEFLATE stream. The CRC-32 of the entry is combined from the CRC-32s of its blocks. This allows a
+     * single large entry to be compressed on many cores, at the cost of a slightly bigger compressed size. Entries smaller than a block are deflated on the
+     * calling thread as usual.
+     * </p>
+     * <p>
+     * At most {@code maxBlocksInFlight} blocks are submitted to the executor but not yet written, so this stream holds roughly
+     * {@code 2 * blockSize * maxBlocksInFlight} bytes of buffers while writing a large entry. A value slightly larger than the number of threads of the
+     * executor keeps all threads busy.
+     * </p>
+     *
+     * @param executor          The executor running the block compression or null to deflate on the calling thread.
+     * @param blockSize         The number of uncompressed bytes per block, at least 32 KiB.
+     * @param maxBlocksInFlight The maximum number of blocks submitted to the executor but not yet written, at least 1.
+     * @throws IllegalArgumentException if {@code blockSize} or {@code maxBlocksInFlight} is too small.
+     * @since 1.29.0
+     */
+    public void setParallelDeflate(final ExecutorService executor, final int blockSize, final int maxBlocksInFlight) {
+        if (executor != null && (blockSize < StreamCompressor.DICTIONARY_SIZE || maxBlocksInFlight < 1)) {
+            throw new IllegalArgumentException("Invalid block size " + blockSize + " or maximum number of blocks in flight " + maxBlocksInFlight);
+        }
+        this.parallelDeflateExecutor = executor;
+        this.parallelDeflateBlockSize = blockSize;
+        this.parallelDeflateMaxBlocksInFlight = maxBlocksInFlight;
+    }
+
     /**
      * Sets whether to set the language encoding flag if the file name encoding is UTF-8.
      * <p>
@@ -1436,6 +1934,43 @@ public void setUseZip64(final Zip64Mode mode) {
         zip64Mode = mode;
     }
 
+    /**
+     * Makes this stream compress the data of subsequent {@link ZipMethod#XZ XZ} entries.
+     * <p>
+     * By default the data written for XZ entries must be XZ compressed already and is written as is. Once enabled, the data written is compressed by this
+     * stream, which computes CRC and sizes like for {@link #DEFLATED DEFLATED} entries.
+     * </p>
+     *
+     * @param preset The XZ preset, from 0 to 9, see {@link org.tukaani.xz.LZMA2Options#LZMA2Options(int)}.
+     * @throws IllegalArgumentException if the preset is invalid.
+     * @since 1.29.0
+     */
+    public void setXzCompression(final int preset) {
+        if (preset < 0 || preset > 9) {
+            throw new IllegalArgumentException("Invalid XZ preset: " + preset);
+        }
+        streamCompressor.setXzCompression(preset);
+    }
+
+    /**
+     * Makes this stream compress the data of subsequent {@link ZipMethod#ZSTD ZSTD} and {@link ZipMethod#ZSTD_DEPRECATED ZSTD_DEPRECATED} entries.
+     * <p>
+     * By default the data written for Zstandard entries must be compressed already and is written as is. Once enabled, the data written is compressed by
+     * this stream, which computes CRC and sizes like for {@link #DEFLATED DEFLATED} entries.
+     * </p>
+     *
+     * @param level   The Zstandard compression level, 3 is the default of zstd.
+     * @param workers The number of threads compressing each entry, 0 to compress on the calling thread.
+     * @throws IllegalArgumentException if {@code workers} is negative.
+     * @since 1.29.0
+     */
+    public void setZstdCompression(final int level, final int workers) {
+        if (workers < 0) {
+            throw new IllegalArgumentException("Invalid number of workers: " + workers);
+        }
+        streamCompressor.setZstdCompression(level, workers);
+    }
+
     /**
      * Tests whether to add a Zip64 extended information extra field to the local file header.
      * <p>
@@ -1471,15 +2006,30 @@ private boolean shouldUseZip64EOCD() {
         return numberOfThisDisk >= ZipConstants.ZIP64_MAGIC_SHORT /* number of this disk */
                 || cdDiskNumberStart >= ZipConstants.ZIP64_MAGIC_SHORT /* number of the disk with the start of the central directory */
                 || numOfEntriesOnThisDisk >= ZipConstants.ZIP64_MAGIC_SHORT /* total number of entries in the central directory on this disk */
-                || entries.size() >= ZipConstants.ZIP64_MAGIC_SHORT /* total number of entries in the central directory */
+                || getNumberOfEntries() >= ZipConstants.ZIP64_MAGIC_SHORT /* total number of entries in the central directory */
                 || cdLength >= ZipConstants.ZIP64_MAGIC /* size of the central directory */
                 || cdOffset >= ZipConstants.ZIP64_MAGIC; /*
                                                           * offset of start of central directory with respect to the starting disk number
                                                           */
     }
 
+    /**
+     * Appends the central file header of the just closed entry to {@link #spillFile} and forgets the entry.
+     */
+    private void spill(final ZipArchiveEntry ze) throws IOException {
+        if (spillFile == null) {
+            spillFile = Files.createTempFile(spillDirectory, "zip-cd", ".tmp");
+            spillStream = new BufferedOutputStream(Files.newOutputStream(spillFile));
+        }
+        spillStream.write(createCentralFileHeader(ze));
+        // the entry just closed has been added last
+        entries.remove(entries.size() - 1);
+        metaData.remove(ze);
+        spilledEntries++;
+    }
+
     private boolean usesDataDescriptor(final int zipMethod, final boolean phased) {
-        return !phased && zipMethod == DEFLATED && !(out instanceof RandomAccessOutputStream);
+        return !phased && (streamCompressor.compresses(zipMethod) || entry != null && entry.crcDeferred) && !(out instanceof RandomAccessOutputStream);
     }
 
     /**
@@ -1511,7 +2061,7 @@ private void validateIfZip64IsNeededInEOCD() throws Zip64RequiredException {
         }
 
         // number of entries
-        if (entries.size() >= ZipConstants.ZIP64_MAGIC_SHORT) {
+        if (getNumberOfEntries() >= ZipConstants.ZIP64_MAGIC_SHORT) {
             throw new Zip64RequiredException(Zip64RequiredException.TOO_MANY_ENTRIES_MESSAGE);
         }
 
@@ -1534,9 +2084,8 @@ private void validateSizeInformation(final Zip64Mode effectiveMode) throws ZipEx
             if (entry.entry.getSize() == ArchiveEntry.SIZE_UNKNOWN) {
                 throw new ZipException("Uncompressed size is required for STORED method when not writing to a file");
             }
-            if (entry.entry.getCrc() == ZipArchiveEntry.CRC_UNKNOWN) {
-                throw new ZipException("CRC checksum is required for STORED method when not writing to a file");
-            }
+            // the CRC follows the data then
+            entry.crcDeferred = entry.entry.getCrc() == ZipArchiveEntry.CRC_UNKNOWN;
             entry.entry.setCompressedSize(entry.entry.getSize());
         }
 
@@ -1574,11 +2123,24 @@ private int versionNeededToExtractMethod(final int zipMethod) {
     @Override
     public void write(final byte[] b, final int offset, final int length) throws IOException {
         IOUtils.checkFromIndexSize(b, offset, length);
+        int off = offset;
+        int len = length;
+        if (pendingEntry != null) {
+            final int n = Math.min(len, sample.length - sampleLength);
+            System.arraycopy(b, off, sample, sampleLength, n);
+            sampleLength += n;
+            if (sampleLength < sample.length) {
+                return;
+            }
+            putPendingEntry(false);
+            off += n;
+            len -= n;
+        }
         if (entry == null) {
             throw new IllegalStateException("No current entry");
         }
         ZipUtil.checkRequestedFeatures(entry.entry);
-        final long writtenThisTime = streamCompressor.write(b, offset, length, entry.entry.getMethod());
+        final long writtenThisTime = streamCompressor.write(b, off, len, entry.entry.getMethod());
         count(writtenThisTime);
     }
 
@@ -1609,7 +2171,7 @@ protected void writeCentralDirectoryEnd() throws IOException {
         writeCounted(ZipShort.getBytes((int) cdDiskNumberStart));
 
         // number of entries
-        final int numberOfEntries = entries.size();
+        final int numberOfEntries = getNumberOfEntries();
 
         // total number of entries in the central directory on this disk
         final int numOfEntriesOnThisDisk = isSplitZip ? numberOfCDInDiskData.getOrDefault(numberOfThisDisk, 0) : numberOfEntries;
@@ -1644,6 +2206,18 @@ private void writeCentralDirectoryInChunks() throws IOException {
             }
         }
         writeCounted(byteArrayOutputStream.toByteArray());
+        if (spillFile != null) {
+            // entries kept in memory have been closed before the spilled ones
+            spillStream.close();
+            try (InputStream in = Files.newInputStream(spillFile)) {
+                final byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    streamCompressor.writeCounted(buffer, 0, n);
+                }
+            }
+            deleteSpillFile();
+        }
     }
 
     /**
@@ -1766,7 +2340,7 @@ public void writePreamble(final byte[] preamble) throws IOException {
      * @since 1.21
      */
     public void writePreamble(final byte[] preamble, final int offset, final int length) throws IOException {
-        if (entry != null) {
+        if (entry != null || pendingEntry != null) {
             throw new IllegalStateException("Preamble must be written before creating an entry");
         }
         this.streamCompressor.writeCounted(preamble, offset, length);
@@ -1830,12 +2404,12 @@ protected void writeZip64CentralDirectory() throws IOException {
         writeOut(ZipLong.getBytes(cdDiskNumberStart));
 
         // total number of entries in the central directory on this disk
-        final int numOfEntriesOnThisDisk = isSplitZip ? numberOfCDInDiskData.getOrDefault(numberOfThisDisk, 0) : entries.size();
+        final int numOfEntriesOnThisDisk = isSplitZip ? numberOfCDInDiskData.getOrDefault(numberOfThisDisk, 0) : getNumberOfEntries();
         final byte[] numOfEntriesOnThisDiskData = ZipEightByteInteger.getBytes(numOfEntriesOnThisDisk);
         writeOut(numOfEntriesOnThisDiskData);
 
         // number of entries
-        final byte[] num = ZipEightByteInteger.getBytes(entries.size());
+        final byte[] num = ZipEightByteInteger.getBytes(getNumberOfEntries());
         writeOut(num);
 
         // length and location of CD
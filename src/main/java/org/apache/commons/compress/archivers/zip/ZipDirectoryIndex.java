@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie over the '/' separated names of the entries of a {@link ZipFile}.
+ * <p>
+ * Each node stands for a name, directories end with '/', and only stores the last segment of the name as key in its parent, so the index grows linearly with the
+ * length of the names. A node exists for every directory containing an entry, even if the archive doesn't contain an entry
+ * for the directory itself. Nodes reference the lists of entries held by the name map of the {@link ZipFile}, so the index adds a node per distinct name and
+ * directory but no per entry lists.
+ * </p>
+ *
+ * @NotThreadSafe until all entries have been added, immutable afterwards.
+ */
+final class ZipDirectoryIndex {
+
+    private static final class Node {
+
+        /** Children in the order their names first appear within the central directory, keyed by the last segment of their name. */
+        private Map<String, Node> children;
+
+        /** The entries named exactly like this node or null. */
+        private List<ZipArchiveEntry> entries;
+
+        private Node getChild(final String segment) {
+            return children != null ? children.get(segment) : null;
+        }
+
+        private Node getOrAddChild(final String segment) {
+            if (children == null) {
+                children = new LinkedHashMap<>();
+            }
+            return children.computeIfAbsent(segment, k -> new Node());
+        }
+    }
+
+    /**
+     * Normalizes the name of a directory so it ends with '/', the empty string stands for the root.
+     *
+     * @param directory The name of a directory, with or without trailing '/'.
+     * @return The normalized name.
+     */
+    static String toDirectoryName(final String directory) {
+        return directory.isEmpty() || directory.endsWith("/") ? directory : directory + "/";
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Adds all entries with the given name.
+     *
+     * @param name    The name of the entries.
+     * @param entries The entries, in central directory order, only referenced by the index.
+     */
+    void add(final String name, final List<ZipArchiveEntry> entries) {
+        Node node = root;
+        int start = 0;
+        while (start < name.length()) {
+            final int slash = name.indexOf('/', start);
+            final int end = slash < 0 ? name.length() : slash + 1;
+            node = node.getOrAddChild(name.substring(start, end));
+            start = end;
+        }
+        node.entries = entries;
+    }
+
+    private static void collectEntries(final Node node, final List<ZipArchiveEntry> result) {
+        if (node.children == null) {
+            return;
+        }
+        // names may be nested arbitrarily deep, so walk with an explicit stack
+        final Deque<Iterator<Node>> stack = new ArrayDeque<>();
+        stack.push(node.children.values().iterator());
+        while (!stack.isEmpty()) {
+            final Iterator<Node> siblings = stack.peek();
+            if (!siblings.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            final Node child = siblings.next();
+            if (child.entries != null) {
+                result.addAll(child.entries);
+            }
+            if (child.children != null) {
+                stack.push(child.children.values().iterator());
+            }
+        }
+    }
+
+    private Node find(final String directory) {
+        Node node = root;
+        int start = 0;
+        while (node != null && start < directory.length()) {
+            final int end = directory.indexOf('/', start) + 1;
+            node = node.getChild(directory.substring(start, end));
+            start = end;
+        }
+        return node;
+    }
+
+    /**
+     * Gets all entries whose names start with the given directory name, excluding entries for the directory itself.
+     *
+     * @param directory The normalized name of the directory, see {@link #toDirectoryName(String)}.
+     * @return The entries, depth first with the contents of a directory in the order their names first appear within the central directory.
+     */
+    List<ZipArchiveEntry> getEntriesUnder(final String directory) {
+        final Node node = find(directory);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        final List<ZipArchiveEntry> result = new ArrayList<>();
+        collectEntries(node, result);
+        return result;
+    }
+
+    /**
+     * Gets the names of the files and directories directly contained in the given directory.
+     *
+     * @param directory The normalized name of the directory, see {@link #toDirectoryName(String)}.
+     * @return The full names of the children, directories end with '/', in the order they first appear within the central directory.
+     */
+    List<String> listChildren(final String directory) {
+        final Node node = find(directory);
+        if (node == null || node.children == null) {
+            return Collections.emptyList();
+        }
+        final List<String> result = new ArrayList<>(node.children.size());
+        node.children.keySet().forEach(segment -> result.add(directory + segment));
+        return result;
+    }
+}
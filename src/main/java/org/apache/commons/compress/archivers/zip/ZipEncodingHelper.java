@@ -36,6 +36,102 @@ public abstract class ZipEncodingHelper {
      */
     static final ZipEncoding ZIP_ENCODING_UTF_8 = getZipEncoding(UTF_8);
 
+    /** The high bits of the eight bytes of a long. */
+    private static final long NON_ASCII_MASK = 0x8080808080808080L;
+
+    /**
+     * Counts the leading ASCII bytes of the given data, checking eight bytes at a time.
+     *
+     * @param data The data.
+     * @return The number of leading bytes below 0x80, the length of the data if all of them are.
+     */
+    static int countAscii(final byte[] data) {
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        int i = 0;
+        while (i + Long.BYTES <= data.length && (buffer.getLong(i) & NON_ASCII_MASK) == 0) {
+            i += Long.BYTES;
+        }
+        while (i < data.length && data[i] >= 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Decodes well-formed UTF-8, rejecting overlong forms, surrogates and code points above U+10FFFF.
+     *
+     * @param data The data.
+     * @param from The index of the first non-ASCII byte, see {@link #countAscii(byte[])}.
+     * @return The decoded string or null if the data isn't well-formed.
+     */
+    static String decodeUtf8(final byte[] data, final int from) {
+        // never more chars than bytes
+        final char[] chars = new char[data.length];
+        for (int i = 0; i < from; i++) {
+            chars[i] = (char) data[i];
+        }
+        int count = from;
+        int i = from;
+        while (i < data.length) {
+            final int b = data[i] & 0xff;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+                i++;
+                continue;
+            }
+            // range of the second byte, the others are plain continuation bytes
+            int low = 0x80;
+            int high = 0xBF;
+            final int length;
+            if (b < 0xC2) {
+                return null;
+            }
+            if (b < 0xE0) {
+                length = 2;
+            } else if (b < 0xF0) {
+                length = 3;
+                if (b == 0xE0) {
+                    low = 0xA0;
+                } else if (b == 0xED) {
+                    high = 0x9F;
+                }
+            } else if (b < 0xF5) {
+                length = 4;
+                if (b == 0xF0) {
+                    low = 0x90;
+                } else if (b == 0xF4) {
+                    high = 0x8F;
+                }
+            } else {
+                return null;
+            }
+            if (i + length > data.length) {
+                return null;
+            }
+            final int second = data[i + 1] & 0xff;
+            if (second < low || second > high) {
+                return null;
+            }
+            int codePoint = b & 0x3F >> length - 1;
+            codePoint = codePoint << 6 | second & 0x3F;
+            for (int j = 2; j < length; j++) {
+                final int next = data[i + j];
+                if ((next & 0xC0) != 0x80) {
+                    return null;
+                }
+                codePoint = codePoint << 6 | next & 0x3F;
+            }
+            if (length == 4) {
+                chars[count++] = Character.highSurrogate(codePoint);
+                chars[count++] = Character.lowSurrogate(codePoint);
+            } else {
+                chars[count++] = (char) codePoint;
+            }
+            i += length;
+        }
+        return new String(chars, 0, count);
+    }
+
     /**
      * Instantiates a ZIP encoding. An NIO based character set encoder/decoder will be returned. As a special case, if the character set is UTF-8, the NIO
      * encoder will be configured replace malformed and unmappable characters with '?'. This matches existing behavior from the older fallback encoder.
@@ -73,6 +169,42 @@ static ByteBuffer growBufferBy(final ByteBuffer buffer, final int increment) {
         return on;
     }
 
+    /**
+     * Tests whether the given string only consists of ASCII characters.
+     *
+     * @param s The string.
+     * @return whether all characters are below 0x80.
+     */
+    static boolean isAscii(final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests whether the given string has no unpaired surrogates.
+     *
+     * @param s The string.
+     * @return whether the string can be encoded in UTF-8 without replacements.
+     */
+    static boolean isWellFormed(final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (Character.isHighSurrogate(c)) {
+                if (i + 1 == s.length() || !Character.isLowSurrogate(s.charAt(i + 1))) {
+                    return false;
+                }
+                i++;
+            } else if (Character.isLowSurrogate(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Tests whether a given encoding is UTF-8. If the given name is null, then check the platform's default encoding.
      *
@@ -19,22 +19,32 @@
 package org.apache.commons.compress.archivers.zip;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
@@ -44,8 +54,13 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import java.util.zip.Inflater;
 import java.util.zip.ZipException;
 
@@ -134,6 +149,14 @@ public static class Builder extends AbstractArchiveBuilder<ZipFile, Builder> {
         private static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
         private boolean useUnicodeExtraFields = true;
         private boolean ignoreLocalFileHeader;
+        private boolean batchReadLocalFileHeaders;
+        private boolean bulkReadCentralDirectory;
+        private boolean parallelCentralDirectoryParsing;
+        private boolean compactEntryTable;
+        private boolean directoryIndex;
+        private Path indexPath;
+        private InflaterPool inflaterPool;
+        private boolean mapEntryData;
         private long maxNumberOfDisks = 1;
         private String name;
         private IOFunction<InputStream, InputStream> zstdInputStreamFactory;
@@ -163,6 +186,80 @@ String getName() {
             return name;
         }
 
+        /**
+         * Sets whether to read local file headers in large sequential batches instead of with a separate seek and read per entry.
+         * <p>
+         * When enabled, the local file headers are visited in the order they appear within the archive and each read covers as many consecutive headers as
+         * fit into a buffer of a few hundred kilobytes, skipping the contents of large entries. This turns one random read per entry into a few sequential
+         * reads, which matters for archives on network file systems. Has no effect if the local file headers are ignored, the archive is a split archive or
+         * the entries are kept in a {@link #setCompactEntryTable(boolean) compact entry table}. Defaults to {@code false}.
+         * </p>
+         *
+         * @param batchReadLocalFileHeaders whether to read local file headers in batches.
+         * @return {@code this} instance.
+         * @since 1.29.0
+         */
+        public Builder setBatchReadLocalFileHeaders(final boolean batchReadLocalFileHeaders) {
+            this.batchReadLocalFileHeaders = batchReadLocalFileHeaders;
+            return this;
+        }
+
+        /**
+         * Sets whether to read the whole central directory at once instead of reading each central file header with separate small reads.
+         * <p>
+         * When enabled, the central directory is read into a single heap buffer and entries are parsed from that buffer. The buffer is released once the
+         * central directory has been parsed. This significantly reduces the number of I/O operations needed to open archives with many entries. Defaults to
+         * {@code false}.
+         * </p>
+         *
+         * @param bulkReadCentralDirectory whether to read the whole central directory at once.
+         * @return {@code this} instance.
+         * @since 1.29.0
+         */
+        public Builder setBulkReadCentralDirectory(final boolean bulkReadCentralDirectory) {
+            this.bulkReadCentralDirectory = bulkReadCentralDirectory;
+            return this;
+        }
+
+        /**
+         * Sets whether to keep the entries in a compact table instead of keeping a {@link ZipArchiveEntry} per entry.
+         * <p>
+         * When enabled, only offsets, sizes, CRCs, methods and name hashes are kept for each entry in primitive arrays, which reduces the heap used per entry
+         * from hundreds of bytes to tens of bytes. A {@link ZipArchiveEntry} is re-created from the central directory (and the local file header unless it is
+         * ignored) each time {@link ZipFile#getEntry(String)}, {@link ZipFile#getEntries()}, {@link ZipFile#stream()} or a related method hands it out, so
+         * repeated calls return equal but not identical instances and each call costs I/O. Defaults to {@code false}.
+         * </p>
+         * <p>
+         * Methods that can't throw {@link IOException} throw an {@link UncheckedIOException} if an entry can't be re-created.
+         * </p>
+         *
+         * @param compactEntryTable whether to keep the entries in a compact table.
+         * @return {@code this} instance.
+         * @since 1.29.0
+         */
+        public Builder setCompactEntryTable(final boolean compactEntryTable) {
+            this.compactEntryTable = compactEntryTable;
+            return this;
+        }
+
+        /**
+         * Sets whether to build an index of the directory tree formed by the entry names.
+         * <p>
+         * When enabled, a trie over the '/' separated entry names is built while opening the archive, and {@link ZipFile#getEntriesUnder(String)} and
+         * {@link ZipFile#listChildren(String)} take time proportional to the size of their result instead of scanning all entries. The index shares the
+         * entry lists of the name lookup and adds a node per distinct name and directory. Has no effect if the entries are kept in a
+         * {@link #setCompactEntryTable(boolean) compact entry table}. Defaults to {@code false}.
+         * </p>
+         *
+         * @param directoryIndex whether to build an index of the directory tree.
+         * @return {@code this} instance.
+         * @since 1.29.0
+         */
+        public Builder setDirectoryIndex(final boolean directoryIndex) {
+            this.directoryIndex = directoryIndex;
+            return this;
+        }
+
         /**
          * Sets whether to ignore information stored inside the local file header.
          *
@@ -174,6 +271,84 @@ public Builder setIgnoreLocalFileHeader(final boolean ignoreLocalFileHeader) {
             return this;
         }
 
+        /**
+         * Sets the path of an index file used to reopen the archive without parsing its central directory.
+         * <p>
+         * If the index file exists and matches the archive, the entry table is read from it with a single sequential read. Otherwise, the archive is parsed
+         * as usual and the index file is (re)written. An index file matches if it has been written by a compatible version of this class using the same
+         * charset and the same {@code ignoreLocalFileHeader} and {@code useUnicodeExtraFields} settings, and if the size and last modified time of the
+         * archive as well as the end of central directory record are unchanged.
+         * </p>
+         * <p>
+         * Using an index file implies {@link #setCompactEntryTable(boolean) setCompactEntryTable(true)}. The index file is only used for archives opened from
+         * a path which aren't split archives. Defaults to {@code null}, no index file.
+         * </p>
+         *
+         * @param indexPath The path of the index file or {@code null}.
+         * @return {@code this} instance.
+         * @since 1.29.0
+         */
+        public Builder setIndexPath(final Path indexPath) {
+            this.indexPath = indexPath;
+            return this;
+        }
+
+        /**
+         * Sets the pool providing inflaters for deflated entries.
+         * <p>
+         * An inflater is taken from the pool by {@link ZipFile#getInputStream(ZipArchiveEntry)} and handed back when the returned stream is closed. Defaults
+         * to {@code null}, a new inflater is created for each stream.
+         * </p>
+         *
+         * @param inflaterPool The pool or {@code null}.
+         * @return {@code this} instance.
+         * @since 1.29.0
+         */
+        public Builder setInflaterPool(final InflaterPool inflaterPool) {
+            this.inflaterPool = inflaterPool;
+            return this;
+        }
+
+        /**
+         * Sets whether to read entry data from memory-mapped windows of the archive.
+         * <p>
+         * When enabled and the archive is backed by a {@link FileChannel}, {@link ZipFile#getInputStream(ZipArchiveEntry)} maps the archive in windows of
+         * up to a gigabyte and reads entry data straight from the mapped memory, instead of reading it through the channel with buffering. This avoids a
+         * channel read and the lock on the archive for each chunk of data, which matters when reading many entries per second and from many threads.
+         * Entries that don't fit into a window are read through the channel. Defaults to {@code false}.
+         * </p>
+         * <p>
+         * Mapped memory is released when the garbage collector reclaims the mapping, not when the archive is closed. Streams obtained before the archive
+         * has been closed remain readable.
+         * </p>
+         *
+         * @param mapEntryData whether to read entry data from memory-mapped windows of the archive.
+         * @return {@code this} instance.
+         * @since 1.29.0
+         */
+        public Builder setMapEntryData(final boolean mapEntryData) {
+            this.mapEntryData = mapEntryData;
+            return this;
+        }
+
+        /**
+         * Sets whether to parse the central directory of archives with many entries on multiple threads.
+         * <p>
+         * When enabled, the central directory is {@link #setBulkReadCentralDirectory(boolean) read at once}, split into ranges of whole central file headers
+         * and the ranges are parsed on the {@link ForkJoinPool#commonPool() common fork-join pool}. The entries are identical to the ones parsed on a single
+         * thread and keep their order. Archives with few entries, and central directories too large to be read at once, are parsed on the calling thread.
+         * Defaults to {@code false}.
+         * </p>
+         *
+         * @param parallelCentralDirectoryParsing whether to parse the central directory on multiple threads.
+         * @return {@code this} instance.
+         * @since 1.29.0
+         */
+        public Builder setParallelCentralDirectoryParsing(final boolean parallelCentralDirectoryParsing) {
+            this.parallelCentralDirectoryParsing = parallelCentralDirectoryParsing;
+            return this;
+        }
+
         /**
          * Sets max number of multi archive disks, default is 1 (no multi archive).
          *
@@ -311,8 +486,40 @@ public long getUncompressedCount() {
         /* relative offset of local header */ + ZipConstants.WORD;
     // @formatter:on
 
+    /**
+     * Offset of the &quot;file name length&quot; within a "central directory" entry structure, followed by the extra field and file comment lengths.
+     */
+    private static final int CFH_FILENAME_LENGTH_OFFSET =
+    // @formatter:off
+        /* version made by                 */ ZipConstants.SHORT
+        /* version needed to extract       */ + ZipConstants.SHORT
+        /* general purpose bit flag        */ + ZipConstants.SHORT
+        /* compression method              */ + ZipConstants.SHORT
+        /* last mod file time              */ + ZipConstants.SHORT
+        /* last mod file date              */ + ZipConstants.SHORT
+        /* CRC-32                          */ + ZipConstants.WORD
+        /* compressed size                 */ + ZipConstants.WORD
+        /* uncompressed size               */ + ZipConstants.WORD;
+    // @formatter:on
+
     private static final long CFH_SIG = ZipLong.getValue(ZipArchiveOutputStream.CFH_SIG);
 
+    /**
+     * Magic number of index files, "CZIX".
+     */
+    private static final int INDEX_MAGIC = 0x435a4958;
+
+    /**
+     * Version of the index file format, to be incremented whenever the format or the data it holds changes.
+     */
+    private static final int INDEX_VERSION = 1;
+
+    /**
+     * Distance between the starts of two memory-mapped windows of entry data, each window spans up to twice this size so that windows overlap and every
+     * entry no larger than this fits into one window.
+     */
+    private static final int MAPPED_WINDOW_STRIDE = 512 * 1024 * 1024;
+
     /**
      * Length of the "End of central directory record" - which is supposed to be the last structure of the archive - without file comment.
      */
@@ -457,6 +664,16 @@ public long getUncompressedCount() {
             /* size of the central directory   */ + ZipConstants.DWORD;
     // @formatter:on
 
+    /**
+     * Number of central file headers parsed by a single task when parsing the central directory in parallel.
+     */
+    private static final int CENTRAL_DIRECTORY_RANGE_SIZE = 8192;
+
+    /**
+     * Maximum number of bytes covered by a single read when reading local file headers in batches, more than the largest possible local file header.
+     */
+    private static final int LFH_BATCH_SIZE = 256 * 1024;
+
     /**
      * Number of bytes in local file header up to the &quot;length of file name&quot; entry.
      */
@@ -585,6 +802,25 @@ private static boolean positionAtEndOfCentralDirectoryRecord(final SeekableByteC
         return found64;
     }
 
+    /**
+     * Reads the archive comment from the &quot;End of central dir record&quot;.
+     *
+     * @param channel The archive.
+     * @return The raw comment, empty if there is none.
+     * @throws IOException if the archive can't be read or isn't a ZIP archive.
+     */
+    static byte[] readArchiveComment(final SeekableByteChannel channel) throws IOException {
+        if (!tryToLocateSignature(channel, MIN_EOCD_SIZE, MAX_EOCD_SIZE, ZipArchiveOutputStream.EOCD_SIG)) {
+            throw new ZipException("Archive is not a ZIP archive");
+        }
+        channel.position(channel.position() + MIN_EOCD_SIZE - ZipConstants.SHORT);
+        final ByteBuffer shortBuf = ByteBuffer.allocate(ZipConstants.SHORT);
+        IOUtils.readFully(channel, shortBuf);
+        final ByteBuffer comment = ByteBuffer.allocate(ZipShort.getValue(shortBuf.array()));
+        IOUtils.readFully(channel, comment);
+        return comment.array();
+    }
+
     /**
      * Converts a raw version made by int to a <a href="https://pkwaredownloads.blob.core.windows.net/pkware-general/Documentation/APPNOTE_6.2.0.TXT">platform
      * code</a>.
@@ -662,15 +898,25 @@ private static boolean tryToLocateSignature(final SeekableByteChannel channel, f
     }
 
     /**
-     * List of entries in the order they appear inside the central directory.
+     * List of entries in the order they appear inside the central directory, empty if the entries are kept in {@link #entryTable}.
      */
     private final List<ZipArchiveEntry> entries = new LinkedList<>();
 
+    /**
+     * Compact table of entries in the order they appear inside the central directory, or {@code null} if the entries are kept in {@link #entries}.
+     */
+    private final CompactEntryTable entryTable;
+
     /**
      * Maps String to list of ZipArchiveEntrys, name -> actual entries.
      */
     private final Map<String, LinkedList<ZipArchiveEntry>> nameMap = new HashMap<>(HASH_SIZE);
 
+    /**
+     * Trie over the entry names sharing the lists of {@link #nameMap}, or {@code null} if there is no directory index.
+     */
+    private final ZipDirectoryIndex directoryIndex;
+
     /**
      * The encoding to use for file names and the file comment.
      * <p>
@@ -695,6 +941,26 @@ private static boolean tryToLocateSignature(final SeekableByteChannel channel, f
      */
     private final boolean useUnicodeExtraFields;
 
+    /**
+     * Whether to ignore information stored inside the local file header.
+     */
+    private final boolean ignoreLocalFileHeader;
+
+    /**
+     * Whether to read the central directory with a single read instead of one read per central file header.
+     */
+    private final boolean bulkReadCentralDirectory;
+
+    /**
+     * Whether to read local file headers in batches, ordered by offset, instead of one read per entry.
+     */
+    private final boolean batchReadLocalFileHeaders;
+
+    /**
+     * Whether to parse ranges of the central directory on the common fork-join pool.
+     */
+    private final boolean parallelCentralDirectoryParsing;
+
     /**
      * Whether the file is closed.
      */
@@ -724,37 +990,83 @@ private static boolean tryToLocateSignature(final SeekableByteChannel channel, f
 
     private final IOFunction<InputStream, InputStream> zstdInputStreamFactory;
 
+    /**
+     * Pool providing inflaters for deflated entries or null.
+     */
+    private final InflaterPool inflaterPool;
+
+    /**
+     * Whether to read entry data from memory-mapped windows of the archive, only {@code true} if the archive is a {@link FileChannel}.
+     */
+    private final boolean mapEntryData;
+
+    /**
+     * Lazily mapped windows of the archive, indexed by start offset divided by {@link #MAPPED_WINDOW_STRIDE}, guarded by {@code this}.
+     */
+    private MappedByteBuffer[] mappedWindows;
+
     private long centralDirectoryStartDiskNumber;
 
     private long centralDirectoryStartRelativeOffset;
 
     private long centralDirectoryStartOffset;
 
+    /**
+     * Upper bound of the central directory: the offset of the "End of central dir record" or of the "Zip64 end of central directory locator".
+     */
+    private long centralDirectoryEndOffset;
+
     private long firstLocalFileHeaderOffset;
 
     private final int maxEntryNameLength;
 
     private ZipFile(final Builder builder) throws IOException {
         SeekableByteChannel archive;
+        Path path;
         try {
-            final Path path = builder.getPath();
+            path = builder.getPath();
             archive = openZipChannel(path, builder.maxNumberOfDisks, builder.getOpenOptions());
         } catch (final UnsupportedOperationException e) {
+            path = null;
             archive = builder.getChannel(SeekableByteChannel.class);
         }
         this.archive = archive;
         try {
             this.isSplitZipArchive = this.archive instanceof ZipSplitReadOnlySeekableByteChannel;
+            final Path indexPath = path != null && !isSplitZipArchive ? builder.indexPath : null;
             this.encoding = builder.getCharset();
             this.zipEncoding = ZipEncodingHelper.getZipEncoding(encoding);
             this.useUnicodeExtraFields = builder.useUnicodeExtraFields;
+            this.bulkReadCentralDirectory = builder.bulkReadCentralDirectory || builder.parallelCentralDirectoryParsing;
+            this.parallelCentralDirectoryParsing = builder.parallelCentralDirectoryParsing;
+            this.batchReadLocalFileHeaders = builder.batchReadLocalFileHeaders;
+            this.ignoreLocalFileHeader = builder.ignoreLocalFileHeader;
+            this.entryTable = builder.compactEntryTable || indexPath != null ? new CompactEntryTable() : null;
+            this.directoryIndex = builder.directoryIndex && entryTable == null ? new ZipDirectoryIndex() : null;
             this.zstdInputStreamFactory = builder.zstdInputStreamFactory;
+            this.inflaterPool = builder.inflaterPool;
+            this.mapEntryData = builder.mapEntryData && archive instanceof FileChannel;
             this.maxEntryNameLength = builder.getMaxEntryNameLength();
-            final Map<ZipArchiveEntry, NameAndComment> entriesWithoutUTF8Flag = populateFromCentralDirectory();
-            if (!builder.ignoreLocalFileHeader) {
-                resolveLocalFileHeaderData(entriesWithoutUTF8Flag);
+            if (indexPath != null && readIndex(indexPath, path)) {
+                entryTable.seal();
+            } else {
+                final Map<ZipArchiveEntry, NameAndComment> entriesWithoutUTF8Flag = populateFromCentralDirectory();
+                if (entryTable != null) {
+                    entryTable.seal();
+                    if (indexPath != null) {
+                        writeIndex(indexPath, path);
+                    }
+                } else {
+                    if (ignoreLocalFileHeader) {
+                        // nothing to resolve
+                    } else if (batchReadLocalFileHeaders && !isSplitZipArchive) {
+                        resolveLocalFileHeaderDataInBatches(entriesWithoutUTF8Flag);
+                    } else {
+                        resolveLocalFileHeaderData(entriesWithoutUTF8Flag);
+                    }
+                    fillNameMap();
+                }
             }
-            fillNameMap();
         } catch (final IOException e) {
             this.closed = true;
             throw IOUtils.closeQuietlySuppress(archive, e);
@@ -1021,6 +1333,9 @@ public void close() throws IOException {
         // can never be run in parallel.
         // no synchronization needed.
         closed = true;
+        synchronized (this) {
+            mappedWindows = null;
+        }
         archive.close();
     }
 
@@ -1057,6 +1372,36 @@ private BoundedArchiveInputStream createBoundedInputStream(final long start, fin
                 : new BoundedSeekableByteChannelInputStream(start, remaining, archive);
     }
 
+    /**
+     * Creates a stream reading the data of an entry from a memory-mapped window of the archive.
+     *
+     * @return The stream or {@code null} if the data offset is unknown or the data doesn't fit into a window.
+     * @throws IOException if the data offset can't be read or the window can't be mapped.
+     */
+    private ByteBufferInputStream createMappedInputStream(final ZipArchiveEntry entry, final boolean trailingZeroByte) throws IOException {
+        final long start = getDataOffset(entry);
+        final long length = entry.getCompressedSize();
+        if (start == EntryStreamOffsets.OFFSET_UNKNOWN || length > MAPPED_WINDOW_STRIDE) {
+            return null;
+        }
+        if (start < 0 || length < 0 || ArchiveException.addExact(start, length) < start) {
+            throw new ArchiveException("Corrupted archive, stream boundaries are out of range");
+        }
+        if (start + length > archive.size()) {
+            // truncated archive, let the channel report it
+            return null;
+        }
+        final int index = (int) (start / MAPPED_WINDOW_STRIDE);
+        final ByteBuffer window = getMappedWindow(index);
+        final long windowStart = (long) index * MAPPED_WINDOW_STRIDE;
+        if (start + length > windowStart + window.capacity()) {
+            return null;
+        }
+        final ByteBuffer data = window.duplicate();
+        data.position((int) (start - windowStart)).limit((int) (start - windowStart + length));
+        return new ByteBufferInputStream(data.slice(), trailingZeroByte);
+    }
+
     /**
      * Creates an InputStream for the Zstd compression method.
      *
@@ -1077,6 +1422,9 @@ private void fillNameMap() {
             final String name = ze.getName();
             final LinkedList<ZipArchiveEntry> entriesOfThatName = nameMap.computeIfAbsent(name, k -> new LinkedList<>());
             entriesOfThatName.addLast(ze);
+            if (directoryIndex != null && entriesOfThatName.size() == 1) {
+                directoryIndex.add(name, entriesOfThatName);
+            }
         });
     }
 
@@ -1137,9 +1485,30 @@ public String getEncoding() {
      */
     @Deprecated
     public Enumeration<ZipArchiveEntry> getEntries() {
+        if (entryTable != null) {
+            return getEntries(IntStream.range(0, entryTable.size()).iterator());
+        }
         return Collections.enumeration(entries);
     }
 
+    /**
+     * Gets the entries of the compact entry table at the given indices, re-creating each entry when it is requested.
+     */
+    private Enumeration<ZipArchiveEntry> getEntries(final PrimitiveIterator.OfInt indices) {
+        return new Enumeration<ZipArchiveEntry>() {
+
+            @Override
+            public boolean hasMoreElements() {
+                return indices.hasNext();
+            }
+
+            @Override
+            public ZipArchiveEntry nextElement() {
+                return readEntryUnchecked(indices.nextInt());
+            }
+        };
+    }
+
     /**
      * Gets all named entries in the same order they appear within the archive's central directory.
      *
@@ -1148,9 +1517,29 @@ public Enumeration<ZipArchiveEntry> getEntries() {
      * @since 1.6
      */
     public Iterable<ZipArchiveEntry> getEntries(final String name) {
+        if (entryTable != null) {
+            return getEntriesFromTable(name);
+        }
         return nameMap.getOrDefault(name, ZipArchiveEntry.EMPTY_LINKED_LIST);
     }
 
+    /**
+     * Gets all named entries of the compact entry table in the same order they appear within the archive's central directory.
+     */
+    private LinkedList<ZipArchiveEntry> getEntriesFromTable(final String name) {
+        final LinkedList<ZipArchiveEntry> list = new LinkedList<>();
+        final int hash = name.hashCode();
+        for (int i = entryTable.getFirstIndex(hash); i >= 0; i = entryTable.getNextIndex(i)) {
+            if (entryTable.getNameHash(i) == hash) {
+                final ZipArchiveEntry entry = readEntryUnchecked(i);
+                if (name.equals(entry.getName())) {
+                    list.add(entry);
+                }
+            }
+        }
+        return list;
+    }
+
     /**
      * Gets all entries in physical order.
      * <p>
@@ -1161,6 +1550,9 @@ public Iterable<ZipArchiveEntry> getEntries(final String name) {
      * @since 1.1
      */
     public Enumeration<ZipArchiveEntry> getEntriesInPhysicalOrder() {
+        if (entryTable != null) {
+            return getEntries(Arrays.stream(entryTable.getPhysicalOrder()).iterator());
+        }
         final ZipArchiveEntry[] allEntries = entries.toArray(ZipArchiveEntry.EMPTY_ARRAY);
         return Collections.enumeration(Arrays.asList(sortByOffset(allEntries)));
     }
@@ -1173,10 +1565,34 @@ public Enumeration<ZipArchiveEntry> getEntriesInPhysicalOrder() {
      * @since 1.6
      */
     public Iterable<ZipArchiveEntry> getEntriesInPhysicalOrder(final String name) {
-        final LinkedList<ZipArchiveEntry> linkedList = nameMap.getOrDefault(name, ZipArchiveEntry.EMPTY_LINKED_LIST);
+        final LinkedList<ZipArchiveEntry> linkedList = entryTable != null ? getEntriesFromTable(name)
+                : nameMap.getOrDefault(name, ZipArchiveEntry.EMPTY_LINKED_LIST);
         return Arrays.asList(sortByOffset(linkedList.toArray(ZipArchiveEntry.EMPTY_ARRAY)));
     }
 
+    /**
+     * Gets all entries inside a directory and its subdirectories.
+     * <p>
+     * Returns the entries whose names start with the name of the directory followed by '/', entries for the directory itself are not included. The empty
+     * string stands for the root directory, all entries are returned. The directory doesn't need an entry of its own.
+     * </p>
+     * <p>
+     * If the archive has been opened with {@link Builder#setDirectoryIndex(boolean) a directory index}, this takes time proportional to the number of
+     * entries returned, otherwise all entries are scanned. The order of the returned entries is unspecified.
+     * </p>
+     *
+     * @param directory name of the directory, with or without trailing '/'.
+     * @return The entries inside the directory, empty if there are none.
+     * @since 1.29.0
+     */
+    public List<ZipArchiveEntry> getEntriesUnder(final String directory) {
+        final String prefix = ZipDirectoryIndex.toDirectoryName(directory);
+        if (directoryIndex != null) {
+            return directoryIndex.getEntriesUnder(prefix);
+        }
+        return streamEntries().filter(ze -> isUnder(ze.getName(), prefix)).collect(Collectors.toList());
+    }
+
     /**
      * Gets a named entry or {@code null} if no entry by that name exists.
      * <p>
@@ -1187,10 +1603,31 @@ public Iterable<ZipArchiveEntry> getEntriesInPhysicalOrder(final String name) {
      * @return The ZipArchiveEntry corresponding to the given name - or {@code null} if not present.
      */
     public ZipArchiveEntry getEntry(final String name) {
+        if (entryTable != null) {
+            final int hash = name.hashCode();
+            for (int i = entryTable.getFirstIndex(hash); i >= 0; i = entryTable.getNextIndex(i)) {
+                if (entryTable.getNameHash(i) == hash) {
+                    final ZipArchiveEntry entry = readEntryUnchecked(i);
+                    if (name.equals(entry.getName())) {
+                        return entry;
+                    }
+                }
+            }
+            return null;
+        }
         final LinkedList<ZipArchiveEntry> entries = nameMap.get(name);
         return entries != null ? entries.getFirst() : null;
     }
 
+    /**
+     * Gets the offset of the first central directory record in the file, which is where the data of the entries ends.
+     *
+     * @return The offset of the central directory.
+     */
+    long getCentralDirectoryStartOffset() {
+        return centralDirectoryStartOffset;
+    }
+
     /**
      * Gets the offset of the first local file header in the file.
      *
@@ -1201,6 +1638,22 @@ public long getFirstLocalFileHeaderOffset() {
         return firstLocalFileHeaderOffset;
     }
 
+    /**
+     * Gets a memory-mapped window of the archive, mapping it if necessary.
+     */
+    private synchronized ByteBuffer getMappedWindow(final int index) throws IOException {
+        final FileChannel channel = (FileChannel) archive;
+        if (mappedWindows == null || index >= mappedWindows.length) {
+            mappedWindows = Arrays.copyOf(mappedWindows != null ? mappedWindows : new MappedByteBuffer[0], index + 1);
+        }
+        if (mappedWindows[index] == null) {
+            final long windowStart = (long) index * MAPPED_WINDOW_STRIDE;
+            final long length = Math.min(2L * MAPPED_WINDOW_STRIDE, channel.size() - windowStart);
+            mappedWindows[index] = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+        }
+        return mappedWindows[index];
+    }
+
     /**
      * Gets an InputStream for reading the contents of the given entry.
      *
@@ -1216,11 +1669,13 @@ public InputStream getInputStream(final ZipArchiveEntry entry) throws IOExceptio
         // cast validity is checked just above
         ZipUtil.checkRequestedFeatures(entry);
 
+        final ZipMethod method = ZipMethod.getMethodByCode(entry.getMethod());
+        final ByteBufferInputStream mapped = mapEntryData ? createMappedInputStream(entry, method == ZipMethod.DEFLATED) : null;
         // doesn't get closed if the method is not supported - which
         // should never happen because of the checkRequestedFeatures
         // call above
-        final InputStream is = new BufferedInputStream(getRawInputStream(entry)); // NOSONAR
-        switch (ZipMethod.getMethodByCode(entry.getMethod())) {
+        final InputStream is = mapped != null ? mapped : new BufferedInputStream(getRawInputStream(entry)); // NOSONAR
+        switch (method) {
         case STORED:
             return new StoredStatisticsStream(is);
         case UNSHRINKING:
@@ -1233,19 +1688,30 @@ public InputStream getInputStream(final ZipArchiveEntry entry) throws IOExceptio
                 throw new ArchiveException("Bad IMPLODE data", (Throwable) e);
             }
         case DEFLATED:
-            final Inflater inflater = new Inflater(true);
+            final Inflater inflater = inflaterPool != null ? inflaterPool.acquire() : new Inflater(true);
             // Inflater with nowrap=true has this odd contract for a zero padding
             // byte following the data stream; this used to be zlib's requirement
             // and has been fixed a long time ago, but the contract persists so
             // we comply.
             // https://docs.oracle.com/javase/8/docs/api/java/util/zip/Inflater.html#Inflater(boolean)
-            return new InflaterInputStreamWithStatistics(new SequenceInputStream(is, new ByteArrayInputStream(ONE_ZERO_BYTE)), inflater) {
+            final InputStream padded = mapped != null ? mapped : new SequenceInputStream(is, new ByteArrayInputStream(ONE_ZERO_BYTE));
+            return new InflaterInputStreamWithStatistics(padded, inflater) {
+                private boolean closed;
+
                 @Override
                 public void close() throws IOException {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
                     try {
                         super.close();
                     } finally {
-                        inflater.end();
+                        if (inflaterPool != null) {
+                            inflaterPool.release(inflater);
+                        } else {
+                            inflater.end();
+                        }
                     }
                 }
             };
@@ -1335,30 +1801,130 @@ private Map<ZipArchiveEntry, NameAndComment> populateFromCentralDirectory() thro
 
         positionAtCentralDirectory();
         centralDirectoryStartOffset = archive.position();
+        final ByteBuffer centralDirectory = bulkReadCentralDirectory ? readCentralDirectory() : null;
 
-        wordBbuf.rewind();
-        IOUtils.readFully(archive, wordBbuf);
+        readCentralDirectoryFully(centralDirectory, wordBbuf);
         long sig = ZipLong.getValue(wordBuf);
 
         if (sig != CFH_SIG && startsWithLocalFileHeader()) {
             throw new ArchiveException("Central directory is empty, can't expand corrupt archive.");
         }
 
+        if (parallelCentralDirectoryParsing && centralDirectory != null && sig == CFH_SIG) {
+            final int[] recordPositions = findCentralDirectoryRecords(centralDirectory);
+            if (recordPositions != null && recordPositions.length > CENTRAL_DIRECTORY_RANGE_SIZE) {
+                final Entry[] parsed = readCentralDirectoryInParallel(centralDirectory, recordPositions, noUTF8Flag);
+                for (int i = 0; i < parsed.length; i++) {
+                    addEntry(parsed[i], centralDirectoryStartOffset + recordPositions[i], noUTF8Flag);
+                }
+                return noUTF8Flag;
+            }
+        }
+
         while (sig == CFH_SIG) {
-            readCentralDirectoryEntry(noUTF8Flag);
-            wordBbuf.rewind();
-            IOUtils.readFully(archive, wordBbuf);
+            final long recordOffset = centralDirectory == null ? archive.position() : centralDirectoryStartOffset + centralDirectory.position();
+            addEntry(readCentralDirectoryEntry(centralDirectory, noUTF8Flag), recordOffset, noUTF8Flag);
+            readCentralDirectoryFully(centralDirectory, wordBbuf);
             sig = ZipLong.getValue(wordBuf);
         }
         return noUTF8Flag;
     }
 
+    /**
+     * Tests whether a name is inside the given directory.
+     */
+    private static boolean isUnder(final String name, final String directory) {
+        return name.length() > directory.length() && name.startsWith(directory);
+    }
+
+    /**
+     * Lists the files and directories directly inside a directory.
+     * <p>
+     * Returns the full names of the children, names of directories end with '/'. A directory is listed if any entry is inside it, even if the archive
+     * doesn't contain an entry for the directory itself. The empty string stands for the root directory. Each name is listed once, in the order it first
+     * appears within the central directory, even if multiple entries share it.
+     * </p>
+     * <p>
+     * If the archive has been opened with {@link Builder#setDirectoryIndex(boolean) a directory index}, this takes time proportional to the number of
+     * children, otherwise all entries are scanned.
+     * </p>
+     *
+     * @param directory name of the directory, with or without trailing '/'.
+     * @return The names of the children, empty if there are none.
+     * @since 1.29.0
+     */
+    public List<String> listChildren(final String directory) {
+        final String prefix = ZipDirectoryIndex.toDirectoryName(directory);
+        if (directoryIndex != null) {
+            return directoryIndex.listChildren(prefix);
+        }
+        return streamEntries().map(ZipArchiveEntry::getName).filter(name -> isUnder(name, prefix)).map(name -> {
+            final int slash = name.indexOf('/', prefix.length());
+            return slash < 0 ? name : name.substring(0, slash + 1);
+        }).distinct().collect(Collectors.toList());
+    }
+
+    /**
+     * Adds an entry parsed from the central directory to the entries or the compact entry table.
+     *
+     * @param ze           The entry.
+     * @param recordOffset The offset of the entry's central file header, right behind the signature.
+     * @param noUTF8Flag   Maps entries without the language encoding flag to their raw names and comments.
+     */
+    private void addEntry(final Entry ze, final long recordOffset, final Map<ZipArchiveEntry, NameAndComment> noUTF8Flag) throws IOException {
+        if (entryTable != null) {
+            final NameAndComment nc = noUTF8Flag.remove(ze);
+            if (!ignoreLocalFileHeader) {
+                final long position = archive.position();
+                resolveLocalFileHeaderData(ze, nc);
+                archive.position(position);
+            }
+            entryTable.add(ze, recordOffset);
+        } else {
+            entries.add(ze);
+        }
+    }
+
+    /**
+     * Finds the central file headers of a central directory read in bulk by walking their lengths, without parsing them.
+     *
+     * @param centralDirectory The central directory positioned right behind the signature of the first central file header, not modified.
+     * @return The positions of the central file headers right behind their signatures or {@code null} if a header is truncated, in which case the central
+     *         directory is to be parsed sequentially.
+     */
+    private static int[] findCentralDirectoryRecords(final ByteBuffer centralDirectory) {
+        final ByteBuffer cd = centralDirectory.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int[] positions = new int[1024];
+        int count = 0;
+        int position = cd.position();
+        while (true) {
+            if (position + CFH_LEN > cd.limit()) {
+                return null;
+            }
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+            final int next = position + CFH_LEN + (cd.getShort(position + CFH_FILENAME_LENGTH_OFFSET) & 0xffff)
+                    + (cd.getShort(position + CFH_FILENAME_LENGTH_OFFSET + ZipConstants.SHORT) & 0xffff)
+                    + (cd.getShort(position + CFH_FILENAME_LENGTH_OFFSET + 2 * ZipConstants.SHORT) & 0xffff);
+            if (next + ZipConstants.WORD > cd.limit()) {
+                return null;
+            }
+            if ((cd.getInt(next) & 0xffffffffL) != CFH_SIG) {
+                return Arrays.copyOf(positions, count);
+            }
+            position = next + ZipConstants.WORD;
+        }
+    }
+
     /**
      * Searches for either the &quot;Zip64 end of central directory locator&quot; or the &quot;End of central dir record&quot;, parses it and positions the
      * stream at the first central directory record.
      */
     private void positionAtCentralDirectory() throws IOException {
         final boolean is64 = positionAtEndOfCentralDirectoryRecord(archive);
+        centralDirectoryEndOffset = archive.position();
         if (!is64) {
             positionAtCentralDirectory32();
         } else {
@@ -1461,14 +2027,91 @@ private void positionAtCentralDirectory64() throws IOException {
     }
 
     /**
-     * Reads an individual entry of the central directory, creates an ZipArchiveEntry from it and adds it to the global maps.
+     * Reads the whole central directory, starting at the current position of the archive, into a single buffer.
+     * <p>
+     * The buffer also contains the signature of the record following the central directory so the parsing loop can detect the end of the central directory
+     * without touching the archive again.
+     * </p>
      *
-     * @param noUTF8Flag map used to collect entries that don't have their UTF-8 flag set and whose name will be set by data read from the local file header
-     *                   later. The current entry may be added to this map.
+     * @return The central directory or {@code null} if it can't be held in a single buffer and must be read record by record.
      */
-    private void readCentralDirectoryEntry(final Map<ZipArchiveEntry, NameAndComment> noUTF8Flag) throws IOException {
-        cfhBbuf.rewind();
-        IOUtils.readFully(archive, cfhBbuf);
+    private ByteBuffer readCentralDirectory() throws IOException {
+        final long start = centralDirectoryStartOffset;
+        final long length = Math.min(centralDirectoryEndOffset + ZipConstants.WORD, archive.size()) - start;
+        if (length <= 0 || length > Integer.MAX_VALUE) {
+            return null;
+        }
+        // not mapped, a mapping would only be released once the garbage collector reclaims it
+        final ByteBuffer centralDirectory = ByteBuffer.allocate((int) length);
+        IOUtils.readFully(archive, centralDirectory);
+        centralDirectory.flip();
+        return centralDirectory;
+    }
+
+    /**
+     * Fills the given buffer with the next bytes of the central directory.
+     *
+     * @param centralDirectory The central directory read in bulk or {@code null} to read from the archive.
+     * @param buf              The buffer to fill, must be backed by an array.
+     */
+    private void readCentralDirectoryFully(final ByteBuffer centralDirectory, final ByteBuffer buf) throws IOException {
+        buf.rewind();
+        if (centralDirectory == null) {
+            IOUtils.readFully(archive, buf);
+        } else {
+            if (centralDirectory.remaining() < buf.remaining()) {
+                throw new EOFException();
+            }
+            centralDirectory.get(buf.array(), buf.arrayOffset(), buf.remaining());
+        }
+    }
+
+    /**
+     * Reads the given number of bytes of the central directory.
+     *
+     * @param centralDirectory The central directory read in bulk or {@code null} to read from the archive.
+     * @param length           The number of bytes to read.
+     * @return The bytes read.
+     */
+    private byte[] readCentralDirectoryRange(final ByteBuffer centralDirectory, final int length) throws IOException {
+        final byte[] range;
+        if (centralDirectory == null) {
+            range = org.apache.commons.compress.utils.IOUtils.readRange(archive, length);
+        } else {
+            range = new byte[Math.min(length, centralDirectory.remaining())];
+            centralDirectory.get(range);
+        }
+        if (range.length < length) {
+            throw new EOFException();
+        }
+        return range;
+    }
+
+    /**
+     * Reads an individual entry of the central directory and creates an ZipArchiveEntry from it.
+     *
+     * @param centralDirectory The central directory read in bulk or {@code null} to read the entry from the archive.
+     * @param noUTF8Flag       map used to collect entries that don't have their UTF-8 flag set and whose name will be set by data read from the local file
+     *                         header later. The current entry may be added to this map.
+     * @return The entry.
+     */
+    private Entry readCentralDirectoryEntry(final ByteBuffer centralDirectory, final Map<ZipArchiveEntry, NameAndComment> noUTF8Flag) throws IOException {
+        return readCentralDirectoryEntry(centralDirectory, cfhBbuf, noUTF8Flag);
+    }
+
+    /**
+     * Reads an individual entry of the central directory, using the given buffer for the fixed part of the central file header so entries can be read from a
+     * bulk read central directory concurrently.
+     *
+     * @param centralDirectory The central directory read in bulk or {@code null} to read from the archive.
+     * @param header           The buffer for the fixed part of the central file header.
+     * @param noUTF8Flag       Receives entries without the language encoding flag with their raw names and comments.
+     * @return The entry.
+     */
+    private Entry readCentralDirectoryEntry(final ByteBuffer centralDirectory, final ByteBuffer header, final Map<ZipArchiveEntry, NameAndComment> noUTF8Flag)
+            throws IOException {
+        readCentralDirectoryFully(centralDirectory, header);
+        final byte[] cfhBuf = header.array();
         int off = 0;
         final Entry ze = new Entry();
 
@@ -1529,34 +2172,20 @@ private void readCentralDirectoryEntry(final Map<ZipArchiveEntry, NameAndComment
         ze.setExternalAttributes(ZipLong.getValue(cfhBuf, off));
         off += ZipConstants.WORD;
 
-        final byte[] fileName = org.apache.commons.compress.utils.IOUtils.readRange(archive, fileNameLen);
-        if (fileName.length < fileNameLen) {
-            throw new EOFException();
-        }
+        final byte[] fileName = readCentralDirectoryRange(centralDirectory, fileNameLen);
         ze.setName(entryEncoding.decode(fileName), fileName);
 
         // LFH offset,
         ze.setLocalHeaderOffset(ZipLong.getValue(cfhBuf, off) + firstLocalFileHeaderOffset);
         // data offset will be filled later
-        entries.add(ze);
 
-        final byte[] cdExtraData = org.apache.commons.compress.utils.IOUtils.readRange(archive, extraLen);
-        if (cdExtraData.length < extraLen) {
-            throw new EOFException();
-        }
-        try {
-            ze.setCentralDirectoryExtra(cdExtraData);
-        } catch (final RuntimeException e) {
-            throw ZipUtil.newZipException("Invalid extra data in entry " + ze.getName(), e);
-        }
+        // parsed on first access, or right away by setSizesAndOffsetFromZip64Extra if the entry needs its Zip64 extended information extra field
+        ze.deferExtra(readCentralDirectoryRange(centralDirectory, extraLen), null);
 
         setSizesAndOffsetFromZip64Extra(ze);
         sanityCheckLFHOffset(ze);
 
-        final byte[] comment = org.apache.commons.compress.utils.IOUtils.readRange(archive, commentLen);
-        if (comment.length < commentLen) {
-            throw new EOFException();
-        }
+        final byte[] comment = readCentralDirectoryRange(centralDirectory, commentLen);
         ze.setComment(entryEncoding.decode(comment));
 
         if (!hasUTF8Flag && useUnicodeExtraFields) {
@@ -1564,6 +2193,151 @@ private void readCentralDirectoryEntry(final Map<ZipArchiveEntry, NameAndComment
         }
 
         ze.setStreamContiguous(true);
+        return ze;
+    }
+
+    /**
+     * Parses a central directory read in bulk on the common fork-join pool, in ranges of {@link #CENTRAL_DIRECTORY_RANGE_SIZE} central file headers.
+     *
+     * @param centralDirectory The central directory, not modified.
+     * @param recordPositions  The positions of all central file headers right behind their signatures.
+     * @param noUTF8Flag       Receives entries without the language encoding flag with their raw names and comments.
+     * @return The entries in central directory order.
+     */
+    private Entry[] readCentralDirectoryInParallel(final ByteBuffer centralDirectory, final int[] recordPositions,
+            final Map<ZipArchiveEntry, NameAndComment> noUTF8Flag) throws IOException {
+        final Entry[] parsed = new Entry[recordPositions.length];
+        final List<ForkJoinTask<Map<ZipArchiveEntry, NameAndComment>>> tasks = new ArrayList<>();
+        for (int from = 0; from < recordPositions.length; from += CENTRAL_DIRECTORY_RANGE_SIZE) {
+            final int start = from;
+            final int end = Math.min(from + CENTRAL_DIRECTORY_RANGE_SIZE, recordPositions.length);
+            tasks.add(ForkJoinPool.commonPool().submit(() -> {
+                final ByteBuffer range = centralDirectory.duplicate();
+                final ByteBuffer header = ByteBuffer.allocate(CFH_LEN);
+                final Map<ZipArchiveEntry, NameAndComment> rangeNoUTF8Flag = new HashMap<>();
+                for (int i = start; i < end; i++) {
+                    range.position(recordPositions[i]);
+                    parsed[i] = readCentralDirectoryEntry(range, header, rangeNoUTF8Flag);
+                }
+                return rangeNoUTF8Flag;
+            }));
+        }
+        IOException failure = null;
+        for (final ForkJoinTask<Map<ZipArchiveEntry, NameAndComment>> task : tasks) {
+            try {
+                noUTF8Flag.putAll(task.get());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                tasks.forEach(t -> t.cancel(true));
+                throw new InterruptedIOException("Interrupted while parsing the central directory");
+            } catch (final ExecutionException e) {
+                // report the failure of the first range like a sequential parse would
+                if (failure == null) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        failure = (IOException) cause;
+                    } else if (cause instanceof RuntimeException) {
+                        tasks.forEach(t -> t.cancel(true));
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        tasks.forEach(t -> t.cancel(true));
+                        throw (Error) cause;
+                    } else {
+                        failure = new IOException(cause);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return parsed;
+    }
+
+    /**
+     * Re-creates the entry at the given index of the compact entry table from the central directory and the local file header.
+     *
+     * @param index The index of the entry in central directory order.
+     * @return A new entry.
+     * @throws IOException if the entry can't be read.
+     */
+    private Entry readEntry(final int index) throws IOException {
+        synchronized (archive) {
+            archive.position(entryTable.getCentralDirectoryOffset(index));
+            final Map<ZipArchiveEntry, NameAndComment> noUTF8Flag = new HashMap<>();
+            final Entry ze = readCentralDirectoryEntry(null, noUTF8Flag);
+            if (!ignoreLocalFileHeader) {
+                resolveLocalFileHeaderData(ze, noUTF8Flag.get(ze));
+            }
+            return ze;
+        }
+    }
+
+    private Entry readEntryUnchecked(final int index) {
+        try {
+            return readEntry(index);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the entry table and the central directory location from an index file written by {@link #writeIndex(Path, Path)}.
+     *
+     * @param indexPath The index file.
+     * @param path      The archive.
+     * @return Whether the index file exists, matches the archive and has been read, false if it is missing, stale or can't be read.
+     */
+    private boolean readIndex(final Path indexPath, final Path path) {
+        if (!Files.isRegularFile(indexPath)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION || in.readLong() != archive.size()
+                    || in.readLong() != Files.getLastModifiedTime(path).toMillis() || !encoding.name().equals(in.readUTF())
+                    || in.readBoolean() != useUnicodeExtraFields || in.readBoolean() != ignoreLocalFileHeader) {
+                return false;
+            }
+            final long endOffset = in.readLong();
+            final int tailLength = in.readInt();
+            if (endOffset < 0 || tailLength < 0 || tailLength > ZIP64_EOCDL_LENGTH + MAX_EOCD_SIZE || endOffset + tailLength != archive.size()) {
+                return false;
+            }
+            final byte[] tail = new byte[tailLength];
+            in.readFully(tail);
+            if (!Arrays.equals(tail, readTail(endOffset))) {
+                return false;
+            }
+            final long firstLocalFileHeaderOffset = in.readLong();
+            final long centralDirectoryStartOffset = in.readLong();
+            final long centralDirectoryStartDiskNumber = in.readLong();
+            final long centralDirectoryStartRelativeOffset = in.readLong();
+            final int count = in.readInt();
+            if (count < 0 || (long) count * CompactEntryTable.BYTES_PER_ENTRY > Files.size(indexPath)) {
+                return false;
+            }
+            entryTable.readFrom(in, count);
+            this.centralDirectoryEndOffset = endOffset;
+            this.firstLocalFileHeaderOffset = firstLocalFileHeaderOffset;
+            this.centralDirectoryStartOffset = centralDirectoryStartOffset;
+            this.centralDirectoryStartDiskNumber = centralDirectoryStartDiskNumber;
+            this.centralDirectoryStartRelativeOffset = centralDirectoryStartRelativeOffset;
+            return true;
+        } catch (final IOException | RuntimeException e) {
+            // truncated, corrupt or foreign index, the central directory is read instead
+            entryTable.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Reads the bytes from the given offset to the end of the archive.
+     */
+    private byte[] readTail(final long offset) throws IOException {
+        final ByteBuffer tail = ByteBuffer.allocate((int) (archive.size() - offset));
+        archive.position(offset);
+        IOUtils.readFully(archive, tail);
+        return tail.array();
     }
 
     /**
@@ -1575,24 +2349,117 @@ private void readCentralDirectoryEntry(final Map<ZipArchiveEntry, NameAndComment
     private void resolveLocalFileHeaderData(final Map<ZipArchiveEntry, NameAndComment> entriesWithoutUTF8Flag) throws IOException {
         for (final ZipArchiveEntry zipArchiveEntry : entries) {
             // entries are filled in populateFromCentralDirectory and never modified
-            final Entry ze = (Entry) zipArchiveEntry;
-            final int[] lens = setDataOffset(ze);
-            final int fileNameLen = lens[0];
-            final int extraFieldLen = lens[1];
-            skipBytes(fileNameLen);
-            final byte[] localExtraData = org.apache.commons.compress.utils.IOUtils.readRange(archive, extraFieldLen);
-            if (localExtraData.length < extraFieldLen) {
-                throw new EOFException();
+            resolveLocalFileHeaderData((Entry) zipArchiveEntry, entriesWithoutUTF8Flag.get(zipArchiveEntry));
+        }
+    }
+
+    /**
+     * Adds the data available from the local file header to an entry and records the offset for the data to read from the entry.
+     *
+     * @param ze The entry.
+     * @param nc The raw name and comment if the entry didn't have the language encoding flag set, or {@code null}.
+     */
+    private void resolveLocalFileHeaderData(final Entry ze, final NameAndComment nc) throws IOException {
+        final int[] lens = setDataOffset(ze);
+        final int fileNameLen = lens[0];
+        final int extraFieldLen = lens[1];
+        skipBytes(fileNameLen);
+        final byte[] localExtraData = org.apache.commons.compress.utils.IOUtils.readRange(archive, extraFieldLen);
+        if (localExtraData.length < extraFieldLen) {
+            throw new EOFException();
+        }
+        setLocalFileHeaderData(ze, nc, localExtraData);
+    }
+
+    /**
+     * Like {@link #resolveLocalFileHeaderData(Map)} but visits the local file headers in the order they appear within the archive, reading runs of
+     * consecutive headers with a single read.
+     * <p>
+     * Each read starts at the next local file header not yet read and extends to the last following header expected to fit into {@link #LFH_BATCH_SIZE}
+     * bytes, assuming local and central file header hold names and extra fields of the same lengths. A header that turns out not to fit starts a new read.
+     * </p>
+     *
+     * @param entriesWithoutUTF8Flag maps entries without the language encoding flag to their raw names and comments.
+     */
+    private void resolveLocalFileHeaderDataInBatches(final Map<ZipArchiveEntry, NameAndComment> entriesWithoutUTF8Flag) throws IOException {
+        final Entry[] sorted = entries.toArray(new Entry[0]);
+        Arrays.sort(sorted, offsetComparator);
+        final ByteBuffer batch = ByteBuffer.allocate(LFH_BATCH_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        batch.limit(0);
+        final int fixedLength = (int) LFH_OFFSET_FOR_FILENAME_LENGTH + ZipConstants.WORD;
+        long batchStart = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            final Entry ze = sorted[i];
+            final long offset = ze.getLocalHeaderOffset();
+            if (offset < batchStart || offset + fixedLength > batchStart + batch.limit()) {
+                batchStart = offset;
+                readLocalFileHeaderBatch(sorted, i, batch, fixedLength);
+            }
+            int position = (int) (offset - batchStart);
+            final int fileNameLen = batch.getShort(position + (int) LFH_OFFSET_FOR_FILENAME_LENGTH) & 0xffff;
+            final int extraFieldLen = batch.getShort(position + (int) LFH_OFFSET_FOR_FILENAME_LENGTH + ZipConstants.SHORT) & 0xffff;
+            final int headerLength = fixedLength + fileNameLen + extraFieldLen;
+            if (offset + headerLength > batchStart + batch.limit()) {
+                batchStart = offset;
+                readLocalFileHeaderBatch(sorted, i, batch, headerLength);
+                position = 0;
+            }
+            setDataOffset(ze, offset, fileNameLen, extraFieldLen);
+            final byte[] localExtraData = new byte[extraFieldLen];
+            batch.position(position + fixedLength + fileNameLen);
+            batch.get(localExtraData);
+            setLocalFileHeaderData(ze, entriesWithoutUTF8Flag.get(ze), localExtraData);
+        }
+    }
+
+    /**
+     * Fills the batch buffer starting at the local file header of {@code sorted[first]}.
+     *
+     * @param sorted    The entries sorted by local file header offset.
+     * @param first     The index of the first entry to read.
+     * @param batch     The buffer to fill, its limit is set to the number of bytes read.
+     * @param minLength The minimum number of bytes to read.
+     */
+    private void readLocalFileHeaderBatch(final Entry[] sorted, final int first, final ByteBuffer batch, final int minLength) throws IOException {
+        final long start = sorted[first].getLocalHeaderOffset();
+        long end = start + minLength;
+        for (int i = first; i < sorted.length; i++) {
+            final long expectedEnd = sorted[i].getLocalHeaderOffset() + LFH_OFFSET_FOR_FILENAME_LENGTH + ZipConstants.WORD + sorted[i].getRawName().length
+                    + sorted[i].getCentralDirectoryExtraLength();
+            if (expectedEnd - start > batch.capacity()) {
+                break;
             }
+            end = Math.max(end, expectedEnd);
+        }
+        end = Math.min(end, archive.size());
+        if (end - start < minLength) {
+            throw new EOFException();
+        }
+        batch.clear();
+        batch.limit((int) (end - start));
+        archive.position(start);
+        IOUtils.readFully(archive, batch);
+        batch.flip();
+    }
+
+    /**
+     * Adds the extra fields of the local file header to an entry and applies the Unicode extra fields if requested.
+     * <p>
+     * The extra fields are parsed on first access, unless the Unicode extra fields are needed.
+     * </p>
+     *
+     * @param ze             The entry.
+     * @param nc             The raw name and comment if the entry didn't have the language encoding flag set, or {@code null}.
+     * @param localExtraData The extra field data of the local file header.
+     */
+    private void setLocalFileHeaderData(final Entry ze, final NameAndComment nc, final byte[] localExtraData) throws IOException {
+        ze.deferExtra(null, localExtraData);
+        if (nc != null) {
             try {
-                ze.setExtra(localExtraData);
+                ZipUtil.setNameAndCommentFromExtraFields(ze, nc.name, nc.comment);
             } catch (final RuntimeException e) {
                 throw ZipUtil.newZipException("Invalid extra data in entry " + ze.getName(), e);
             }
-            if (entriesWithoutUTF8Flag.containsKey(ze)) {
-                final NameAndComment nc = entriesWithoutUTF8Flag.get(ze);
-                ZipUtil.setNameAndCommentFromExtraFields(ze, nc.name, nc.comment);
-            }
         }
     }
 
@@ -1627,11 +2494,16 @@ private int[] setDataOffset(final ZipArchiveEntry entry) throws IOException {
         final int fileNameLen = ZipShort.getValue(shortBuf);
         wordBbuf.get(shortBuf);
         final int extraFieldLen = ZipShort.getValue(shortBuf);
-        entry.setDataOffset(offset + LFH_OFFSET_FOR_FILENAME_LENGTH + ZipConstants.SHORT + ZipConstants.SHORT + fileNameLen + extraFieldLen);
+        setDataOffset(entry, offset, fileNameLen, extraFieldLen);
+        return new int[] { fileNameLen, extraFieldLen };
+    }
+
+    private void setDataOffset(final ZipArchiveEntry entry, final long localHeaderOffset, final int fileNameLen, final int extraFieldLen)
+            throws ArchiveException {
+        entry.setDataOffset(localHeaderOffset + LFH_OFFSET_FOR_FILENAME_LENGTH + ZipConstants.SHORT + ZipConstants.SHORT + fileNameLen + extraFieldLen);
         if (entry.getDataOffset() + entry.getCompressedSize() > centralDirectoryStartOffset) {
             throw new ArchiveException("Data for '%s' overlaps with central directory.", entry.getName());
         }
-        return new int[] { fileNameLen, extraFieldLen };
     }
 
     /**
@@ -1643,16 +2515,25 @@ private int[] setDataOffset(final ZipArchiveEntry entry) throws IOException {
      * </p>
      */
     private void setSizesAndOffsetFromZip64Extra(final ZipArchiveEntry entry) throws IOException {
-        final ZipExtraField extra = entry.getExtraField(Zip64ExtendedInformationExtraField.HEADER_ID);
+        final boolean hasUncompressedSize = entry.getSize() == ZipConstants.ZIP64_MAGIC;
+        final boolean hasCompressedSize = entry.getCompressedSize() == ZipConstants.ZIP64_MAGIC;
+        final boolean hasRelativeHeaderOffset = entry.getLocalHeaderOffset() == ZipConstants.ZIP64_MAGIC;
+        final boolean hasDiskStart = entry.getDiskNumberStart() == ZipConstants.ZIP64_MAGIC_SHORT;
+        if (!hasUncompressedSize && !hasCompressedSize && !hasRelativeHeaderOffset && !hasDiskStart) {
+            // nothing to take from the extra field, leave it unparsed
+            return;
+        }
+        final ZipExtraField extra;
+        try {
+            extra = entry.getExtraField(Zip64ExtendedInformationExtraField.HEADER_ID);
+        } catch (final RuntimeException e) {
+            throw ZipUtil.newZipException("Invalid extra data in entry " + entry.getName(), e);
+        }
         if (extra != null && !(extra instanceof Zip64ExtendedInformationExtraField)) {
             throw new ZipException("Archive contains unparseable zip64 extra field");
         }
         final Zip64ExtendedInformationExtraField z64 = (Zip64ExtendedInformationExtraField) extra;
         if (z64 != null) {
-            final boolean hasUncompressedSize = entry.getSize() == ZipConstants.ZIP64_MAGIC;
-            final boolean hasCompressedSize = entry.getCompressedSize() == ZipConstants.ZIP64_MAGIC;
-            final boolean hasRelativeHeaderOffset = entry.getLocalHeaderOffset() == ZipConstants.ZIP64_MAGIC;
-            final boolean hasDiskStart = entry.getDiskNumberStart() == ZipConstants.ZIP64_MAGIC_SHORT;
             z64.reparseCentralDirectoryData(hasUncompressedSize, hasCompressedSize, hasRelativeHeaderOffset, hasDiskStart);
             if (hasUncompressedSize) {
                 entry.setSize(ArchiveException.requireNonNegative(z64.getSize().getLongValue(), "Broken archive, entry with negative size"));
@@ -1707,6 +2588,54 @@ private boolean startsWithLocalFileHeader() throws IOException {
         return Arrays.equals(wordBuf, ZipArchiveOutputStream.LFH_SIG);
     }
 
+    /**
+     * Writes the entry table and the central directory location to an index file.
+     * <p>
+     * The index file is written to a temporary file first, which then replaces the index file. The index is only a cache, so failures are ignored and
+     * leave no partial file behind.
+     * </p>
+     *
+     * @param indexPath The index file.
+     * @param path      The archive.
+     */
+    private void writeIndex(final Path indexPath, final Path path) {
+        Path tempPath = null;
+        try {
+            final byte[] tail = readTail(centralDirectoryEndOffset);
+            final Path absoluteIndexPath = indexPath.toAbsolutePath();
+            tempPath = Files.createTempFile(absoluteIndexPath.getParent(), Objects.toString(absoluteIndexPath.getFileName(), null), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(INDEX_VERSION);
+                out.writeLong(archive.size());
+                out.writeLong(Files.getLastModifiedTime(path).toMillis());
+                out.writeUTF(encoding.name());
+                out.writeBoolean(useUnicodeExtraFields);
+                out.writeBoolean(ignoreLocalFileHeader);
+                out.writeLong(centralDirectoryEndOffset);
+                out.writeInt(tail.length);
+                out.write(tail);
+                out.writeLong(firstLocalFileHeaderOffset);
+                out.writeLong(centralDirectoryStartOffset);
+                out.writeLong(centralDirectoryStartDiskNumber);
+                out.writeLong(centralDirectoryStartRelativeOffset);
+                out.writeInt(entryTable.size());
+                entryTable.writeTo(out);
+            }
+            Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException | RuntimeException e) {
+            // the archive is used without an index, e.g. if the index directory is read-only
+        } finally {
+            if (tempPath != null) {
+                try {
+                    Files.deleteIfExists(tempPath);
+                } catch (final IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
     /**
      * Returns an ordered {@code Stream} over the ZIP file entries.
      * <p>
@@ -1719,7 +2648,116 @@ private boolean startsWithLocalFileHeader() throws IOException {
      */
     @Override
     public IOStream<? extends ZipArchiveEntry> stream() {
-        return IOStream.adapt(entries.stream());
+        return IOStream.adapt(streamEntries());
+    }
+
+    /**
+     * Streams the entries in central directory order, re-creating them if they are kept in {@link #entryTable}.
+     */
+    private Stream<ZipArchiveEntry> streamEntries() {
+        if (entryTable != null) {
+            return IntStream.range(0, entryTable.size()).mapToObj(this::readEntryUnchecked);
+        }
+        return entries.stream();
     }
 
+    /**
+     * Transfers a range of the archive to a channel.
+     * <p>
+     * Uses {@link FileChannel#transferTo(long, long, WritableByteChannel)} if the archive is a {@link FileChannel} and copies through a buffer
+     * otherwise.
+     * </p>
+     */
+    private long transfer(final long start, final long length, final WritableByteChannel target) throws IOException {
+        if (start < 0 || length < 0 || ArchiveException.addExact(start, length) < start) {
+            throw new ArchiveException("Corrupted archive, stream boundaries are out of range");
+        }
+        if (archive instanceof FileChannel) {
+            ZipIoUtil.transferAll((FileChannel) archive, start, length, target);
+            return length;
+        }
+        long position = start;
+        long remaining = length;
+        final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(remaining, IOUtils.DEFAULT_BUFFER_SIZE));
+        while (remaining > 0) {
+            buffer.clear();
+            if (buffer.remaining() > remaining) {
+                buffer.limit((int) remaining);
+            }
+            final int read;
+            synchronized (archive) {
+                archive.position(position);
+                read = archive.read(buffer);
+            }
+            if (read < 0) {
+                throw new EOFException("Truncated ZIP entry");
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            position += read;
+            remaining -= read;
+        }
+        return length;
+    }
+
+    /**
+     * Transfers the raw data of an archive entry (compressed form) to a channel.
+     * <p>
+     * This is the data {@link #getRawInputStream(ZipArchiveEntry)} provides, without copying it through a stream. If the archive is backed by a
+     * {@link FileChannel}, the data is transferred using {@link FileChannel#transferTo(long, long, WritableByteChannel)} which may avoid copying it to the Java
+     * heap altogether.
+     * </p>
+     * <p>
+     * The target channel is not closed.
+     * </p>
+     *
+     * @param entry  The entry to transfer.
+     * @param target The channel to write to.
+     * @return The number of bytes transferred.
+     * @throws IllegalArgumentException if the entry has not been obtained from a {@link ZipFile}.
+     * @throws IOException              if the data offset of the entry can't be read or an I/O error occurs.
+     * @since 1.29.0
+     */
+    public long transferRawTo(final ZipArchiveEntry entry, final WritableByteChannel target) throws IOException {
+        if (!(entry instanceof Entry)) {
+            throw new IllegalArgumentException("Entry has not been obtained from a ZipFile: " + entry.getName());
+        }
+        final long start = getDataOffset(entry);
+        if (start == EntryStreamOffsets.OFFSET_UNKNOWN) {
+            throw new ArchiveException("Unknown data offset of entry %s", entry.getName());
+        }
+        return transfer(start, entry.getCompressedSize(), target);
+    }
+
+    /**
+     * Transfers the contents of an archive entry to a channel.
+     * <p>
+     * The contents of STORED entries are transferred like {@link #transferRawTo(ZipArchiveEntry, WritableByteChannel)} does, entries using any other method
+     * are decompressed through {@link #getInputStream(ZipArchiveEntry)}.
+     * </p>
+     * <p>
+     * The target channel is not closed.
+     * </p>
+     *
+     * @param entry  The entry to transfer.
+     * @param target The channel to write to.
+     * @return The number of bytes transferred.
+     * @throws IllegalArgumentException if the entry has not been obtained from a {@link ZipFile}.
+     * @throws IOException              if the entry's data can't be read or an I/O error occurs.
+     * @since 1.29.0
+     */
+    public long transferTo(final ZipArchiveEntry entry, final WritableByteChannel target) throws IOException {
+        if (!(entry instanceof Entry)) {
+            throw new IllegalArgumentException("Entry has not been obtained from a ZipFile: " + entry.getName());
+        }
+        ZipUtil.checkRequestedFeatures(entry);
+        if (entry.getMethod() == ZipMethod.STORED.getCode()) {
+            return transferRawTo(entry, target);
+        }
+        try (InputStream in = getInputStream(entry)) {
+            return IOUtils.copyLarge(in, Channels.newOutputStream(target));
+        }
+    }
 }
@@ -19,6 +19,7 @@
 
 package org.apache.commons.compress.archivers.zip;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
@@ -32,6 +33,31 @@
 // Keep package-private; consider for Apache Commons IO.
 final class ZipIoUtil {
 
+    /**
+     * Transfers a range of a file to a channel, using {@link FileChannel#transferTo(long, long, WritableByteChannel)} which can avoid copying the bytes
+     * through user space.
+     *
+     * @param source   The source file.
+     * @param position The position of the range within the file.
+     * @param count    The number of bytes to transfer.
+     * @param target   The target channel, written at its current position.
+     * @throws IOException If some I/O error occurs or the file ends before {@code count} bytes have been transferred.
+     */
+    static void transferAll(final FileChannel source, final long position, final long count, final WritableByteChannel target) throws IOException {
+        for (long done = 0; done < count;) {
+            final long transferred = source.transferTo(position + done, count - done, target);
+            if (transferred == 0) {
+                if (position + done >= source.size()) {
+                    throw new EOFException("Truncated source, expected " + count + " bytes at offset " + position);
+                }
+                // A non-blocking channel
+                Thread.yield();
+                continue;
+            }
+            done += transferred;
+        }
+    }
+
     /**
      * Writes all bytes in a buffer to a channel at specified position.
      *
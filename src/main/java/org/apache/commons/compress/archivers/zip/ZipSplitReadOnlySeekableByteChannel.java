@@ -46,6 +46,10 @@
  * <p>
  * If you want to read a split archive using {@link ZipFile} then create an instance of this class from the parts of the archive.
  * </p>
+ * <p>
+ * Segments given as paths are opened when they are read first, with a bound on the number of segments kept open at a time, so archives of thousands of
+ * segments don't exhaust file descriptors.
+ * </p>
  *
  * @since 1.20
  */
@@ -195,14 +199,28 @@ public static SeekableByteChannel forOrderedSeekableByteChannels(final SeekableB
      * @since 1.22
      */
     public static SeekableByteChannel forPaths(final List<Path> paths, final OpenOption[] openOptions) throws IOException {
-        final List<SeekableByteChannel> channels = new ArrayList<>();
-        for (final Path path : Objects.requireNonNull(paths, "paths")) {
-            channels.add(Files.newByteChannel(path, openOptions));
-        }
-        if (channels.size() == 1) {
-            return channels.get(0);
+        return forPaths(paths, openOptions, DEFAULT_MAX_OPEN_CHANNELS);
+    }
+
+    /**
+     * Concatenates the given file paths, opening them when they are read first.
+     *
+     * @param paths           The file paths to concatenate, note that the LAST FILE of files should be the LAST SEGMENT(.zip) and these files should be added
+     *                        in correct order (for example: .z01, .z02... .z99, .zip)
+     * @param openOptions     The options to open paths (shared by all paths).
+     * @param maxOpenChannels The maximum number of segments kept open at a time.
+     * @return SeekableByteChannel that concatenates all provided files.
+     * @throws NullPointerException     if files is null.
+     * @throws IllegalArgumentException if maxOpenChannels is less than 1.
+     * @throws IOException              if opening a channel for one of the files fails.
+     * @throws IOException              if the first channel doesn't seem to hold the beginning of a split archive.
+     * @since 1.29.0
+     */
+    public static SeekableByteChannel forPaths(final List<Path> paths, final OpenOption[] openOptions, final int maxOpenChannels) throws IOException {
+        if (Objects.requireNonNull(paths, "paths").size() == 1) {
+            return Files.newByteChannel(paths.get(0), openOptions);
         }
-        return new ZipSplitReadOnlySeekableByteChannel(channels);
+        return new ZipSplitReadOnlySeekableByteChannel(paths.toArray(EMPTY_PATH_ARRAY), openOptions, maxOpenChannels);
     }
 
     /**
@@ -257,7 +275,14 @@ public static SeekableByteChannel forPaths(final Path lastSegmentPath, final Ite
     public ZipSplitReadOnlySeekableByteChannel(final List<SeekableByteChannel> channels) throws IOException {
         super(channels);
         // the first split ZIP segment should begin with ZIP split signature
-        assertSplitSignature(channels);
+        assertSplitSignature(channels.get(0));
+    }
+
+    private ZipSplitReadOnlySeekableByteChannel(final Path[] paths, final OpenOption[] openOptions, final int maxOpenChannels) throws IOException {
+        super(paths, openOptions, maxOpenChannels);
+        try (SeekableByteChannel first = Files.newByteChannel(paths[0], openOptions)) {
+            assertSplitSignature(first);
+        }
     }
 
     /**
@@ -272,11 +297,10 @@ public ZipSplitReadOnlySeekableByteChannel(final List<SeekableByteChannel> chann
      * The first 4 bytes of the first ZIP split segment should be the ZIP split signature(0x08074B50)
      * </p>
      *
-     * @param channels channels to be validated.
+     * @param channel The channel of the first segment to be validated.
      * @throws IOException if an I/O error occurs.
      */
-    private void assertSplitSignature(final List<SeekableByteChannel> channels) throws IOException {
-        final SeekableByteChannel channel = channels.get(0);
+    private void assertSplitSignature(final SeekableByteChannel channel) throws IOException {
         // the ZIP split file signature is at the beginning of the first split segment
         channel.position(0L);
         zipSplitSignatureByteBuffer.rewind();
@@ -154,6 +154,50 @@ static void copy(final byte[] from, final byte[] to, final int offset) {
         }
     }
 
+    /**
+     * Computes the CRC-32 of the concatenation of two byte sequences from their CRC-32s, like zlib's {@code crc32_combine}.
+     *
+     * @param crc1    The CRC-32 of the first sequence.
+     * @param crc2    The CRC-32 of the second sequence.
+     * @param length2 The length of the second sequence.
+     * @return The CRC-32 of the concatenation.
+     */
+    static long crc32Combine(final long crc1, final long crc2, final long length2) {
+        if (length2 <= 0) {
+            return crc1;
+        }
+        // operator for a single zero bit, then squared to the operators for two and four zero bits
+        final int[] even = new int[32];
+        final int[] odd = new int[32];
+        odd[0] = 0xedb88320; // CRC-32 polynomial
+        int row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+        // apply length2 zero bytes to crc1, the first square puts the operator for one zero byte in even
+        int crc = (int) crc1;
+        long length = length2;
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((length & 1) != 0) {
+                crc = gf2MatrixTimes(even, crc);
+            }
+            length >>>= 1;
+            if (length == 0) {
+                break;
+            }
+            gf2MatrixSquare(odd, even);
+            if ((length & 1) != 0) {
+                crc = gf2MatrixTimes(odd, crc);
+            }
+            length >>>= 1;
+        } while (length != 0);
+        return (crc ^ (int) crc2) & 0xffffffffL;
+    }
+
     private static Date dosToJavaDate(final long dosTime) {
         final Calendar cal = Calendar.getInstance();
         // CheckStyle:MagicNumberCheck OFF - no point
@@ -189,6 +233,23 @@ public static Date fromDosTime(final ZipLong zipDosTime) {
         return dosToJavaDate(dosTime);
     }
 
+    private static void gf2MatrixSquare(final int[] square, final int[] matrix) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(matrix, matrix[n]);
+        }
+    }
+
+    private static int gf2MatrixTimes(final int[] matrix, final int vector) {
+        int sum = 0;
+        int v = vector;
+        for (int i = 0; v != 0; i++, v >>>= 1) {
+            if ((v & 1) != 0) {
+                sum ^= matrix[i];
+            }
+        }
+        return sum;
+    }
+
     /**
      * If the stored CRC matches the one of the given name, return the Unicode name of the given field.
      *
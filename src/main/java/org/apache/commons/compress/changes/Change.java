@@ -22,6 +22,7 @@
 import java.util.Objects;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.parallel.InputStreamSupplier;
 
 /**
  * Change holds meta information about a change.
@@ -66,6 +67,9 @@ enum ChangeType {
     /** Source for new entry. */
     private final InputStream inputStream;
 
+    /** Lazy source for new entry, used if {@link #inputStream} is null. */
+    private final InputStreamSupplier inputStreamSupplier;
+
     /** Change should replaceMode existing entries. */
     private final boolean replaceMode;
 
@@ -79,8 +83,20 @@ enum ChangeType {
      * @param inputStream  The InputStream for the entry data.
      */
     Change(final E archiveEntry, final InputStream inputStream, final boolean replace) {
+        this(archiveEntry, Objects.requireNonNull(inputStream, "inputStream"), null, replace);
+    }
+
+    /**
+     * Constructs a change which adds an entry, taking its data from the InputStream or, if that is null, from a stream opened once the change is performed.
+     *
+     * @param archiveEntry        The entry details.
+     * @param inputStream         The InputStream for the entry data or null.
+     * @param inputStreamSupplier The supplier of the InputStream for the entry data, used if {@code inputStream} is null.
+     */
+    Change(final E archiveEntry, final InputStream inputStream, final InputStreamSupplier inputStreamSupplier, final boolean replace) {
         this.entry = Objects.requireNonNull(archiveEntry, "archiveEntry");
-        this.inputStream = Objects.requireNonNull(inputStream, "inputStream");
+        this.inputStream = inputStream;
+        this.inputStreamSupplier = inputStream != null ? null : Objects.requireNonNull(inputStreamSupplier, "inputStreamSupplier");
         this.type = ChangeType.ADD;
         this.targetFileName = null;
         this.replaceMode = replace;
@@ -95,6 +111,7 @@ enum ChangeType {
         this.targetFileName = Objects.requireNonNull(fileName, "fileName");
         this.type = type;
         this.inputStream = null;
+        this.inputStreamSupplier = null;
         this.entry = null;
         this.replaceMode = true;
     }
@@ -107,6 +124,10 @@ InputStream getInputStream() {
         return inputStream;
     }
 
+    InputStreamSupplier getInputStreamSupplier() {
+        return inputStreamSupplier;
+    }
+
     String getTargetFileName() {
         return targetFileName;
     }
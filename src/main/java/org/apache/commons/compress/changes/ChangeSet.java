@@ -18,14 +18,32 @@
  */
 package org.apache.commons.compress.changes;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.ZipEntry;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.X000A_NTFS;
+import org.apache.commons.compress.archivers.zip.X5455_ExtendedTimestamp;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipExtraField;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.changes.Change.ChangeType;
+import org.apache.commons.compress.parallel.InputStreamSupplier;
+import org.apache.commons.io.IOUtils;
 
 /**
  * ChangeSet collects and performs changes to an archive. Putting delete changes in this ChangeSet from multiple threads can cause conflicts.
@@ -35,6 +53,101 @@
  */
 public final class ChangeSet<E extends ArchiveEntry> {
 
+    /** Precision of the last modified time of ZIP entries without extra time fields. */
+    private static final long DOS_TIME_PRECISION_MILLIS = 2000;
+
+    /** Precision of the last modified time of ZIP entries with an {@link X5455_ExtendedTimestamp} field. */
+    private static final long UNIX_TIME_PRECISION_MILLIS = 1000;
+
+    /**
+     * Gets the precision of the last modified time of an entry, which depends on the fields it has been read from.
+     */
+    private static long getTimePrecisionMillis(final ZipArchiveEntry entry) {
+        final ZipExtraField ntfs = entry.getExtraField(X000A_NTFS.HEADER_ID);
+        if (ntfs instanceof X000A_NTFS && ((X000A_NTFS) ntfs).getModifyFileTime() != null) {
+            // 100 nanoseconds, compare whole milliseconds
+            return 1;
+        }
+        final ZipExtraField extendedTimestamp = entry.getExtraField(X5455_ExtendedTimestamp.HEADER_ID);
+        if (extendedTimestamp instanceof X5455_ExtendedTimestamp && ((X5455_ExtendedTimestamp) extendedTimestamp).isBit0_modifyTimePresent()) {
+            return UNIX_TIME_PRECISION_MILLIS;
+        }
+        return DOS_TIME_PRECISION_MILLIS;
+    }
+
+    /**
+     * Tests whether a file still matches its entry, by size and last modified time or by size and CRC if the times differ.
+     */
+    private static boolean isUnchanged(final ZipArchiveEntry entry, final Path file) throws IOException {
+        if (entry.isDirectory() || entry.getSize() != Files.size(file)) {
+            return false;
+        }
+        if (Math.abs(entry.getTime() - Files.getLastModifiedTime(file).toMillis()) < getTimePrecisionMillis(entry)) {
+            return true;
+        }
+        try (CheckedInputStream in = new CheckedInputStream(Files.newInputStream(file), new CRC32())) {
+            IOUtils.consume(in);
+            return in.getChecksum().getValue() == entry.getCrc();
+        }
+    }
+
+    /**
+     * Creates the changes that bring a ZIP archive in sync with the regular files of a directory tree.
+     * <p>
+     * A file is unchanged if the archive holds an entry of the same name and size whose last modified time matches the one of the file, within the precision
+     * the entry stores it with, two seconds for DOS time, one second for extended timestamps or a millisecond for NTFS times, or whose CRC matches the CRC of
+     * the file otherwise. Unchanged files get no change, so
+     * {@link ChangeSetPerformer#perform(ZipFile, ArchiveOutputStream)} copies their entries without recompressing them. New and modified files are added in
+     * replace mode as {@link ZipEntry#DEFLATED DEFLATED} entries whose data is only read when the change is performed. Entries without a file are deleted,
+     * directory entries are kept as long as the directory exists.
+     * </p>
+     *
+     * @param zipFile   The archive to update.
+     * @param directory The root of the directory tree, entry names are the paths of the files relative to it.
+     * @return The changes.
+     * @throws IOException if the directory tree can't be walked or a file can't be read.
+     * @since 1.29.0
+     */
+    public static ChangeSet<ZipArchiveEntry> sync(final ZipFile zipFile, final Path directory) throws IOException {
+        final ChangeSet<ZipArchiveEntry> changeSet = new ChangeSet<>();
+        final Set<String> names = new HashSet<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (final Path path : (Iterable<Path>) paths.sorted()::iterator) {
+                if (path.equals(directory)) {
+                    continue;
+                }
+                final String name = directory.relativize(path).toString().replace(File.separatorChar, '/');
+                if (Files.isDirectory(path)) {
+                    names.add(name + "/");
+                    continue;
+                }
+                if (!Files.isRegularFile(path)) {
+                    // FIFOs, devices and broken links can't be archived
+                    continue;
+                }
+                names.add(name);
+                final ZipArchiveEntry existing = zipFile.getEntry(name);
+                if (existing == null || !isUnchanged(existing, path)) {
+                    final ZipArchiveEntry entry = new ZipArchiveEntry(path, name);
+                    entry.setMethod(ZipEntry.DEFLATED);
+                    changeSet.add(entry, () -> {
+                        try {
+                            return Files.newInputStream(path);
+                        } catch (final IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, true);
+                }
+            }
+        }
+        for (final ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+            if (!names.contains(entry.getName())) {
+                changeSet.delete(entry.getName());
+            }
+        }
+        return changeSet;
+    }
+
     private final Set<Change<E>> changes = new LinkedHashSet<>();
 
     /**
@@ -66,6 +179,19 @@ public void add(final E entry, final InputStream input, final boolean replace) {
         addAddition(new Change<>(entry, input, replace));
     }
 
+    /**
+     * Adds a new archive entry to the archive whose data is only opened once the change is performed, and closed afterwards. If replace is set to true, this
+     * change will replace all other additions done in this ChangeSet and all existing entries in the original stream.
+     *
+     * @param entry   The entry to add.
+     * @param input   The supplier of the data stream to add.
+     * @param replace indicates this change should replace existing entries.
+     * @since 1.29.0
+     */
+    public void add(final E entry, final InputStreamSupplier input, final boolean replace) {
+        addAddition(new Change<>(entry, null, input, replace));
+    }
+
     /**
      * Adds an addition change.
      *
@@ -73,7 +199,7 @@ public void add(final E entry, final InputStream input, final boolean replace) {
      */
     @SuppressWarnings("resource") // InputStream is NOT allocated
     private void addAddition(final Change<E> addChange) {
-        if (Change.ChangeType.ADD != addChange.getType() || addChange.getInputStream() == null) {
+        if (Change.ChangeType.ADD != addChange.getType() || addChange.getInputStream() == null && addChange.getInputStreamSupplier() == null) {
             return;
         }
 
@@ -107,7 +233,6 @@ private void addDeletion(final Change<E> deleteChange) {
             return;
         }
         final String source = deleteChange.getTargetFileName();
-        final Pattern pattern = Pattern.compile(source + "/.*");
         if (source != null && !changes.isEmpty()) {
             for (final Iterator<Change<E>> it = changes.iterator(); it.hasNext();) {
                 final Change<E> change = it.next();
@@ -117,7 +242,7 @@ private void addDeletion(final Change<E> deleteChange) {
                         continue;
                     }
                     if (ChangeType.DELETE == deleteChange.getType() && source.equals(target)
-                            || ChangeType.DELETE_DIR == deleteChange.getType() && pattern.matcher(target).matches()) {
+                            || ChangeType.DELETE_DIR == deleteChange.getType() && target.startsWith(source + "/")) {
                         it.remove();
                     }
                 }
@@ -20,17 +20,24 @@
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.changes.Change.ChangeType;
+import org.apache.commons.compress.parallel.InputStreamSupplier;
 import org.apache.commons.io.IOUtils;
 
 /**
@@ -55,6 +62,13 @@
      */
     private interface ArchiveEntryIterator<E extends ArchiveEntry> {
 
+        /**
+         * Copies the current entry to the output stream without decompressing it, if the formats allow that.
+         *
+         * @return whether the entry has been copied.
+         */
+        boolean copyRaw(ArchiveOutputStream<?> outputStream) throws IOException;
+
         InputStream getInputStream() throws IOException;
 
         boolean hasNext() throws IOException;
@@ -71,6 +85,11 @@
             this.inputStream = inputStream;
         }
 
+        @Override
+        public boolean copyRaw(final ArchiveOutputStream<?> outputStream) {
+            return false;
+        }
+
         @Override
         public InputStream getInputStream() {
             return inputStream;
@@ -98,6 +117,15 @@ private static final class ZipFileIterator implements ArchiveEntryIterator<ZipAr
             this.nestedEnumeration = zipFile.getEntriesInPhysicalOrder();
         }
 
+        @Override
+        public boolean copyRaw(final ArchiveOutputStream<?> outputStream) throws IOException {
+            if (!(outputStream instanceof ZipArchiveOutputStream)) {
+                return false;
+            }
+            ((ZipArchiveOutputStream) outputStream).addRawArchiveEntry(currentEntry, zipFile.getRawInputStream(currentEntry));
+            return true;
+        }
+
         @Override
         public InputStream getInputStream() throws IOException {
             return zipFile.getInputStream(currentEntry);
@@ -125,6 +153,35 @@ public ChangeSetPerformer(final ChangeSet<E> changeSet) {
         this.changes = changeSet.getChanges();
     }
 
+    /**
+     * Adds the entry of an addition change to the output stream, or to the creator if there is one.
+     *
+     * @param change       The addition.
+     * @param outputStream The stream to write the data to.
+     * @param zipCreator   The creator to compress the entry with or null.
+     * @throws IOException if data cannot be read or written.
+     */
+    private void add(final Change<E> change, final O outputStream, final ParallelScatterZipCreator zipCreator) throws IOException {
+        @SuppressWarnings("resource") // InputStream not allocated here
+        final InputStream inputStream = change.getInputStream();
+        if (zipCreator != null) {
+            final InputStreamSupplier source = inputStream != null ? () -> inputStream : change.getInputStreamSupplier();
+            zipCreator.addArchiveEntry((ZipArchiveEntry) change.getEntry(), source);
+        } else if (inputStream != null) {
+            copyStream(inputStream, outputStream, change.getEntry());
+        } else {
+            final InputStream supplied;
+            try {
+                supplied = change.getInputStreamSupplier().get();
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            }
+            try (InputStream input = supplied) {
+                copyStream(input, outputStream, change.getEntry());
+            }
+        }
+    }
+
     /**
      * Copies the ArchiveEntry to the Output stream
      *
@@ -168,10 +225,12 @@ private boolean isDeletedLater(final Set<Change<E>> workingSet, final E entry) {
      *
      * @param entryIterator The entries to perform the changes on.
      * @param outputStream  The resulting OutputStream with all modifications.
+     * @param zipCreator    The creator to compress added entries with or null to add them to the output stream directly.
      * @throws IOException if a read/write error occurs.
      * @return The results of this operation.
      */
-    private ChangeSetResults perform(final ArchiveEntryIterator<E> entryIterator, final O outputStream) throws IOException {
+    private ChangeSetResults perform(final ArchiveEntryIterator<E> entryIterator, final O outputStream, final ParallelScatterZipCreator zipCreator)
+            throws IOException {
         final ChangeSetResults results = new ChangeSetResults();
 
         final Set<Change<E>> workingSet = new LinkedHashSet<>(changes);
@@ -180,9 +239,7 @@ private ChangeSetResults perform(final ArchiveEntryIterator<E> entryIterator, fi
             final Change<E> change = it.next();
 
             if (change.getType() == ChangeType.ADD && change.isReplaceMode()) {
-                @SuppressWarnings("resource") // InputStream not allocated here
-                final InputStream inputStream = change.getInputStream();
-                copyStream(inputStream, outputStream, change.getEntry());
+                add(change, outputStream, zipCreator);
                 it.remove();
                 results.addedFromChangeSet(change.getEntry().getName());
             }
@@ -213,9 +270,11 @@ private ChangeSetResults perform(final ArchiveEntryIterator<E> entryIterator, fi
             }
 
             if (copy && !isDeletedLater(workingSet, entry) && !results.hasBeenAdded(entry.getName())) {
-                @SuppressWarnings("resource") // InputStream not allocated here
-                final InputStream inputStream = entryIterator.getInputStream();
-                copyStream(inputStream, outputStream, entry);
+                if (!entryIterator.copyRaw(outputStream)) {
+                    @SuppressWarnings("resource") // InputStream not allocated here
+                    final InputStream inputStream = entryIterator.getInputStream();
+                    copyStream(inputStream, outputStream, entry);
+                }
                 results.addedFromStream(entry.getName());
             }
         }
@@ -225,13 +284,21 @@ private ChangeSetResults perform(final ArchiveEntryIterator<E> entryIterator, fi
             final Change<E> change = it.next();
 
             if (change.getType() == ChangeType.ADD && !change.isReplaceMode() && !results.hasBeenAdded(change.getEntry().getName())) {
-                @SuppressWarnings("resource")
-                final InputStream input = change.getInputStream();
-                copyStream(input, outputStream, change.getEntry());
+                add(change, outputStream, zipCreator);
                 it.remove();
                 results.addedFromChangeSet(change.getEntry().getName());
             }
         }
+        if (zipCreator != null) {
+            try {
+                zipCreator.writeTo((ZipArchiveOutputStream) outputStream);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw (IOException) new InterruptedIOException("Interrupted while compressing added entries").initCause(e);
+            } catch (final ExecutionException e) {
+                throw new IOException("Failed to compress added entries", e.getCause());
+            }
+        }
         outputStream.finish();
         return results;
     }
@@ -247,13 +314,14 @@ private ChangeSetResults perform(final ArchiveEntryIterator<E> entryIterator, fi
      * @return The results of this operation.
      */
     public ChangeSetResults perform(final I inputStream, final O outputStream) throws IOException {
-        return perform(new ArchiveInputStreamIterator<>(inputStream), outputStream);
+        return perform(new ArchiveInputStreamIterator<>(inputStream), outputStream, null);
     }
 
     /**
      * Performs all changes collected in this ChangeSet on the ZipFile and streams the result to the output stream. Perform may be called more than once.
      *
-     * This method finishes the stream, no other entries should be added after that.
+     * This method finishes the stream, no other entries should be added after that. Entries kept from the ZipFile are copied without recompressing them if
+     * the output stream is a {@link ZipArchiveOutputStream}.
      *
      * @param zipFile      The ZipFile to perform the changes on.
      * @param outputStream The resulting OutputStream with all modifications.
@@ -264,6 +332,33 @@ public ChangeSetResults perform(final I inputStream, final O outputStream) throw
     public ChangeSetResults perform(final ZipFile zipFile, final O outputStream) throws IOException {
         @SuppressWarnings("unchecked")
         final ArchiveEntryIterator<E> entryIterator = (ArchiveEntryIterator<E>) new ZipFileIterator(zipFile);
-        return perform(entryIterator, outputStream);
+        return perform(entryIterator, outputStream, null);
+    }
+
+    /**
+     * Performs all changes collected in this ChangeSet on the ZipFile and streams the result to the output stream, compressing added entries in parallel.
+     * Perform may be called more than once, with a new creator each time.
+     * <p>
+     * Entries kept from the ZipFile are copied without recompressing them. Added entries are handed to the creator, which compresses them while the kept
+     * entries are copied and writes them to the output stream afterwards, so they need a compression method like for
+     * {@link ParallelScatterZipCreator#addArchiveEntry(ZipArchiveEntry, InputStreamSupplier)}. This method finishes the stream, no other entries should be
+     * added after that.
+     * </p>
+     *
+     * @param zipFile      The ZipFile to perform the changes on.
+     * @param outputStream The resulting OutputStream with all modifications, a {@link ZipArchiveOutputStream}.
+     * @param zipCreator   The creator compressing the added entries.
+     * @throws IOException              if a read/write error occurs.
+     * @throws IllegalArgumentException if the output stream is no {@link ZipArchiveOutputStream}.
+     * @return The results of this operation.
+     * @since 1.29.0
+     */
+    public ChangeSetResults perform(final ZipFile zipFile, final O outputStream, final ParallelScatterZipCreator zipCreator) throws IOException {
+        if (!(outputStream instanceof ZipArchiveOutputStream)) {
+            throw new IllegalArgumentException("Parallel compression requires a ZipArchiveOutputStream");
+        }
+        @SuppressWarnings("unchecked")
+        final ArchiveEntryIterator<E> entryIterator = (ArchiveEntryIterator<E>) new ZipFileIterator(zipFile);
+        return perform(entryIterator, outputStream, Objects.requireNonNull(zipCreator, "zipCreator"));
     }
 }
@@ -19,7 +19,9 @@
 package org.apache.commons.compress.changes;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Stores the results of a performed {@link ChangeSet} operation.
@@ -30,6 +32,9 @@ public class ChangeSetResults {
     private final List<String> addedFromStream = new ArrayList<>();
     private final List<String> deleted = new ArrayList<>();
 
+    /** Names added from the {@link ChangeSet} or the source stream, for quick lookups in large archives. */
+    private final Set<String> added = new HashSet<>();
+
     /**
      * Constructs a new instance.
      */
@@ -44,6 +49,7 @@ public ChangeSetResults() {
      */
     void addedFromChangeSet(final String fileName) {
         addedFromChangeSet.add(fileName);
+        added.add(fileName);
     }
 
     /**
@@ -53,6 +59,7 @@ void addedFromChangeSet(final String fileName) {
      */
     void addedFromStream(final String fileName) {
         addedFromStream.add(fileName);
+        added.add(fileName);
     }
 
     /**
@@ -98,6 +105,6 @@ public List<String> getDeleted() {
      * @return true, if this file name already has been added.
      */
     boolean hasBeenAdded(final String fileName) {
-        return addedFromChangeSet.contains(fileName) || addedFromStream.contains(fileName);
+        return added.contains(fileName);
     }
 }
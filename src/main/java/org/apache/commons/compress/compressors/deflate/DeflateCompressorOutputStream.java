@@ -38,6 +38,8 @@
  */
 public class DeflateCompressorOutputStream extends CompressorOutputStream<DeflaterOutputStream> {
     private final Deflater deflater;
+    private final DeflaterPool deflaterPool;
+    private final boolean nowrap;
 
     /**
      * Creates a Deflate compressed output stream with the default parameters.
@@ -55,16 +57,24 @@ public DeflateCompressorOutputStream(final OutputStream outputStream) {
      * @param parameters   The deflate parameters to apply.
      */
     public DeflateCompressorOutputStream(final OutputStream outputStream, final DeflateParameters parameters) {
-        this.deflater = new Deflater(parameters.getCompressionLevel(), !parameters.withZlibHeader());
+        this.deflaterPool = parameters.getDeflaterPool();
+        this.nowrap = !parameters.withZlibHeader();
+        this.deflater = deflaterPool != null ? deflaterPool.acquire(parameters.getCompressionLevel(), Deflater.DEFAULT_STRATEGY, nowrap)
+                : new Deflater(parameters.getCompressionLevel(), nowrap);
         this.out = new DeflaterOutputStream(outputStream, deflater);
     }
 
     @Override
     public void close() throws IOException {
+        final boolean wasClosed = isClosed();
         try {
             super.close();
         } finally {
-            deflater.end();
+            if (deflaterPool == null) {
+                deflater.end();
+            } else if (!wasClosed) {
+                deflaterPool.release(deflater, nowrap);
+            }
         }
     }
 
@@ -33,6 +33,7 @@ public class DeflateParameters {
 
     private boolean zlibHeader = true;
     private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private DeflaterPool deflaterPool;
 
     /**
      * Constructs a new instance.
@@ -51,6 +52,16 @@ public int getCompressionLevel() {
         return compressionLevel;
     }
 
+    /**
+     * Gets the pool the compressor takes its {@link Deflater} from.
+     *
+     * @return The pool or null if the compressor creates its own deflater.
+     * @since 1.29.0
+     */
+    public DeflaterPool getDeflaterPool() {
+        return deflaterPool;
+    }
+
     /**
      * Sets the compression level.
      *
@@ -68,6 +79,16 @@ public void setCompressionLevel(final int compressionLevel) {
         this.compressionLevel = compressionLevel;
     }
 
+    /**
+     * Sets a pool the compressor takes its {@link Deflater} from and returns it to when closed.
+     *
+     * @param deflaterPool The pool or null to create and end a deflater per compressor.
+     * @since 1.29.0
+     */
+    public void setDeflaterPool(final DeflaterPool deflaterPool) {
+        this.deflaterPool = deflaterPool;
+    }
+
     /**
      * Sets the zlib header presence parameter.
      *
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.compressors.deflate;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+/**
+ * Bounded pool of {@link Deflater}s.
+ * <p>
+ * Every {@link Deflater} holds native zlib state which is only freed once it is {@link Deflater#end() ended}. Opening many short-lived compressing streams
+ * creates and ends a {@link Deflater} per stream; sharing a pool using {@link DeflateParameters#setDeflaterPool(DeflaterPool)},
+ * {@link org.apache.commons.compress.compressors.gzip.GzipParameters#setDeflaterPool(DeflaterPool)},
+ * {@link org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream#ZipArchiveOutputStream(java.io.OutputStream, DeflaterPool)} or
+ * {@link org.apache.commons.compress.archivers.zip.StreamCompressor#create(int, org.apache.commons.compress.parallel.ScatterGatherBackingStore, DeflaterPool)}
+ * reuses them instead.
+ * </p>
+ * <p>
+ * Only the presence of the zlib header is fixed when a {@link Deflater} is created, its level and strategy are applied to a reset deflater at no cost. The pool
+ * therefore keeps at most {@code capacity} idle deflaters per header mode and sets the requested level and strategy when handing one out. Deflaters released
+ * to a full pool are ended. {@link #close() Closing} the pool ends all idle deflaters, deflaters released afterwards are ended as well.
+ * </p>
+ *
+ * @ThreadSafe
+ * @since 1.29.0
+ */
+public final class DeflaterPool implements Closeable {
+
+    /** Idle deflaters writing raw DEFLATE data. */
+    private final BlockingQueue<Deflater> idleRaw;
+
+    /** Idle deflaters writing the zlib header and trailer. */
+    private final BlockingQueue<Deflater> idleZlib;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param capacity The maximum number of idle deflaters kept by the pool per header mode.
+     * @throws IllegalArgumentException if {@code capacity} is less than 1.
+     */
+    public DeflaterPool(final int capacity) {
+        this.idleRaw = new ArrayBlockingQueue<>(capacity);
+        this.idleZlib = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Takes an idle deflater from the pool or creates a new one if there is none.
+     *
+     * @param level    The compression level.
+     * @param strategy The compression strategy.
+     * @param nowrap   Whether to write raw DEFLATE data without zlib header and trailer, like for gzip and ZIP.
+     * @return A deflater with the given settings, to be handed back using {@link #release(Deflater, boolean)}.
+     */
+    public Deflater acquire(final int level, final int strategy, final boolean nowrap) {
+        final Deflater deflater = idle(nowrap).poll();
+        if (deflater == null) {
+            missCount.incrementAndGet();
+            final Deflater created = new Deflater(level, nowrap);
+            created.setStrategy(strategy);
+            return created;
+        }
+        hitCount.incrementAndGet();
+        deflater.setLevel(level);
+        deflater.setStrategy(strategy);
+        return deflater;
+    }
+
+    /**
+     * Ends all idle deflaters; deflaters released afterwards are ended right away.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        drain();
+    }
+
+    private void drain() {
+        Deflater deflater;
+        while ((deflater = idleRaw.poll()) != null) {
+            deflater.end();
+        }
+        while ((deflater = idleZlib.poll()) != null) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Gets the number of {@link #acquire(int, int, boolean)} calls served by an idle deflater.
+     *
+     * @return The number of pool hits.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of idle deflaters currently kept by the pool.
+     *
+     * @return The number of idle deflaters.
+     */
+    public int getIdleCount() {
+        return idleRaw.size() + idleZlib.size();
+    }
+
+    /**
+     * Gets the number of {@link #acquire(int, int, boolean)} calls that had to create a new deflater.
+     *
+     * @return The number of pool misses.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private BlockingQueue<Deflater> idle(final boolean nowrap) {
+        return nowrap ? idleRaw : idleZlib;
+    }
+
+    /**
+     * Hands a deflater obtained from {@link #acquire(int, int, boolean)} back to the pool.
+     * <p>
+     * The deflater is reset and kept for reuse, or ended if the pool is full or closed. It must not be used by the caller afterwards.
+     * </p>
+     *
+     * @param deflater The deflater to release.
+     * @param nowrap   The header mode the deflater was acquired with.
+     */
+    public void release(final Deflater deflater, final boolean nowrap) {
+        if (closed) {
+            deflater.end();
+            return;
+        }
+        deflater.reset();
+        if (!idle(nowrap).offer(deflater)) {
+            deflater.end();
+        } else if (closed) {
+            // lost a race with close()
+            drain();
+        }
+    }
+}
@@ -29,6 +29,7 @@
 
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorOutputStream;
+import org.apache.commons.compress.compressors.deflate.DeflaterPool;
 import org.apache.commons.io.IOUtils;
 
 /**
@@ -42,6 +43,9 @@ public class GzipCompressorOutputStream extends CompressorOutputStream<OutputStr
     /** Deflater used to compress the data */
     private final Deflater deflater;
 
+    /** Pool the deflater is taken from or null */
+    private final DeflaterPool deflaterPool;
+
     /** The buffer receiving the compressed data from the deflater */
     private final byte[] deflateBuffer;
 
@@ -68,8 +72,13 @@ public GzipCompressorOutputStream(final OutputStream out) throws IOException {
      */
     public GzipCompressorOutputStream(final OutputStream out, final GzipParameters parameters) throws IOException {
         super(out);
-        this.deflater = new Deflater(parameters.getCompressionLevel(), true);
-        this.deflater.setStrategy(parameters.getDeflateStrategy());
+        this.deflaterPool = parameters.getDeflaterPool();
+        if (deflaterPool != null) {
+            this.deflater = deflaterPool.acquire(parameters.getCompressionLevel(), parameters.getDeflateStrategy(), true);
+        } else {
+            this.deflater = new Deflater(parameters.getCompressionLevel(), true);
+            this.deflater.setStrategy(parameters.getDeflateStrategy());
+        }
         this.deflateBuffer = new byte[parameters.getBufferSize()];
         writeMemberHeader(parameters);
     }
@@ -80,7 +89,11 @@ public void close() throws IOException {
             try {
                 finish();
             } finally {
-                deflater.end();
+                if (deflaterPool != null) {
+                    deflaterPool.release(deflater, true);
+                } else {
+                    deflater.end();
+                }
                 super.close();
             }
         }
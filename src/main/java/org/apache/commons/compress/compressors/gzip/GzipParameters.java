@@ -27,6 +27,7 @@
 
 import org.apache.commons.compress.CompressException;
 import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.deflate.DeflaterPool;
 import org.apache.commons.io.Charsets;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -296,6 +297,8 @@ public int type() {
     private String comment;
     private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
     private int deflateStrategy = Deflater.DEFAULT_STRATEGY;
+    /** Not a property of the gzip format, ignored by {@link #equals(Object)}. */
+    private DeflaterPool deflaterPool;
     private ExtraField extraField;
     private int extraFieldXlen;
     private String fileName;
@@ -383,6 +386,16 @@ public int getDeflateStrategy() {
         return deflateStrategy;
     }
 
+    /**
+     * Gets the pool the compressor takes its {@link Deflater} from.
+     *
+     * @return The pool or null if the compressor creates its own deflater.
+     * @since 1.29.0
+     */
+    public DeflaterPool getDeflaterPool() {
+        return deflaterPool;
+    }
+
     /**
      * Gets the Extra subfields from the header.
      *
@@ -568,6 +581,16 @@ public void setDeflateStrategy(final int deflateStrategy) {
         this.deflateStrategy = deflateStrategy;
     }
 
+    /**
+     * Sets a pool the compressor takes its {@link Deflater} from and returns it to when closed.
+     *
+     * @param deflaterPool The pool or null to create and end a deflater per compressor.
+     * @since 1.29.0
+     */
+    public void setDeflaterPool(final DeflaterPool deflaterPool) {
+        this.deflaterPool = deflaterPool;
+    }
+
     /**
      * Sets the extra subfields. Note that a non-null extra will appear in the gzip header regardless of the presence of subfields, while a null extra will not
      * appear at all.
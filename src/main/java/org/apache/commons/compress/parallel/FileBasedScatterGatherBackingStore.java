@@ -24,8 +24,10 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * ScatterGatherBackingStore that is backed by a path.
@@ -83,6 +85,17 @@ public void closeForWriting() throws IOException {
         }
     }
 
+    /**
+     * Opens a channel to read the scattered payload, allowing it to be transferred to another channel without copying it through user space.
+     *
+     * @return A FileChannel, should be closed by the caller of this method.
+     * @throws IOException if an I/O error occurs.
+     * @since 1.29.0
+     */
+    public FileChannel getChannel() throws IOException {
+        return FileChannel.open(target, StandardOpenOption.READ);
+    }
+
     @Override
     public InputStream getInputStream() throws IOException {
         return Files.newInputStream(target);
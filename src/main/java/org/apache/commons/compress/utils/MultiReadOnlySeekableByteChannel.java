@@ -26,11 +26,14 @@
 import java.nio.channels.NonWritableChannelException;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Objects;
 
@@ -42,11 +45,21 @@
  * MultiReadOnlySeekableByteChannel</a>
  * by Tim Underwood.
  * </p>
+ * <p>
+ * Files are opened when they are read first, at most {@link #DEFAULT_MAX_OPEN_CHANNELS} of them are kept open at a time, closing the least recently used ones.
+ * </p>
  *
  * @since 1.19
  */
 public class MultiReadOnlySeekableByteChannel implements SeekableByteChannel {
 
+    /**
+     * Default maximum number of channels of files kept open at a time.
+     *
+     * @since 1.29.0
+     */
+    public static final int DEFAULT_MAX_OPEN_CHANNELS = 64;
+
     private static final Path[] EMPTY_PATH_ARRAY = {};
 
     /**
@@ -77,14 +90,10 @@ public static SeekableByteChannel forFiles(final File... files) throws IOExcepti
      * @since 1.22
      */
     public static SeekableByteChannel forPaths(final Path... paths) throws IOException {
-        final List<SeekableByteChannel> channels = new ArrayList<>();
-        for (final Path path : Objects.requireNonNull(paths, "paths")) {
-            channels.add(Files.newByteChannel(path, StandardOpenOption.READ));
+        if (Objects.requireNonNull(paths, "paths").length == 1) {
+            return Files.newByteChannel(paths[0], StandardOpenOption.READ);
         }
-        if (channels.size() == 1) {
-            return channels.get(0);
-        }
-        return new MultiReadOnlySeekableByteChannel(channels);
+        return new MultiReadOnlySeekableByteChannel(paths, new OpenOption[] { StandardOpenOption.READ }, DEFAULT_MAX_OPEN_CHANNELS);
     }
 
     /**
@@ -103,10 +112,36 @@ public static SeekableByteChannel forSeekableByteChannels(final SeekableByteChan
 
     private final List<SeekableByteChannel> channelList;
 
+    /**
+     * Files opened on first use or null if all channels have been given.
+     */
+    private final Path[] paths;
+
+    private final OpenOption[] openOptions;
+
+    private final int maxOpenChannels;
+
+    /**
+     * Channels of {@link #paths} by index, least recently used first.
+     */
+    private final LinkedHashMap<Integer, SeekableByteChannel> openChannels = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Offsets of the channels followed by the size of this channel, computed on first use.
+     */
+    private long[] offsets;
+
+    private boolean closed;
+
     private long globalPosition;
 
     private int currentChannelIdx;
 
+    /**
+     * The channel at {@link #currentChannelIdx} if it has been positioned already.
+     */
+    private SeekableByteChannel currentChannel;
+
     /**
      * Concatenates the given channels.
      *
@@ -115,12 +150,84 @@ public static SeekableByteChannel forSeekableByteChannels(final SeekableByteChan
      */
     public MultiReadOnlySeekableByteChannel(final List<SeekableByteChannel> channels) {
         this.channelList = Collections.unmodifiableList(new ArrayList<>(Objects.requireNonNull(channels, "channels")));
+        this.paths = null;
+        this.openOptions = null;
+        this.maxOpenChannels = channelList.size();
+    }
+
+    /**
+     * Concatenates the given files, opening them when they are read first.
+     *
+     * @param paths           The files to concatenate.
+     * @param openOptions     The options to open the files with.
+     * @param maxOpenChannels The maximum number of files kept open at a time.
+     * @throws NullPointerException     if paths or openOptions is null.
+     * @throws IllegalArgumentException if maxOpenChannels is less than 1.
+     * @throws IOException              if the size of one of the files can't be read.
+     * @since 1.29.0
+     */
+    protected MultiReadOnlySeekableByteChannel(final Path[] paths, final OpenOption[] openOptions, final int maxOpenChannels) throws IOException {
+        if (maxOpenChannels < 1) {
+            throw new IllegalArgumentException("Invalid maximum number of open channels: " + maxOpenChannels);
+        }
+        this.channelList = Collections.emptyList();
+        this.paths = Objects.requireNonNull(paths, "paths").clone();
+        this.openOptions = Objects.requireNonNull(openOptions, "openOptions").clone();
+        this.maxOpenChannels = maxOpenChannels;
+        offsets = new long[this.paths.length + 1];
+        for (int i = 0; i < this.paths.length; i++) {
+            offsets[i + 1] = offsets[i] + Files.size(this.paths[i]);
+        }
+    }
+
+    /**
+     * Gets the channel with the given index, opening its file and closing the least recently used ones if needed.
+     */
+    private SeekableByteChannel channel(final int index) throws IOException {
+        if (paths == null) {
+            return channelList.get(index);
+        }
+        SeekableByteChannel channel = openChannels.get(index);
+        if (channel == null) {
+            channel = Files.newByteChannel(paths[index], openOptions);
+            openChannels.put(index, channel);
+            final Iterator<SeekableByteChannel> eldest = openChannels.values().iterator();
+            while (openChannels.size() > maxOpenChannels) {
+                final SeekableByteChannel evicted = eldest.next();
+                eldest.remove();
+                evicted.close();
+            }
+        }
+        return channel;
+    }
+
+    /**
+     * Gets the index of the channel holding the given position, the last channel starting at or before it.
+     */
+    private int channelIndex(final long position) throws IOException {
+        final long[] offsets = offsets();
+        int low = 0;
+        int high = getChannelCount() - 1;
+        while (low < high) {
+            final int mid = low + high + 1 >>> 1;
+            if (offsets[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
     }
 
     @Override
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
+        closed = true;
+        currentChannel = null;
+        final List<SeekableByteChannel> toClose = new ArrayList<>(channelList);
+        toClose.addAll(openChannels.values());
+        openChannels.clear();
         IOException first = null;
-        for (final SeekableByteChannel ch : channelList) {
+        for (final SeekableByteChannel ch : toClose) {
             try {
                 ch.close();
             } catch (final IOException ex) {
@@ -134,9 +241,27 @@ public void close() throws IOException {
         }
     }
 
+    private int getChannelCount() {
+        return paths != null ? paths.length : channelList.size();
+    }
+
     @Override
     public boolean isOpen() {
-        return channelList.stream().allMatch(SeekableByteChannel::isOpen);
+        return !closed && channelList.stream().allMatch(SeekableByteChannel::isOpen);
+    }
+
+    /**
+     * Gets the offsets of the channels, reading the sizes of given channels on first use.
+     */
+    private synchronized long[] offsets() throws IOException {
+        if (offsets == null) {
+            final long[] channelOffsets = new long[channelList.size() + 1];
+            for (int i = 0; i < channelList.size(); i++) {
+                channelOffsets[i + 1] = channelOffsets[i] + channelList.get(i).size();
+            }
+            offsets = channelOffsets;
+        }
+        return offsets;
     }
 
     /**
@@ -160,31 +285,9 @@ public synchronized SeekableByteChannel position(final long newPosition) throws
             throw new ClosedChannelException();
         }
         globalPosition = newPosition;
-        long pos = newPosition;
-        for (int i = 0; i < channelList.size(); i++) {
-            final SeekableByteChannel currentChannel = channelList.get(i);
-            final long size = currentChannel.size();
-
-            final long newChannelPos;
-            if (pos == -1L) {
-                // Position is already set for the correct channel,
-                // the rest of the channels get reset to 0
-                newChannelPos = 0;
-            } else if (pos <= size) {
-                // This channel is where we want to be
-                currentChannelIdx = i;
-                final long tmp = pos;
-                pos = -1L; // Mark pos as already being set
-                newChannelPos = tmp;
-            } else {
-                // newPosition is past this channel. Set channel
-                // position to the end and substract channel size from
-                // pos
-                pos -= size;
-                newChannelPos = size;
-            }
-            currentChannel.position(newChannelPos);
-        }
+        // the channel is positioned once it is read
+        currentChannelIdx = channelIndex(newPosition);
+        currentChannel = null;
         return this;
     }
 
@@ -200,12 +303,7 @@ public synchronized SeekableByteChannel position(final long channelNumber, final
         if (!isOpen()) {
             throw new ClosedChannelException();
         }
-        long globalPosition = relativeOffset;
-        for (int i = 0; i < channelNumber; i++) {
-            globalPosition += channelList.get(i).size();
-        }
-
-        return position(globalPosition);
+        return position(offsets()[Math.toIntExact(channelNumber)] + relativeOffset);
     }
 
     @Override
@@ -217,20 +315,26 @@ public synchronized int read(final ByteBuffer dst) throws IOException {
             return 0;
         }
 
+        final long[] offsets = offsets();
         int totalBytesRead = 0;
-        while (dst.hasRemaining() && currentChannelIdx < channelList.size()) {
-            final SeekableByteChannel currentChannel = channelList.get(currentChannelIdx);
+        while (dst.hasRemaining() && currentChannelIdx < getChannelCount()) {
+            if (currentChannel == null) {
+                currentChannel = channel(currentChannelIdx);
+                currentChannel.position(globalPosition + totalBytesRead - offsets[currentChannelIdx]);
+            }
             final int newBytesRead = currentChannel.read(dst);
             if (newBytesRead == -1) {
                 // EOF for this channel -- advance to next channel idx
                 currentChannelIdx += 1;
+                currentChannel = null;
                 continue;
             }
-            if (currentChannel.position() >= currentChannel.size()) {
+            totalBytesRead += newBytesRead;
+            if (currentChannel.position() >= offsets[currentChannelIdx + 1] - offsets[currentChannelIdx]) {
                 // we are at the end of the current channel
                 currentChannelIdx++;
+                currentChannel = null;
             }
-            totalBytesRead += newBytesRead;
         }
         if (totalBytesRead > 0) {
             globalPosition += totalBytesRead;
@@ -244,11 +348,7 @@ public long size() throws IOException {
         if (!isOpen()) {
             throw new ClosedChannelException();
         }
-        long acc = 0;
-        for (final SeekableByteChannel ch : channelList) {
-            acc += ch.size();
-        }
-        return acc;
+        return offsets()[getChannelCount()];
     }
 
     /**
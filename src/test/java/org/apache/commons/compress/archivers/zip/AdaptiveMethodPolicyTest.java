@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import org.apache.commons.compress.archivers.zip.AdaptiveMethodPolicy.Decision;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveMethodPolicyTest {
+
+    static byte[] randomBytes(final int length, final int bound) {
+        final Random random = new Random(length);
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) random.nextInt(bound);
+        }
+        return data;
+    }
+
+    static byte[] text(final int length) {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < length; i++) {
+            text.append("line ").append(i).append(" of some text\n");
+        }
+        return text.substring(0, length).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void testDecisions() {
+        final AdaptiveMethodPolicy policy = new AdaptiveMethodPolicy();
+        final byte[] text = text(10_000);
+        assertEquals(Decision.DEFLATE, policy.decide(text, text.length, true));
+        final byte[] random = randomBytes(10_000, 256);
+        assertEquals(Decision.STORE, policy.decide(random, random.length, true));
+        assertEquals(Decision.DEFLATE_NO_COMPRESSION, policy.decide(random, random.length, false));
+        // seven bits of entropy per byte
+        final byte[] sevenBits = randomBytes(10_000, 128);
+        assertEquals(Decision.DEFLATE_FAST, policy.decide(sevenBits, sevenBits.length, true));
+        // compressible but starting with the gzip signature
+        text[0] = 0x1f;
+        text[1] = (byte) 0x8b;
+        assertEquals(Decision.STORE, policy.decide(text, text.length, true));
+        // too short to tell
+        assertEquals(Decision.DEFLATE, policy.decide(random, 100, true));
+        assertEquals(2, policy.getCount(Decision.STORE));
+        assertEquals(1, policy.getCount(Decision.DEFLATE_NO_COMPRESSION));
+        assertEquals(1, policy.getCount(Decision.DEFLATE_FAST));
+        assertEquals(2, policy.getCount(Decision.DEFLATE));
+        // without trial compression all high entropy data is deflated fast
+        assertEquals(Decision.DEFLATE_FAST, new AdaptiveMethodPolicy(1024, false).decide(sevenBits, 1024, true));
+    }
+
+    @Test
+    void testEntropy() {
+        assertEquals(0, AdaptiveMethodPolicy.entropy(new byte[100], 100), 1e-9);
+        assertEquals(1, AdaptiveMethodPolicy.entropy(new byte[] { 0, 1, 0, 1 }, 4), 1e-9);
+        assertEquals(8, AdaptiveMethodPolicy.entropy(randomBytes(1 << 20, 256), 1 << 20), 0.01);
+    }
+
+    @Test
+    void testInvalidSampleSize() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveMethodPolicy(0, true));
+    }
+
+    @Test
+    void testLevel() {
+        final AdaptiveMethodPolicy policy = new AdaptiveMethodPolicy();
+        assertEquals(Deflater.BEST_SPEED, policy.getLevel(Decision.DEFLATE_FAST, Deflater.DEFAULT_COMPRESSION));
+        assertEquals(Deflater.BEST_SPEED, policy.getLevel(Decision.DEFLATE_FAST, Deflater.BEST_COMPRESSION));
+        assertEquals(Deflater.NO_COMPRESSION, policy.getLevel(Decision.DEFLATE_FAST, Deflater.NO_COMPRESSION));
+        assertEquals(Deflater.NO_COMPRESSION, policy.getLevel(Decision.DEFLATE_NO_COMPRESSION, Deflater.BEST_COMPRESSION));
+        assertEquals(Deflater.BEST_COMPRESSION, policy.getLevel(Decision.DEFLATE, Deflater.BEST_COMPRESSION));
+    }
+}
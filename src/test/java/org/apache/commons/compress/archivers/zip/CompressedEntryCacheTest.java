@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.AbstractTempDirTest;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+class CompressedEntryCacheTest extends AbstractTempDirTest {
+
+    private static long countFiles(final Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static void assertEntries(final File archive, final byte[]... data) throws IOException {
+        try (ZipFile zipFile = ZipFile.builder().setFile(archive).get()) {
+            for (int i = 0; i < data.length; i++) {
+                final ZipArchiveEntry entry = zipFile.getEntry("entry-" + i);
+                assertEquals(i % 2 == 0 ? ZipEntry.DEFLATED : ZipEntry.STORED, entry.getMethod());
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    assertArrayEquals(data[i], IOUtils.toByteArray(in));
+                }
+            }
+        }
+    }
+
+    private static ZipArchiveEntry entry(final int i) {
+        final ZipArchiveEntry entry = new ZipArchiveEntry("entry-" + i);
+        entry.setMethod(i % 2 == 0 ? ZipEntry.DEFLATED : ZipEntry.STORED);
+        return entry;
+    }
+
+    @Test
+    void testEviction() throws IOException {
+        final Path dir = getTempDirPath().resolve("cache");
+        final byte[] text = AdaptiveMethodPolicyTest.randomBytes(10_000, 256);
+        final CompressedEntryCache cache = new CompressedEntryCache(dir, 25_000);
+        for (int i = 0; i < 3; i++) {
+            final byte[] data = text.clone();
+            data[0] = (byte) i;
+            cache.get(() -> new ByteArrayInputStream(data), ZipEntry.STORED, 0).close();
+        }
+        // only two stored entries fit
+        assertEquals(2, countFiles(dir));
+        assertTrue(cache.getSize() <= 25_000);
+        // the first entry has been evicted, the third one is still cached
+        final byte[] first = text.clone();
+        first[0] = 0;
+        final byte[] third = text.clone();
+        third[0] = 2;
+        cache.get(() -> new ByteArrayInputStream(third), ZipEntry.STORED, 0).close();
+        assertEquals(1, cache.getHitCount());
+        cache.get(() -> new ByteArrayInputStream(first), ZipEntry.STORED, 0).close();
+        assertEquals(4, cache.getMissCount());
+        assertEquals(2, countFiles(dir));
+    }
+
+    @Test
+    void testEntriesLargerThanCache() throws Exception {
+        final Path dir = getTempDirPath().resolve("cache");
+        final byte[][] data = { AdaptiveMethodPolicyTest.text(100_000), AdaptiveMethodPolicyTest.randomBytes(50_000, 256) };
+        final CompressedEntryCache cache = new CompressedEntryCache(dir, 1_000);
+        final File result = createTempFile("cache", ".zip");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(result)) {
+            zos.setEntryCache(cache);
+            for (int i = 0; i < data.length; i++) {
+                final byte[] entryData = data[i];
+                zos.addArchiveEntry(entry(i), () -> new ByteArrayInputStream(entryData));
+            }
+        }
+        assertEntries(result, data);
+        final File scattered = createTempFile("parallelScatterGatherCache", "");
+        final ParallelScatterZipCreator zipCreator = new ParallelScatterZipCreator(Executors.newFixedThreadPool(2));
+        zipCreator.setEntryCache(cache);
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(scattered)) {
+            for (int i = 0; i < data.length; i++) {
+                final byte[] entryData = data[i];
+                zipCreator.addArchiveEntry(entry(i), () -> new ByteArrayInputStream(entryData));
+            }
+            zipCreator.writeTo(zos);
+        }
+        assertEntries(scattered, data);
+        // only the most recently compressed entry is kept
+        assertEquals(1, countFiles(dir));
+    }
+
+    @Test
+    void testParallelScatterZipCreator() throws Exception {
+        final Path dir = getTempDirPath().resolve("cache");
+        final byte[][] data = { AdaptiveMethodPolicyTest.text(100_000), AdaptiveMethodPolicyTest.randomBytes(50_000, 256), AdaptiveMethodPolicyTest.text(1) };
+        final CompressedEntryCache cache = new CompressedEntryCache(dir, Long.MAX_VALUE);
+        for (int run = 0; run < 2; run++) {
+            final File result = createTempFile("parallelScatterGatherCache", "");
+            final ParallelScatterZipCreator zipCreator = new ParallelScatterZipCreator(Executors.newFixedThreadPool(2));
+            zipCreator.setEntryCache(cache);
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(result)) {
+                for (int i = 0; i < data.length; i++) {
+                    final byte[] entryData = data[i];
+                    zipCreator.addArchiveEntry(entry(i), () -> new ByteArrayInputStream(entryData));
+                }
+                zipCreator.writeTo(zos);
+            }
+            assertEntries(result, data);
+        }
+        assertEquals(3, cache.getMissCount());
+        assertEquals(3, cache.getHitCount());
+    }
+
+    @Test
+    void testReusesExistingEntries() throws IOException {
+        final Path dir = getTempDirPath().resolve("cache");
+        final byte[] text = AdaptiveMethodPolicyTest.text(100_000);
+        final CompressedEntryCache cache = new CompressedEntryCache(dir, Long.MAX_VALUE);
+        cache.get(() -> new ByteArrayInputStream(text), ZipEntry.DEFLATED, 6).close();
+        // different level
+        cache.get(() -> new ByteArrayInputStream(text), ZipEntry.DEFLATED, 1).close();
+        assertEquals(2, cache.getMissCount());
+        final CompressedEntryCache reopened = new CompressedEntryCache(dir, Long.MAX_VALUE);
+        assertEquals(cache.getSize(), reopened.getSize());
+        try (CompressedEntryCache.CachedEntry cached = reopened.get(() -> new ByteArrayInputStream(text), ZipEntry.DEFLATED, 6)) {
+            assertEquals(1, reopened.getHitCount());
+            assertEquals(0, reopened.getMissCount());
+            assertEquals(text.length, cached.getSize());
+            assertTrue(cached.getCompressedSize() < text.length);
+        }
+        // a cache too small for both drops the least recently used entry
+        new CompressedEntryCache(dir, reopened.getSize() - 1);
+        assertEquals(1, countFiles(dir));
+    }
+
+    @Test
+    void testZipArchiveOutputStream() throws IOException {
+        final Path dir = getTempDirPath().resolve("cache");
+        final byte[][] data = { AdaptiveMethodPolicyTest.text(100_000), AdaptiveMethodPolicyTest.randomBytes(50_000, 256), new byte[0] };
+        final CompressedEntryCache cache = new CompressedEntryCache(dir, Long.MAX_VALUE);
+        final File[] results = new File[2];
+        for (int run = 0; run < 2; run++) {
+            results[run] = createTempFile("cache", ".zip");
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(results[run])) {
+                zos.setEntryCache(cache);
+                for (int i = 0; i < data.length; i++) {
+                    final byte[] entryData = data[i];
+                    final ZipArchiveEntry entry = entry(i);
+                    entry.setTime(0);
+                    zos.addArchiveEntry(entry, () -> new ByteArrayInputStream(entryData));
+                }
+            }
+            assertEntries(results[run], data);
+        }
+        assertEquals(3, cache.getMissCount());
+        assertEquals(3, cache.getHitCount());
+        assertArrayEquals(Files.readAllBytes(results[0].toPath()), Files.readAllBytes(results[1].toPath()));
+        // without a cache
+        final File uncached = createTempFile("uncached", ".zip");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(uncached)) {
+            for (int i = 0; i < data.length; i++) {
+                final byte[] entryData = data[i];
+                zos.addArchiveEntry(entry(i), () -> new ByteArrayInputStream(entryData));
+            }
+        }
+        assertEntries(uncached, data);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.junit.jupiter.api.Test;
+
+class InflaterPoolTest {
+
+    @Test
+    void testAcquireAfterRelease() throws Exception {
+        try (InflaterPool pool = new InflaterPool(1)) {
+            final Inflater inflater = pool.acquire();
+            inflater.setInput(new byte[] { 1, 2, 3 });
+            pool.release(inflater);
+            final Inflater reused = pool.acquire();
+            assertSame(inflater, reused);
+            assertEquals(0, reused.getRemaining());
+            assertEquals(1, pool.getHitCount());
+            assertEquals(1, pool.getMissCount());
+            // still usable after reset
+            final byte[] data = "Hello, world".getBytes();
+            final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            deflater.setInput(data);
+            deflater.finish();
+            final byte[] compressed = new byte[64];
+            final int length = deflater.deflate(compressed);
+            deflater.end();
+            reused.setInput(compressed, 0, length + 1);
+            final byte[] inflated = new byte[data.length];
+            assertEquals(data.length, reused.inflate(inflated));
+            pool.release(reused);
+        }
+    }
+
+    @Test
+    void testCapacity() {
+        try (InflaterPool pool = new InflaterPool(1)) {
+            final Inflater inflater1 = pool.acquire();
+            final Inflater inflater2 = pool.acquire();
+            assertNotSame(inflater1, inflater2);
+            pool.release(inflater1);
+            pool.release(inflater2);
+            assertEquals(1, pool.getIdleCount());
+            assertThrows(NullPointerException.class, () -> inflater2.inflate(new byte[1]));
+        }
+    }
+
+    @Test
+    void testClose() {
+        final InflaterPool pool = new InflaterPool(2);
+        final Inflater idle = pool.acquire();
+        final Inflater inUse = pool.acquire();
+        pool.release(idle);
+        pool.close();
+        assertEquals(0, pool.getIdleCount());
+        assertThrows(NullPointerException.class, () -> idle.inflate(new byte[1]));
+        pool.release(inUse);
+        assertEquals(0, pool.getIdleCount());
+        assertThrows(NullPointerException.class, () -> inUse.inflate(new byte[1]));
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new InflaterPool(0));
+    }
+}
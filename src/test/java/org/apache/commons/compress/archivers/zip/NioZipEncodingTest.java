@@ -25,9 +25,15 @@
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
 import java.util.Arrays;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -37,6 +43,50 @@ class NioZipEncodingTest {
 
     private static final String RAINBOW_EMOJI = "\ud83c\udf08";
 
+    private static byte[] toBytes(final ByteBuffer bb) {
+        final int off = bb.arrayOffset();
+        return Arrays.copyOfRange(bb.array(), off + bb.position(), off + bb.limit());
+    }
+
+    @Test
+    void testDecodeLikeDecoder() throws IOException {
+        final Random random = new Random(42);
+        for (final Charset charset : new Charset[] { UTF_8, ISO_8859_1, US_ASCII, Charset.forName("Cp437"), Charset.forName("IBM037") }) {
+            final NioZipEncoding e = new NioZipEncoding(charset);
+            for (int i = 0; i < 10_000; i++) {
+                final byte[] data = new byte[random.nextInt(40)];
+                for (int j = 0; j < data.length; j++) {
+                    // mostly ASCII
+                    data[j] = (byte) random.nextInt(random.nextInt(10) == 0 ? 256 : 128);
+                }
+                if (charset.equals(UTF_8)) {
+                    final String expected = UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).replaceWith("?").decode(ByteBuffer.wrap(data))
+                            .toString();
+                    assertEquals(expected, e.decode(data));
+                    assertArrayEquals(expected.getBytes(UTF_8), toBytes(e.encode(expected)));
+                } else {
+                    String expected;
+                    try {
+                        expected = charset.newDecoder().decode(ByteBuffer.wrap(data)).toString();
+                    } catch (final CharacterCodingException ex) {
+                        assertThrows(CharacterCodingException.class, () -> e.decode(data));
+                        continue;
+                    }
+                    assertEquals(expected, e.decode(data));
+                    assertArrayEquals(expected.getBytes(charset), toBytes(e.encode(expected)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testEncodeUnpairedSurrogateToUTF8() {
+        final NioZipEncoding e = new NioZipEncoding(UTF_8);
+        assertEquals("a?" + UMLAUTS, new String(toBytes(e.encode("a\ud83c" + UMLAUTS)), UTF_8));
+        assertEquals("?a", new String(toBytes(e.encode("\udf08a")), UTF_8));
+        assertEquals(RAINBOW_EMOJI, new String(toBytes(e.encode(RAINBOW_EMOJI)), UTF_8));
+    }
+
     @Test
     void testPartialSurrogatePair() {
         final NioZipEncoding e = new NioZipEncoding(US_ASCII);
@@ -37,12 +37,14 @@
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 
@@ -238,6 +240,142 @@ void testConcurrentDefaultTempFolder() throws Exception {
         assertNotNull(zipCreator.getStatisticsMessage());
     }
 
+    @Test
+    void testMemoryBackingStoreSupplier() throws Exception {
+        final Path dir = Files.createDirectory(newTempPath("memory-backing-store"));
+        final Random random = new Random(42);
+        // everything in memory, spilled by a single store, spilled from the start
+        for (final long[] limits : new long[][] { { Long.MAX_VALUE, Long.MAX_VALUE }, { MemoryBackingStoreSupplier.CHUNK_SIZE, Long.MAX_VALUE },
+                { Long.MAX_VALUE, 3 * MemoryBackingStoreSupplier.CHUNK_SIZE }, { 0, 0 } }) {
+            final MemoryBackingStoreSupplier supplier = new MemoryBackingStoreSupplier(dir, limits[0], limits[1]);
+            final File result = createTempFile("parallelScatterGatherMemory", "");
+            final ParallelScatterZipCreator zipCreator = new ParallelScatterZipCreator(Executors.newFixedThreadPool(4), supplier);
+            final Map<String, byte[]> entries;
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(result)) {
+                entries = new HashMap<>();
+                for (int i = 0; i < 50; i++) {
+                    // incompressible payloads so stores exceed their chunks
+                    final byte[] payloadBytes = new byte[random.nextInt(100 * 1024)];
+                    random.nextBytes(payloadBytes);
+                    zipCreator.addArchiveEntry(createZipArchiveEntry(entries, i, payloadBytes), () -> new ByteArrayInputStream(payloadBytes));
+                }
+                zipCreator.writeTo(zos);
+            }
+            removeEntriesFoundInZipFile(result, entries);
+            assertTrue(entries.isEmpty());
+            assertTrue(supplier.getAllocatedMemory() <= limits[1]);
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(0, files.count());
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new MemoryBackingStoreSupplier(dir, -1, 0));
+    }
+
+    @Test
+    void testMethodPolicy() throws Exception {
+        final byte[] text = AdaptiveMethodPolicyTest.text(100_000);
+        final byte[] random = AdaptiveMethodPolicyTest.randomBytes(100_000, 256);
+        final File result = createTempFile("parallelScatterGatherPolicy", "");
+        final ParallelScatterZipCreator zipCreator = new ParallelScatterZipCreator(Executors.newFixedThreadPool(2));
+        zipCreator.setMethodPolicy(new AdaptiveMethodPolicy());
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(result)) {
+            for (int i = 0; i < 10; i++) {
+                final byte[] data = i % 2 == 0 ? text : random;
+                zipCreator.addArchiveEntry(new ZipArchiveEntry("entry-" + i), () -> new ByteArrayInputStream(data));
+            }
+            zipCreator.writeTo(zos);
+        }
+        final ScatterStatistics statistics = zipCreator.getStatisticsMessage();
+        assertEquals(5, statistics.getStoredEntries());
+        assertEquals(5, statistics.getDeflatedEntries());
+        assertEquals(0, statistics.getFastDeflatedEntries());
+        try (ZipFile zipFile = ZipFile.builder().setFile(result).get()) {
+            for (int i = 0; i < 10; i++) {
+                final ZipArchiveEntry entry = zipFile.getEntry("entry-" + i);
+                assertEquals(i % 2 == 0 ? ZipEntry.DEFLATED : ZipEntry.STORED, entry.getMethod());
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    assertArrayEquals(i % 2 == 0 ? text : random, IOUtils.toByteArray(in));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testZstdAndXzCompression() throws Exception {
+        final byte[] text = AdaptiveMethodPolicyTest.text(100_000);
+        final int[] methods = { ZipMethod.ZSTD.getCode(), ZipMethod.XZ.getCode(), ZipEntry.DEFLATED };
+        final File result = createTempFile("parallelScatterGatherZstdXz", "");
+        final ParallelScatterZipCreator zipCreator = new ParallelScatterZipCreator(Executors.newFixedThreadPool(2));
+        zipCreator.setZstdCompression(3, 0);
+        zipCreator.setXzCompression(6);
+        assertThrows(IllegalArgumentException.class, () -> zipCreator.setXzCompression(10));
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(result)) {
+            for (int i = 0; i < 9; i++) {
+                final ZipArchiveEntry entry = new ZipArchiveEntry("entry-" + i);
+                entry.setMethod(methods[i % methods.length]);
+                zipCreator.addArchiveEntry(entry, () -> new ByteArrayInputStream(text));
+            }
+            zipCreator.writeTo(zos);
+        }
+        try (ZipFile zipFile = ZipFile.builder().setFile(result).get()) {
+            for (int i = 0; i < 9; i++) {
+                final ZipArchiveEntry entry = zipFile.getEntry("entry-" + i);
+                assertEquals(methods[i % methods.length], entry.getMethod());
+                assertEquals(text.length, entry.getSize());
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    assertArrayEquals(text, IOUtils.toByteArray(in));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testStreaming() throws Exception {
+        final MemoryBackingStoreSupplier supplier = new MemoryBackingStoreSupplier(null, Long.MAX_VALUE, Long.MAX_VALUE);
+        for (final boolean callables : new boolean[] { false, true }) {
+            final File result = createTempFile("parallelScatterGatherStreaming", "");
+            final ParallelScatterZipCreator zipCreator;
+            final Map<String, byte[]> entries;
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(result)) {
+                zipCreator = new ParallelScatterZipCreator(Executors.newFixedThreadPool(4), supplier, Deflater.DEFAULT_COMPRESSION, zos, 8);
+                entries = callables ? writeEntriesAsCallable(zipCreator, zipCreator::submit) : writeEntries(zipCreator);
+                // most entries have been written while submitting
+                assertTrue(zos.getBytesWritten() > 0);
+                assertThrows(IllegalArgumentException.class, () -> zipCreator.writeTo(new ZipArchiveOutputStream(new ByteArrayOutputStream())));
+                zipCreator.writeTo(zos);
+            }
+            removeEntriesFoundInZipFile(result, entries);
+            assertTrue(entries.isEmpty());
+            final ScatterStatistics statistics = zipCreator.getStatisticsMessage();
+            assertTrue(statistics.getMaxQueueDepth() > 0);
+            assertTrue(statistics.getMaxQueueDepth() <= 8, statistics::toString);
+        }
+    }
+
+    @Test
+    void testStreamingFailure() throws Exception {
+        final ExecutorService es = Executors.newFixedThreadPool(2);
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(new ByteArrayOutputStream())) {
+            final ParallelScatterZipCreator zipCreator = new ParallelScatterZipCreator(es,
+                    new MemoryBackingStoreSupplier(null, Long.MAX_VALUE, Long.MAX_VALUE), Deflater.DEFAULT_COMPRESSION, zos, 2);
+            final Map<String, byte[]> entries = new HashMap<>();
+            for (int i = 0; i < 20; i++) {
+                final byte[] payloadBytes = ("content" + i).getBytes();
+                final boolean fail = i == 5;
+                zipCreator.addArchiveEntry(createZipArchiveEntry(entries, i, payloadBytes), () -> {
+                    if (fail) {
+                        throw new IllegalStateException("failed entry");
+                    }
+                    return new ByteArrayInputStream(payloadBytes);
+                });
+            }
+            final ExecutionException e = assertThrows(ExecutionException.class, () -> zipCreator.writeTo(zos));
+            assertEquals("failed entry", e.getCause().getMessage());
+        }
+        assertTrue(es.isShutdown());
+        assertThrows(IllegalArgumentException.class, () -> new ParallelScatterZipCreator(es, null, Deflater.DEFAULT_COMPRESSION, null, 0));
+    }
+
     @Test
     void testThrowsExceptionWithCompressionLevelTooBig() {
         final int compressLevelTooBig = Deflater.BEST_COMPRESSION + 1;
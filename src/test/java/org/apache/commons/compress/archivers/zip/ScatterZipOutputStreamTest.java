@@ -23,13 +23,21 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.zip.ZipEntry;
 
 import org.apache.commons.compress.AbstractTempDirTest;
 import org.apache.commons.compress.parallel.InputStreamSupplier;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.channels.ByteArraySeekableByteChannel;
+import org.apache.commons.io.function.IOSupplier;
 import org.junit.jupiter.api.Test;
 
 class ScatterZipOutputStreamTest extends AbstractTempDirTest {
@@ -38,6 +46,63 @@ private InputStreamSupplier createPayloadSupplier(final ByteArrayInputStream pay
         return () -> payload;
     }
 
+    private void assertGathered(final byte[][] payloads, final ZipFile zf) throws Exception {
+        for (int i = 0; i < payloads.length; i++) {
+            final ZipArchiveEntry entry = zf.getEntry("entry-" + i);
+            assertEquals(payloads[i].length, entry.getSize());
+            try (InputStream inputStream = zf.getInputStream(entry)) {
+                assertArrayEquals(payloads[i], IOUtils.toByteArray(inputStream));
+            }
+        }
+    }
+
+    @Test
+    void testGatherTargets() throws Exception {
+        final Random random = new Random(42);
+        final byte[][] payloads = new byte[20][];
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = new byte[random.nextInt(100_000)];
+            random.nextBytes(payloads[i]);
+        }
+        for (final boolean entryWriter : new boolean[] { false, true }) {
+            final Path targetPath = createTempPath("gather", ".zip");
+            final ByteArrayOutputStream targetBytes = new ByteArrayOutputStream();
+            final ByteArraySeekableByteChannel targetChannel = new ByteArraySeekableByteChannel();
+            // transferred to a FileChannel, to another SeekableByteChannel and copied to an OutputStream
+            final List<IOSupplier<ZipArchiveOutputStream>> targets = Arrays.asList(() -> new ZipArchiveOutputStream(targetPath),
+                    () -> new ZipArchiveOutputStream(targetBytes), () -> new ZipArchiveOutputStream(targetChannel));
+            for (final IOSupplier<ZipArchiveOutputStream> target : targets) {
+                try (ScatterZipOutputStream scatterZipOutputStream = ScatterZipOutputStream.pathBased(createTempPath("scattertest", ".notzip"))) {
+                    for (int i = 0; i < payloads.length; i++) {
+                        final ZipArchiveEntry entry = new ZipArchiveEntry("entry-" + i);
+                        entry.setMethod(i % 2 == 0 ? ZipEntry.DEFLATED : ZipEntry.STORED);
+                        final ByteArrayInputStream payload = new ByteArrayInputStream(payloads[i]);
+                        scatterZipOutputStream.addArchiveEntry(createZipArchiveEntryRequest(entry, createPayloadSupplier(payload)));
+                    }
+                    try (ZipArchiveOutputStream outputStream = target.get()) {
+                        if (entryWriter) {
+                            for (int i = 0; i < payloads.length; i++) {
+                                scatterZipOutputStream.zipEntryWriter().writeNextZipEntry(outputStream);
+                            }
+                        } else {
+                            scatterZipOutputStream.writeTo(outputStream);
+                        }
+                    }
+                }
+            }
+            try (ZipFile zf = ZipFile.builder().setPath(targetPath).get()) {
+                assertGathered(payloads, zf);
+            }
+            try (ZipFile zf = ZipFile.builder().setByteArray(targetBytes.toByteArray()).get()) {
+                assertGathered(payloads, zf);
+            }
+            try (ZipFile zf = ZipFile.builder().setByteArray(targetChannel.toByteArray()).get()) {
+                assertGathered(payloads, zf);
+            }
+            assertEquals(Files.size(targetPath), targetChannel.toByteArray().length);
+        }
+    }
+
     @Test
     void testPutArchiveEntry() throws Exception {
         final File scatterFile = createTempFile("scattertest", ".notzip");
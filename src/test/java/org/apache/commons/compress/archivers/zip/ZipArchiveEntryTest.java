@@ -21,6 +21,7 @@
 
 import static org.apache.commons.compress.AbstractTest.getFile;
 import static org.junit.Assert.assertNull;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -39,6 +40,7 @@
 import org.apache.commons.compress.utils.TimeUtils;
 import org.apache.commons.io.file.attribute.FileTimes;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -142,6 +144,41 @@ void testCopyConstructor() throws Exception {
         assertEquals(archiveEntry, copy);
     }
 
+    @Test
+    void testDeferExtra() throws Exception {
+        final X5455_ExtendedTimestamp timestamp = new X5455_ExtendedTimestamp();
+        timestamp.setModifyFileTime(FileTime.from(Instant.parse("2030-01-02T03:04:05Z")));
+        final UnrecognizedExtraField u = new UnrecognizedExtraField();
+        u.setHeaderId(ExtraFieldUtilsTest.UNRECOGNIZED_HEADER);
+        u.setLocalFileDataData(new byte[] { 1, 2 });
+        u.setCentralDirectoryData(new byte[] { 3 });
+        final ZipExtraField[] fields = { timestamp, u };
+        final byte[] central = ExtraFieldUtils.mergeCentralDirectoryData(fields);
+        final byte[] local = ExtraFieldUtils.mergeLocalFileDataData(fields);
+
+        final ZipArchiveEntry expected = new ZipArchiveEntry("test");
+        expected.setCentralDirectoryExtra(central);
+        expected.setExtra(local);
+
+        final ZipArchiveEntry deferred = new ZipArchiveEntry("test");
+        deferred.deferExtra(central, null);
+        deferred.deferExtra(null, local);
+        assertNull(FieldUtils.readDeclaredField(deferred, "extraFields", true));
+        assertEquals(expected.getLastModifiedTime(), deferred.getLastModifiedTime());
+        assertNotNull(FieldUtils.readDeclaredField(deferred, "extraFields", true));
+        assertEquals(expected, deferred);
+        assertArrayEquals(expected.getCentralDirectoryExtra(), deferred.getCentralDirectoryExtra());
+        assertArrayEquals(expected.getLocalFileDataExtra(), deferred.getLocalFileDataExtra());
+        assertEquals(2, deferred.getExtraFields().length);
+
+        // replaced before being parsed
+        final ZipArchiveEntry replaced = new ZipArchiveEntry("test");
+        replaced.deferExtra(central, local);
+        replaced.setExtraFields(new ZipExtraField[] { u });
+        assertEquals(1, replaced.getExtraFields().length);
+        assertNull(replaced.getExtraField(X5455_ExtendedTimestamp.HEADER_ID));
+    }
+
     @Test
     void testDraconicThrowsOnUnparseableExtraData() throws Exception {
         final ZipExtraField[] extraFields = parsingModeBehaviorTestData();
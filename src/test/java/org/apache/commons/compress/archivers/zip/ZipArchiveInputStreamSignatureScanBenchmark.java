@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares searching STORED entry data for the signature following it byte by byte, like {@link ZipArchiveInputStream} used to, and eight bytes at a time.
+ * <p>
+ * Run this test: mvn clean test -Pbenchmark -Dbenchmark=ZipArchiveInputStreamSignatureScanBenchmark
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ZipArchiveInputStreamSignatureScanBenchmark {
+
+    @Param({ "1048576", "16777216" })
+    private int size;
+
+    private byte[] data;
+
+    private ByteBuffer littleEndian;
+
+    private byte[] archive;
+
+    /**
+     * Finds the next "PK" like the loop of {@code ZipArchiveInputStream.bufferContainsSignature} did.
+     */
+    @Benchmark
+    public int scanBytewise() {
+        int found = 0;
+        for (int i = 0; i < data.length - 4; i++) {
+            if (data[i] == 'P' && data[i + 1] == 'K') {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int scanWordwise() {
+        int found = 0;
+        for (int i = ZipArchiveInputStream.indexOfSignature(littleEndian, 0, data.length - 4); i >= 0;
+                i = ZipArchiveInputStream.indexOfSignature(littleEndian, i + 1, data.length - 4)) {
+            found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public long readStoredEntryWithDataDescriptor() throws IOException {
+        try (ZipArchiveInputStream in = ZipArchiveInputStream.builder().setByteArray(archive).setSupportStoredEntryDataDescriptor(true).get()) {
+            in.getNextZipEntry();
+            return IOUtils.copy(in, NullOutputStream.INSTANCE);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        data = new byte[size];
+        new Random(42).nextBytes(data);
+        // no complete signature in the data
+        for (int i = 0; i < data.length - 1; i++) {
+            if (data[i] == 'P' && data[i + 1] == 'K') {
+                data[i + 1] = 0;
+            }
+        }
+        littleEndian = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        archive = ZipArchiveInputStreamTest.forgeStoredEntryWithDataDescriptor(data);
+    }
+}
@@ -38,6 +38,8 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.Channels;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
@@ -45,6 +47,8 @@
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 
@@ -163,6 +167,38 @@ private InputStream forgeZipInputStream() throws IOException {
         }
     }
 
+    /**
+     * Writes a single STORED entry and moves its CRC and sizes into a data descriptor with signature.
+     */
+    static byte[] forgeStoredEntryWithDataDescriptor(final byte[] data) throws IOException {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream zo = new ZipArchiveOutputStream(byteArrayOutputStream)) {
+            final ZipArchiveEntry entry = new ZipArchiveEntry("foo");
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            final CRC32 crc = new CRC32();
+            crc.update(data);
+            entry.setCrc(crc.getValue());
+            // no extra fields
+            entry.setTime(Instant.parse("2022-12-26T17:01:00Z").toEpochMilli());
+            zo.putArchiveEntry(entry);
+            zo.write(data);
+            zo.closeArchiveEntry();
+        }
+        final byte[] zipContent = byteArrayOutputStream.toByteArray();
+        final int dataEnd = 33 + data.length;
+        final ByteArrayOutputStream forged = new ByteArrayOutputStream();
+        forged.write(zipContent, 0, dataEnd);
+        forged.write(ZipArchiveOutputStream.DD_SIG);
+        // CRC-32, compressed size and uncompressed size
+        forged.write(zipContent, 14, 12);
+        forged.write(zipContent, dataEnd, zipContent.length - dataEnd);
+        final byte[] result = forged.toByteArray();
+        // set the data descriptor bit of the general purpose bit flag
+        result[6] = 8;
+        return result;
+    }
+
     private void fuzzingTest(final int[] bytes) throws Exception {
         final byte[] input = toByteArray(bytes);
         try (ArchiveInputStream<?> ais = ArchiveStreamFactory.DEFAULT.createArchiveInputStream("zip", new ByteArrayInputStream(input))) {
@@ -246,6 +282,29 @@ void testGetUncompressedCountEmptyZip() throws IOException {
         }
     }
 
+    @Test
+    void testIndexOfSignature() {
+        final Random random = new Random(42);
+        final byte[] alphabet = { 'P', 'K', 'P', 3, 0 };
+        for (int run = 0; run < 1000; run++) {
+            final byte[] data = new byte[random.nextInt(100) + 2];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            final ByteBuffer littleEndian = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+            final int from = random.nextInt(data.length);
+            final int to = from + random.nextInt(data.length - from);
+            int expected = -1;
+            for (int i = from; i < to; i++) {
+                if (data[i] == 'P' && data[i + 1] == 'K') {
+                    expected = i;
+                    break;
+                }
+            }
+            assertEquals(expected, ZipArchiveInputStream.indexOfSignature(littleEndian, from, to), () -> Arrays.toString(data) + " " + from + " " + to);
+        }
+    }
+
     /**
      * Test case for <a href="https://issues.apache.org/jira/browse/COMPRESS-351">COMPRESS-351</a>.
      */
@@ -413,6 +472,27 @@ void testProperlyReadsStoredEntryWithDataDescriptorWithSignature() throws IOExce
         }
     }
 
+    @Test
+    void testInflaterPool() throws Exception {
+        final byte[] expected;
+        try (ZipArchiveInputStream in = ZipArchiveInputStream.builder().setURI(getURI("mixed.zip")).get()) {
+            assertEquals("inflated.txt", in.getNextZipEntry().getName());
+            expected = IOUtils.toByteArray(in);
+        }
+        try (InflaterPool pool = new InflaterPool(1)) {
+            for (int i = 0; i < 3; i++) {
+                try (ZipArchiveInputStream in = ZipArchiveInputStream.builder().setURI(getURI("mixed.zip")).setInflaterPool(pool).get()) {
+                    assertEquals(0, pool.getIdleCount());
+                    assertEquals("inflated.txt", in.getNextZipEntry().getName());
+                    assertArrayEquals(expected, IOUtils.toByteArray(in));
+                }
+                assertEquals(1, pool.getIdleCount());
+            }
+            assertEquals(1, pool.getMissCount());
+            assertEquals(2, pool.getHitCount());
+        }
+    }
+
     /**
      * @see "https://issues.apache.org/jira/browse/COMPRESS-189"
      */
@@ -665,6 +745,60 @@ void testSplitZipCreatedByZipThrowsException() throws IOException {
         }
     }
 
+    @Test
+    void testStreamsLargeStoredEntryWithDataDescriptor() throws IOException {
+        final Random random = new Random(42);
+        final byte[] data = new byte[1_000_003];
+        random.nextBytes(data);
+        // many "PK" and partial signatures, none of a complete signature
+        for (int i = 0; i < data.length - 3; i += 1 + random.nextInt(600)) {
+            data[i] = 'P';
+            data[i + 1] = 'K';
+            data[i + 2] = (byte) random.nextInt(9);
+            data[i + 3] = 0;
+        }
+        for (int i = 0; i < data.length - 3; i++) {
+            if (data[i] == 'P' && data[i + 1] == 'K' && (data[i + 2] == 1 || data[i + 2] == 3 || data[i + 2] == 7) && data[i + 3] == data[i + 2] + 1) {
+                data[i + 3] = 0;
+            }
+        }
+        try (ZipArchiveInputStream archive = ZipArchiveInputStream.builder()
+                .setByteArray(forgeStoredEntryWithDataDescriptor(data))
+                .setSupportStoredEntryDataDescriptor(true)
+                .get()) {
+            final ZipArchiveEntry entry = archive.getNextZipEntry();
+            assertEquals(-1, entry.getSize());
+            final byte[] head = new byte[1000];
+            assertEquals(head.length, IOUtils.read(archive, head));
+            // only a buffer is read ahead
+            assertEquals(-1, entry.getSize());
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            actual.write(head);
+            IOUtils.copy(archive, actual);
+            assertArrayEquals(data, actual.toByteArray());
+            assertEquals(data.length, entry.getSize());
+            assertEquals(data.length, archive.getCompressedCount());
+            assertNull(archive.getNextZipEntry());
+        }
+    }
+
+    @Test
+    void testThrowsOnStoredEntryWithTruncatedDataDescriptor() throws IOException {
+        final byte[] forged = forgeStoredEntryWithDataDescriptor("ab".getBytes(StandardCharsets.US_ASCII));
+        // drop the data descriptor, so the central directory follows the data right away
+        final int dataEnd = 33 + 2;
+        final byte[] truncated = new byte[forged.length - 16];
+        System.arraycopy(forged, 0, truncated, 0, dataEnd);
+        System.arraycopy(forged, dataEnd + 16, truncated, dataEnd, forged.length - dataEnd - 16);
+        try (ZipArchiveInputStream archive = ZipArchiveInputStream.builder()
+                .setByteArray(truncated)
+                .setSupportStoredEntryDataDescriptor(true)
+                .get()) {
+            archive.getNextZipEntry();
+            assertThrows(ZipException.class, () -> IOUtils.toByteArray(archive));
+        }
+    }
+
     /**
      * {@code getNextZipEntry()} should throw a {@code ZipException} rather than return {@code null} when an unexpected structure is encountered.
      */
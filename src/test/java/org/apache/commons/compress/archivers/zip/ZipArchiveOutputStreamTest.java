@@ -18,18 +18,35 @@
  */
 package org.apache.commons.compress.archivers.zip;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 
 import org.apache.commons.compress.AbstractTempDirTest;
+import org.apache.commons.compress.compressors.deflate.DeflaterPool;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -37,6 +54,219 @@
  */
 class ZipArchiveOutputStreamTest extends AbstractTempDirTest {
 
+    private static void writeEntry(final ZipArchiveOutputStream zos, final String name, final int method, final byte[] data) throws IOException {
+        final ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setMethod(method);
+        if (method == ZipEntry.STORED) {
+            final CRC32 crc = new CRC32();
+            crc.update(data);
+            entry.setSize(data.length);
+            entry.setCrc(crc.getValue());
+        }
+        zos.putArchiveEntry(entry);
+        zos.write(data);
+        zos.closeArchiveEntry();
+    }
+
+    @Test
+    void testAppend() throws IOException {
+        final byte[] text = AdaptiveMethodPolicyTest.text(100_000);
+        final byte[] random = AdaptiveMethodPolicyTest.randomBytes(10_000, 256);
+        // written without random access, so the first entry uses a data descriptor
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(bytes)) {
+            zos.writePreamble(new byte[] { 'M', 'Z' });
+            zos.setComment("the comment");
+            writeEntry(zos, "a.txt", ZipEntry.DEFLATED, text);
+            writeEntry(zos, "b.bin", ZipEntry.STORED, random);
+        }
+        final File file = createTempFile("append", ".zip");
+        Files.write(file.toPath(), bytes.toByteArray());
+        final long centralDirectoryStart;
+        try (ZipFile zipFile = ZipFile.builder().setFile(file).get()) {
+            centralDirectoryStart = zipFile.getCentralDirectoryStartOffset();
+        }
+        try (ZipArchiveOutputStream zos = ZipArchiveOutputStream.append(file.toPath())) {
+            assertEquals(centralDirectoryStart, zos.getBytesWritten());
+            writeEntry(zos, "c.txt", ZipEntry.DEFLATED, text);
+        }
+        // appending nothing rewrites the central directory only
+        try (ZipArchiveOutputStream zos = ZipArchiveOutputStream.append(file.toPath())) {
+            zos.setComment("the new comment");
+        }
+        try (ZipArchiveOutputStream zos = ZipArchiveOutputStream.append(file.toPath())) {
+            writeEntry(zos, "d.bin", ZipEntry.STORED, random);
+        }
+        final byte[] appended = Files.readAllBytes(file.toPath());
+        // the existing entries are untouched
+        assertArrayEquals(Arrays.copyOf(bytes.toByteArray(), (int) centralDirectoryStart), Arrays.copyOf(appended, (int) centralDirectoryStart));
+        try (ZipFile zipFile = ZipFile.builder().setFile(file).get()) {
+            final List<String> names = new ArrayList<>();
+            zipFile.stream().forEach(entry -> names.add(entry.getName()));
+            assertEquals(Arrays.asList("a.txt", "b.bin", "c.txt", "d.bin"), names);
+            for (final String name : names) {
+                try (InputStream in = zipFile.getInputStream(zipFile.getEntry(name))) {
+                    assertArrayEquals(name.endsWith(".txt") ? text : random, IOUtils.toByteArray(in));
+                }
+            }
+        }
+        try (ZipArchiveInputStream in = new ZipArchiveInputStream(Files.newInputStream(file.toPath()))) {
+            int count = 0;
+            while (in.getNextEntry() != null) {
+                count++;
+            }
+            assertEquals(4, count);
+        }
+        // the comment set last survives
+        try (SeekableByteChannel channel = Files.newByteChannel(file.toPath())) {
+            assertEquals("the new comment", new String(ZipFile.readArchiveComment(channel), StandardCharsets.UTF_8));
+        }
+        assertThrows(IOException.class, () -> ZipArchiveOutputStream.append(createTempFile("empty", ".zip").toPath()));
+    }
+
+    @Test
+    void testCentralDirectorySpill() throws IOException {
+        // more entries than fit into the end of central directory record
+        final int count = 70_000;
+        final Path spillDir = Files.createDirectories(getTempDirPath().resolve("spill"));
+        final File[] files = new File[2];
+        for (int run = 0; run < files.length; run++) {
+            files[run] = createTempFile("spill", ".zip");
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(files[run])) {
+                if (run == 1) {
+                    zos.setCentralDirectorySpillDirectory(spillDir);
+                }
+                for (int i = 0; i < count; i++) {
+                    final ZipArchiveEntry entry = new ZipArchiveEntry("entry-" + i);
+                    entry.setTime(0);
+                    zos.putArchiveEntry(entry);
+                    zos.write(("content " + i).getBytes(StandardCharsets.UTF_8));
+                    zos.closeArchiveEntry();
+                }
+                if (run == 1) {
+                    try (Stream<Path> spilled = Files.list(spillDir)) {
+                        assertEquals(1, spilled.count());
+                    }
+                }
+            }
+        }
+        try (Stream<Path> spilled = Files.list(spillDir)) {
+            assertEquals(0, spilled.count());
+        }
+        assertArrayEquals(Files.readAllBytes(files[0].toPath()), Files.readAllBytes(files[1].toPath()));
+        // streamed with data descriptors
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(bytes)) {
+            zos.setCentralDirectorySpillDirectory(spillDir);
+            for (int i = 0; i < count; i++) {
+                writeEntry(zos, "entry-" + i, ZipEntry.DEFLATED, ("content " + i).getBytes(StandardCharsets.UTF_8));
+            }
+            assertThrows(IllegalStateException.class, () -> zos.setCentralDirectorySpillDirectory(spillDir));
+        }
+        try (ZipFile zipFile = ZipFile.builder().setByteArray(bytes.toByteArray()).get()) {
+            assertEquals(count, zipFile.stream().count());
+            final ZipArchiveEntry last = zipFile.getEntry("entry-" + (count - 1));
+            try (InputStream in = zipFile.getInputStream(last)) {
+                assertEquals("content " + (count - 1), new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8));
+            }
+        }
+        try (Stream<Path> spilled = Files.list(spillDir)) {
+            assertEquals(0, spilled.count());
+        }
+    }
+
+    @Test
+    void testComputeArchiveSize() throws IOException {
+        final byte[][] data = new byte[5][];
+        final Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new byte[1000 * i + 17];
+            random.nextBytes(data[i]);
+        }
+        for (final Zip64Mode mode : new Zip64Mode[] { Zip64Mode.AsNeeded, Zip64Mode.Always }) {
+            final List<ZipArchiveEntry> planned = new ArrayList<>();
+            for (int i = 0; i < data.length; i++) {
+                final ZipArchiveEntry entry = new ZipArchiveEntry(i == 1 ? "\u00e4\u00f6\u00fc-" + i : "entry-" + i);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(data[i].length);
+                if (i % 2 == 0) {
+                    // the others have their CRC written to data descriptors
+                    final CRC32 crc = new CRC32();
+                    crc.update(data[i]);
+                    entry.setCrc(crc.getValue());
+                }
+                if (i == 3) {
+                    entry.setAlignment(1024);
+                }
+                planned.add(entry);
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final long size;
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(bytes)) {
+                zos.setUseZip64(mode);
+                zos.setCreateUnicodeExtraFields(ZipArchiveOutputStream.UnicodeExtraFieldPolicy.ALWAYS);
+                zos.setComment("planned");
+                size = zos.computeArchiveSize(planned);
+                for (int i = 0; i < data.length; i++) {
+                    zos.putArchiveEntry(planned.get(i));
+                    zos.write(data[i]);
+                    zos.closeArchiveEntry();
+                }
+                assertThrows(IllegalStateException.class, () -> zos.computeArchiveSize(planned));
+            }
+            assertEquals(size, bytes.size());
+            try (ZipFile zipFile = ZipFile.builder().setByteArray(bytes.toByteArray()).get()) {
+                for (int i = 0; i < data.length; i++) {
+                    final ZipArchiveEntry entry = zipFile.getEntry(planned.get(i).getName());
+                    assertEquals(i % 2 != 0, entry.getGeneralPurposeBit().usesDataDescriptor());
+                    try (InputStream in = zipFile.getInputStream(entry)) {
+                        assertArrayEquals(data[i], IOUtils.toByteArray(in));
+                    }
+                }
+            }
+        }
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(createTempFile("seekable", ".zip"))) {
+            assertThrows(IllegalStateException.class, () -> zos.computeArchiveSize(new ArrayList<>()));
+        }
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(new ByteArrayOutputStream())) {
+            final ZipArchiveEntry deflated = new ZipArchiveEntry("deflated");
+            deflated.setMethod(ZipEntry.DEFLATED);
+            deflated.setSize(1);
+            assertThrows(IllegalArgumentException.class, () -> zos.computeArchiveSize(Arrays.asList(deflated)));
+            // an entry too big for a ZIP without Zip64 extensions
+            final ZipArchiveEntry big = new ZipArchiveEntry("big");
+            big.setMethod(ZipEntry.STORED);
+            big.setSize(5_000_000_000L);
+            assertTrue(zos.computeArchiveSize(Arrays.asList(big)) > big.getSize());
+            zos.setUseZip64(Zip64Mode.Never);
+            assertThrows(Zip64RequiredException.class, () -> zos.computeArchiveSize(Arrays.asList(big)));
+        }
+    }
+
+    @Test
+    void testDeflaterPool() throws IOException {
+        final byte[] data = "Hello, world. Hello, world.".getBytes(StandardCharsets.US_ASCII);
+        try (DeflaterPool pool = new DeflaterPool(1)) {
+            for (int i = 0; i < 2; i++) {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(bytes, pool)) {
+                    zos.putArchiveEntry(new ZipArchiveEntry("test.txt"));
+                    zos.write(data);
+                    zos.closeArchiveEntry();
+                }
+                final File file = createTempFile();
+                Files.write(file.toPath(), bytes.toByteArray());
+                try (ZipFile zipFile = ZipFile.builder().setFile(file).get();
+                        InputStream in = zipFile.getInputStream(zipFile.getEntry("test.txt"))) {
+                    assertArrayEquals(data, IOUtils.toByteArray(in));
+                }
+            }
+            assertEquals(1, pool.getMissCount());
+            assertEquals(1, pool.getHitCount());
+            assertEquals(1, pool.getIdleCount());
+        }
+    }
+
     @Test
     void testFileBasics() throws IOException {
         final ZipArchiveOutputStream ref;
@@ -47,6 +277,54 @@ void testFileBasics() throws IOException {
         assertTrue(ref.isClosed());
     }
 
+    @Test
+    void testMethodPolicy() throws IOException {
+        final byte[] text = AdaptiveMethodPolicyTest.text(100_000);
+        final byte[] random = AdaptiveMethodPolicyTest.randomBytes(100_000, 256);
+        final byte[] smallRandom = AdaptiveMethodPolicyTest.randomBytes(10_000, 256);
+        final AdaptiveMethodPolicy policy = new AdaptiveMethodPolicy(16 * 1024, true);
+        final File file = createTempFile();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream seekable = new ZipArchiveOutputStream(file);
+                ZipArchiveOutputStream streamed = new ZipArchiveOutputStream(bytes)) {
+            for (final ZipArchiveOutputStream zos : new ZipArchiveOutputStream[] { seekable, streamed }) {
+                zos.setMethodPolicy(policy);
+                for (final byte[] data : new byte[][] { text, random, smallRandom }) {
+                    zos.putArchiveEntry(new ZipArchiveEntry("entry-" + data.length + "-" + data[0]));
+                    for (int off = 0; off < data.length; off += 5000) {
+                        zos.write(data, off, Math.min(5000, data.length - off));
+                    }
+                }
+                // the method of an entry is respected
+                final ZipArchiveEntry deflated = new ZipArchiveEntry("deflated");
+                deflated.setMethod(ZipEntry.DEFLATED);
+                zos.putArchiveEntry(deflated);
+                zos.write(random);
+                zos.closeArchiveEntry();
+            }
+        }
+        assertEquals(3, policy.getCount(AdaptiveMethodPolicy.Decision.STORE));
+        assertEquals(1, policy.getCount(AdaptiveMethodPolicy.Decision.DEFLATE_NO_COMPRESSION));
+        assertEquals(2, policy.getCount(AdaptiveMethodPolicy.Decision.DEFLATE));
+        final File streamedFile = createTempFile();
+        Files.write(streamedFile.toPath(), bytes.toByteArray());
+        for (final File archive : new File[] { file, streamedFile }) {
+            try (ZipFile zipFile = ZipFile.builder().setFile(archive).get()) {
+                final boolean isSeekable = archive == file;
+                final int[] expectedMethods = { ZipEntry.DEFLATED, isSeekable ? ZipEntry.STORED : ZipEntry.DEFLATED, ZipEntry.STORED };
+                final byte[][] expectedData = { text, random, smallRandom };
+                for (int i = 0; i < expectedData.length; i++) {
+                    final ZipArchiveEntry entry = zipFile.getEntry("entry-" + expectedData[i].length + "-" + expectedData[i][0]);
+                    assertEquals(expectedMethods[i], entry.getMethod(), entry.getName());
+                    try (InputStream in = zipFile.getInputStream(entry)) {
+                        assertArrayEquals(expectedData[i], IOUtils.toByteArray(in));
+                    }
+                }
+                assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("deflated").getMethod());
+            }
+        }
+    }
+
     @Test
     void testOptionDefaults() throws IOException {
         final ZipArchiveOutputStream ref;
@@ -68,6 +346,96 @@ void testOutputStreamBasics() throws IOException {
         }
     }
 
+    @Test
+    void testParallelDeflate() throws IOException {
+        final Random random = new Random(42);
+        final StringBuilder text = new StringBuilder();
+        while (text.length() < 1_500_000) {
+            text.append("line ").append(random.nextInt(10_000)).append(' ').append(random.nextInt(100)).append('\n');
+        }
+        final byte[] large = text.toString().getBytes(StandardCharsets.US_ASCII);
+        final byte[] small = "small".getBytes(StandardCharsets.US_ASCII);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final File file = createTempFile();
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ZipArchiveOutputStream seekable = new ZipArchiveOutputStream(file);
+                    ZipArchiveOutputStream streamed = new ZipArchiveOutputStream(bytes)) {
+                for (final ZipArchiveOutputStream zos : new ZipArchiveOutputStream[] { seekable, streamed }) {
+                    zos.setParallelDeflate(executor, 64 * 1024, 3);
+                    for (final byte[] data : new byte[][] { large, small, large, new byte[0] }) {
+                        zos.putArchiveEntry(new ZipArchiveEntry("entry-" + data.length));
+                        // odd chunk sizes so writes straddle blocks
+                        for (int off = 0; off < data.length; off += 10_007) {
+                            zos.write(data, off, Math.min(10_007, data.length - off));
+                        }
+                        zos.closeArchiveEntry();
+                    }
+                }
+            }
+            final File streamedFile = createTempFile();
+            Files.write(streamedFile.toPath(), bytes.toByteArray());
+            for (final File archive : new File[] { file, streamedFile }) {
+                try (ZipFile zipFile = ZipFile.builder().setFile(archive).get()) {
+                    for (final ZipArchiveEntry entry : zipFile.getEntries("entry-" + large.length)) {
+                        final CRC32 crc = new CRC32();
+                        crc.update(large);
+                        assertEquals(crc.getValue(), entry.getCrc());
+                        assertEquals(large.length, entry.getSize());
+                        try (InputStream in = zipFile.getInputStream(entry)) {
+                            assertArrayEquals(large, IOUtils.toByteArray(in));
+                        }
+                    }
+                    try (InputStream in = zipFile.getInputStream(zipFile.getEntry("entry-" + small.length))) {
+                        assertArrayEquals(small, IOUtils.toByteArray(in));
+                    }
+                    assertEquals(0, zipFile.getEntry("entry-0").getSize());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testParallelDeflateMultipleOfBlockSize() throws IOException {
+        final int blockSize = 64 * 1024;
+        final Random random = new Random(42);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final File file = createTempFile();
+            final List<byte[]> contents = new ArrayList<>();
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(file)) {
+                zos.setParallelDeflate(executor, blockSize, 2);
+                for (int blocks = 1; blocks <= 4; blocks++) {
+                    final byte[] data = new byte[blocks * blockSize];
+                    for (int i = 0; i < data.length; i++) {
+                        data[i] = (byte) ('a' + random.nextInt(8));
+                    }
+                    contents.add(data);
+                    zos.putArchiveEntry(new ZipArchiveEntry("entry-" + blocks));
+                    zos.write(data);
+                    zos.closeArchiveEntry();
+                }
+            }
+            try (ZipFile zipFile = ZipFile.builder().setFile(file).get()) {
+                for (int blocks = 1; blocks <= 4; blocks++) {
+                    final byte[] data = contents.get(blocks - 1);
+                    final ZipArchiveEntry entry = zipFile.getEntry("entry-" + blocks);
+                    final CRC32 crc = new CRC32();
+                    crc.update(data);
+                    assertEquals(crc.getValue(), entry.getCrc());
+                    assertEquals(data.length, entry.getSize());
+                    try (InputStream in = zipFile.getInputStream(entry)) {
+                        assertArrayEquals(data, IOUtils.toByteArray(in));
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void testSetEncoding() throws IOException {
         try (ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(createTempFile())) {
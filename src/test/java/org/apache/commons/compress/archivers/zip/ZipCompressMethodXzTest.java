@@ -18,10 +18,12 @@
  */
 package org.apache.commons.compress.archivers.zip;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -33,6 +35,7 @@
 import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
 import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
 import org.apache.commons.compress.compressors.xz.XZUtils;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -58,6 +61,41 @@ private static void compress(final InputStream input, final OutputStream output)
         outputStream.flush();
     }
 
+    @Test
+    void testXzCompression() throws IOException {
+        final byte[] text = AdaptiveMethodPolicyTest.text(100_000);
+        final Path file = tempDir.resolve("testXzCompression.zip");
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        // seekable and with data descriptor
+        try (ZipArchiveOutputStream fileOutputStream = new ZipArchiveOutputStream(file);
+                ZipArchiveOutputStream streamOutputStream = new ZipArchiveOutputStream(stream)) {
+            for (final ZipArchiveOutputStream zipOutputStream : new ZipArchiveOutputStream[] { fileOutputStream, streamOutputStream }) {
+                zipOutputStream.setXzCompression(1);
+                final ZipArchiveEntry archiveEntry = new ZipArchiveEntry("text.txt");
+                archiveEntry.setMethod(ZipMethod.XZ.getCode());
+                zipOutputStream.putArchiveEntry(archiveEntry);
+                zipOutputStream.write(text);
+                zipOutputStream.closeArchiveEntry();
+                assertEquals(text.length, archiveEntry.getSize());
+                assertTrue(archiveEntry.getCompressedSize() < text.length / 10);
+            }
+        }
+        try (ZipFile zipFile = ZipFile.builder().setPath(file).get()) {
+            final ZipArchiveEntry entry = zipFile.getEntry("text.txt");
+            assertEquals(ZipMethod.XZ.getCode(), entry.getMethod());
+            try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                assertArrayEquals(text, IOUtils.toByteArray(inputStream));
+            }
+        }
+        try (ZipFile zipFile = ZipFile.builder().setSeekableByteChannel(new SeekableInMemoryByteChannel(stream.toByteArray())).get()) {
+            final ZipArchiveEntry entry = zipFile.getEntry("text.txt");
+            assertTrue(entry.getGeneralPurposeBit().usesDataDescriptor());
+            try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                assertArrayEquals(text, IOUtils.toByteArray(inputStream));
+            }
+        }
+    }
+
     @Test
     void testXzInputStream() throws IOException {
         // The file test-method-xz.zip was created with:
@@ -18,10 +18,12 @@
  */
 package org.apache.commons.compress.archivers.zip;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -29,11 +31,13 @@
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 import org.apache.commons.compress.AbstractTest;
 import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
 import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
 import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -57,6 +61,48 @@ private static void compress(final InputStream input, final OutputStream output)
         outputStream.flush();
     }
 
+    @ParameterizedTest
+    @EnumSource(names = { "ZSTD", "ZSTD_DEPRECATED" })
+    void testZstdCompression(final ZipMethod zipMethod) throws IOException {
+        final byte[] text = AdaptiveMethodPolicyTest.text(1_000_000);
+        final File file = Files.createTempFile("", ".zip").toFile();
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        // seekable and with data descriptor
+        try (ZipArchiveOutputStream fileOutputStream = new ZipArchiveOutputStream(file);
+                ZipArchiveOutputStream streamOutputStream = new ZipArchiveOutputStream(stream)) {
+            for (final ZipArchiveOutputStream zipOutputStream : new ZipArchiveOutputStream[] { fileOutputStream, streamOutputStream }) {
+                zipOutputStream.setZstdCompression(DEFAULT_LEVEL, 2);
+                for (final int length : new int[] { text.length, 0 }) {
+                    final ZipArchiveEntry archiveEntry = new ZipArchiveEntry("text-" + length + ".txt");
+                    archiveEntry.setMethod(zipMethod.getCode());
+                    zipOutputStream.putArchiveEntry(archiveEntry);
+                    zipOutputStream.write(text, 0, length);
+                    zipOutputStream.closeArchiveEntry();
+                    assertEquals(length, archiveEntry.getSize());
+                }
+            }
+        }
+        try (ZipFile zipFile = ZipFile.builder().setFile(file).get()) {
+            for (final int length : new int[] { text.length, 0 }) {
+                final ZipArchiveEntry entry = zipFile.getEntry("text-" + length + ".txt");
+                assertEquals(zipMethod.getCode(), entry.getMethod());
+                assertTrue(entry.getCompressedSize() < Math.max(length / 10, 100));
+                try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                    assertArrayEquals(Arrays.copyOf(text, length), IOUtils.toByteArray(inputStream));
+                }
+            }
+        }
+        try (ZipFile zipFile = ZipFile.builder().setSeekableByteChannel(new SeekableInMemoryByteChannel(stream.toByteArray())).get()) {
+            for (final int length : new int[] { text.length, 0 }) {
+                final ZipArchiveEntry entry = zipFile.getEntry("text-" + length + ".txt");
+                assertTrue(entry.getGeneralPurposeBit().usesDataDescriptor());
+                try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                    assertArrayEquals(Arrays.copyOf(text, length), IOUtils.toByteArray(inputStream));
+                }
+            }
+        }
+    }
+
     @Test
     void testZstdInputStream() throws IOException {
         final Path file = getPath("COMPRESS-692/compress-692.zip");
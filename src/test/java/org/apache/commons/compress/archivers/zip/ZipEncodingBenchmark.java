@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares decoding and encoding the names of a million entries with {@link NioZipEncoding} and with a new {@link java.nio.charset.CharsetDecoder} or
+ * {@link CharsetEncoder} per name, like {@link NioZipEncoding} used to.
+ * <p>
+ * Run this test: mvn clean test -Pbenchmark -Dbenchmark=ZipEncodingBenchmark
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ZipEncodingBenchmark {
+
+    private static final int ENTRIES = 1_000_000;
+
+    /** Whether the names contain non-ASCII characters. */
+    @Param({ "false", "true" })
+    private boolean unicode;
+
+    private String[] names;
+
+    private byte[][] encodedNames;
+
+    private NioZipEncoding encoding;
+
+    @Benchmark
+    public int decode() throws IOException {
+        int length = 0;
+        for (final byte[] name : encodedNames) {
+            length += encoding.decode(name).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int decodeWithNewDecoder() throws IOException {
+        int length = 0;
+        for (final byte[] name : encodedNames) {
+            length += StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .replaceWith("?").decode(ByteBuffer.wrap(name)).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int encode() {
+        int length = 0;
+        for (final String name : names) {
+            length += encoding.encode(name).limit();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int encodeWithNewEncoder() {
+        int length = 0;
+        for (final String name : names) {
+            final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE).replaceWith(new byte[] { '?' });
+            final ByteBuffer out = ByteBuffer.allocate((int) Math.ceil(encoder.maxBytesPerChar() + (name.length() - 1) * encoder.averageBytesPerChar()));
+            encoder.encode(CharBuffer.wrap(name), out, true);
+            length += out.position();
+        }
+        return length;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        encoding = new NioZipEncoding(StandardCharsets.UTF_8);
+        names = new String[ENTRIES];
+        encodedNames = new byte[ENTRIES][];
+        for (int i = 0; i < ENTRIES; i++) {
+            names[i] = "src/main/java/org/example/" + (unicode ? "\u00fcbersicht-" : "overview-") + i % 1000 + "/Entry" + i + ".java";
+            encodedNames[i] = names[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -19,9 +19,17 @@
 
 package org.apache.commons.compress.archivers.zip;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.util.Arrays;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -30,6 +38,51 @@
  */
 class ZipEncodingHelperTest {
 
+    private static void assertDecodeUtf8LikeDecoder(final CharsetDecoder decoder, final byte... data) {
+        String expected;
+        try {
+            expected = decoder.decode(ByteBuffer.wrap(data)).toString();
+        } catch (final CharacterCodingException e) {
+            expected = null;
+        }
+        assertEquals(expected, ZipEncodingHelper.decodeUtf8(data, ZipEncodingHelper.countAscii(data)), () -> Arrays.toString(data));
+    }
+
+    @Test
+    void testCountAscii() {
+        final byte[] data = new byte[40];
+        Arrays.fill(data, (byte) 'a');
+        assertEquals(data.length, ZipEncodingHelper.countAscii(data));
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) 0x80;
+            assertEquals(i, ZipEncodingHelper.countAscii(data));
+            assertEquals(i, ZipEncodingHelper.countAscii(Arrays.copyOf(data, i + 1)));
+            data[i] = 'a';
+        }
+        assertEquals(0, ZipEncodingHelper.countAscii(new byte[0]));
+    }
+
+    @Test
+    void testDecodeUtf8LikeDecoder() {
+        final CharsetDecoder decoder = UTF_8.newDecoder();
+        // all sequences of up to two bytes and longer ones with any lead and second byte
+        for (int b1 = 0; b1 < 256; b1++) {
+            assertDecodeUtf8LikeDecoder(decoder, (byte) b1);
+            for (int b2 = 0; b2 < 256; b2++) {
+                assertDecodeUtf8LikeDecoder(decoder, (byte) b1, (byte) b2);
+                assertDecodeUtf8LikeDecoder(decoder, (byte) b1, (byte) b2, (byte) 0x80);
+                assertDecodeUtf8LikeDecoder(decoder, (byte) 'a', (byte) b1, (byte) b2, (byte) 0xBF, (byte) 0x80, (byte) 'b');
+            }
+        }
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            final byte[] data = new byte[1 + random.nextInt(12)];
+            random.nextBytes(data);
+            assertDecodeUtf8LikeDecoder(decoder, data);
+        }
+        assertDecodeUtf8LikeDecoder(decoder, "src/\u00fcbersicht/\u20ac/\ud83c\udf08.txt".getBytes(UTF_8));
+    }
+
     @Test
     void testGetZipEncodingForDefault() {
         assertEquals(Charset.defaultCharset(), ((NioZipEncoding) ZipEncodingHelper.getZipEncoding(Charset.defaultCharset().name())).getCharset());
@@ -50,4 +103,12 @@ void testGetZipEncodingForNull() {
     void testGetZipEncodingForUnknown() {
         assertEquals(Charset.defaultCharset(), ((NioZipEncoding) ZipEncodingHelper.getZipEncoding("X")).getCharset());
     }
+
+    @Test
+    void testIsWellFormed() {
+        assertTrue(ZipEncodingHelper.isWellFormed("a\ud83c\udf08b"));
+        assertFalse(ZipEncodingHelper.isWellFormed("a\ud83c"));
+        assertFalse(ZipEncodingHelper.isWellFormed("\ud83ca"));
+        assertFalse(ZipEncodingHelper.isWellFormed("\udf08\ud83c"));
+    }
 }
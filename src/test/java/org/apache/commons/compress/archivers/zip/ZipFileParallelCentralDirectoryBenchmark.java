@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares opening archives with many entries with a central directory parsed on one or on multiple threads.
+ * <p>
+ * Run this test: mvn clean test -Pbenchmark -Dbenchmark=ZipFileParallelCentralDirectoryBenchmark
+ * </p>
+ * <p>
+ * Use {@code -Djava.util.concurrent.ForkJoinPool.common.parallelism=N} to see how parsing scales with the number of threads.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ZipFileParallelCentralDirectoryBenchmark {
+
+    @Param({ "100000", "1000000" })
+    private int entryCount;
+
+    private Path archive;
+
+    @Benchmark
+    public ZipFile openParallel() throws IOException {
+        try (ZipFile zipFile = ZipFile.builder().setPath(archive).setIgnoreLocalFileHeader(true).setParallelCentralDirectoryParsing(true).get()) {
+            return zipFile;
+        }
+    }
+
+    @Benchmark
+    public ZipFile openSequential() throws IOException {
+        try (ZipFile zipFile = ZipFile.builder().setPath(archive).setIgnoreLocalFileHeader(true).setBulkReadCentralDirectory(true).get()) {
+            return zipFile;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        archive = Paths.get("target/parallel-central-directory-" + entryCount + ".zip");
+        if (Files.exists(archive)) {
+            return;
+        }
+        final byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archive)) {
+            zos.setUseZip64(Zip64Mode.AsNeeded);
+            for (int i = 0; i < entryCount; i++) {
+                final ZipArchiveEntry entry = new ZipArchiveEntry(String.format("directory-%03d/entry-%08d.txt", i % 1000, i));
+                zos.putArchiveEntry(entry);
+                zos.write(content);
+                zos.closeArchiveEntry();
+            }
+        }
+    }
+}
@@ -37,11 +37,14 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -49,10 +52,12 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.zip.CRC32;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
@@ -61,6 +66,7 @@
 import org.apache.commons.compress.archivers.AbstractArchiveFileTest;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.utils.InputStreamStatistics;
 import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.channels.ByteArraySeekableByteChannel;
@@ -112,6 +118,26 @@ private static void assertEntryName(final ArrayList<ZipArchiveEntry> entries, fi
         assertEquals("src/main/java/org/apache/commons/compress/archivers/zip/" + expectedName + ".java", ze.getName());
     }
 
+    private static void assertSameEntries(final ZipFile expected, final ZipFile actual) {
+        final List<ZipArchiveEntry> expectedEntries = Collections.list(expected.getEntries());
+        final List<ZipArchiveEntry> actualEntries = Collections.list(actual.getEntries());
+        assertEquals(expectedEntries.size(), actualEntries.size());
+        for (int i = 0; i < expectedEntries.size(); i++) {
+            final ZipArchiveEntry expectedEntry = expectedEntries.get(i);
+            final ZipArchiveEntry actualEntry = actualEntries.get(i);
+            assertEquals(expectedEntry, actualEntry);
+            assertEquals(expectedEntry.getName(), actualEntry.getName());
+            assertEquals(expectedEntry.getComment(), actualEntry.getComment());
+            assertEquals(expectedEntry.getCrc(), actualEntry.getCrc());
+            assertEquals(expectedEntry.getSize(), actualEntry.getSize());
+            assertEquals(expectedEntry.getCompressedSize(), actualEntry.getCompressedSize());
+            assertEquals(expectedEntry.getLocalHeaderOffset(), actualEntry.getLocalHeaderOffset());
+            assertEquals(expectedEntry.getDataOffset(), actualEntry.getDataOffset());
+            assertArrayEquals(expectedEntry.getCentralDirectoryExtra(), actualEntry.getCentralDirectoryExtra());
+            assertArrayEquals(expectedEntry.getLocalFileDataExtra(), actualEntry.getLocalFileDataExtra());
+        }
+    }
+
     private static byte[] createZip64Archive() throws IOException {
         final ByteArrayOutputStream bos = new ByteArrayOutputStream();
         try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(bos)) {
@@ -144,6 +170,12 @@ private static void nameSource(final String archive, final String entry, final Z
         }
     }
 
+    private static List<ZipArchiveEntry> toList(final Iterable<ZipArchiveEntry> iterable) {
+        final List<ZipArchiveEntry> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
+    }
+
     private static void writeNegativeLongAt(final byte[] data, final int offset) {
         for (int i = 0; i < 8; i++) {
             data[offset + i] = 0;
@@ -315,6 +347,97 @@ void testBuidlerGet() throws IOException {
         assertThrows(ZipException.class, () -> ZipFile.builder().setPath("src/test/resources/org/apache/commons/compress/zip/getNextZipEntry.bin").get());
     }
 
+    @Test
+    void testBatchReadLocalFileHeaders() throws Exception {
+        for (final String archive : Arrays.asList("bla.zip", "mixed.zip", "ordertest.zip", "COMPRESS-227.zip", "COMPRESS-210_unix_time_zip_test.zip",
+                "utf8-winzip-test.zip", "utf8-7zip-test.zip")) {
+            try (ZipFile expected = ZipFile.builder().setPath(getPath(archive)).get();
+                    ZipFile actual = ZipFile.builder().setPath(getPath(archive)).setBatchReadLocalFileHeaders(true).get()) {
+                assertSameEntries(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    void testBatchReadLocalFileHeadersLargeEntries() throws Exception {
+        // small entries whose headers share a batch, large ones that don't and local headers padded beyond the central directory's extra fields
+        final Path archive = createTempPath("batch", ".zip");
+        final byte[] large = new byte[300 * 1024];
+        new Random(42).nextBytes(large);
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archive)) {
+            for (int i = 0; i < 3000; i++) {
+                final ZipArchiveEntry entry = new ZipArchiveEntry(String.format("dir/entry-%05d.bin", i));
+                if (i % 500 == 0) {
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setAlignment(4096);
+                    zos.putArchiveEntry(entry);
+                    zos.write(large);
+                } else {
+                    zos.putArchiveEntry(entry);
+                    zos.write(Integer.toString(i).getBytes(UTF_8));
+                }
+                zos.closeArchiveEntry();
+            }
+        }
+        try (ZipFile expected = ZipFile.builder().setPath(archive).get();
+                ZipFile actual = ZipFile.builder().setPath(archive).setBatchReadLocalFileHeaders(true).get()) {
+            assertSameEntries(expected, actual);
+            try (InputStream in = actual.getInputStream(actual.getEntry("dir/entry-01500.bin"))) {
+                assertArrayEquals(large, IOUtils.toByteArray(in));
+            }
+            try (InputStream in = actual.getInputStream(actual.getEntry("dir/entry-02999.bin"))) {
+                assertEquals("2999", IOUtils.toString(in, UTF_8));
+            }
+        }
+    }
+
+    @Test
+    void testBulkReadCentralDirectory() throws Exception {
+        for (final String archive : Arrays.asList("bla.zip", "mixed.zip", "ordertest.zip", "COMPRESS-227.zip", "COMPRESS-210_unix_time_zip_test.zip", "utf8-winzip-test.zip",
+                "utf8-7zip-test.zip")) {
+            try (ZipFile expected = ZipFile.builder().setPath(getPath(archive)).get();
+                    ZipFile actual = ZipFile.builder().setPath(getPath(archive)).setBulkReadCentralDirectory(true).get()) {
+                assertSameEntries(expected, actual);
+            }
+        }
+        final byte[] zip64 = createZip64Archive();
+        try (ZipFile expected = ZipFile.builder().setByteArray(zip64).get();
+                ZipFile actual = ZipFile.builder().setByteArray(zip64).setBulkReadCentralDirectory(true).get()) {
+            assertSameEntries(expected, actual);
+        }
+    }
+
+    @Test
+    void testBulkReadCentralDirectoryLarge() throws Exception {
+        // a central directory of more than 100 KiB
+        final Path archive = createTempPath("bulk", ".zip");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archive)) {
+            for (int i = 0; i < 2000; i++) {
+                zos.putArchiveEntry(new ZipArchiveEntry(String.format("some/rather/long/directory/name/entry-%05d.txt", i)));
+                zos.write(Integer.toString(i).getBytes(UTF_8));
+                zos.closeArchiveEntry();
+            }
+        }
+        try (ZipFile expected = ZipFile.builder().setPath(archive).get();
+                ZipFile actual = ZipFile.builder().setPath(archive).setBulkReadCentralDirectory(true).get()) {
+            assertSameEntries(expected, actual);
+            try (InputStream in = actual.getInputStream(actual.getEntry("some/rather/long/directory/name/entry-01234.txt"))) {
+                assertEquals("1234", IOUtils.toString(in, UTF_8));
+            }
+        }
+    }
+
+    @Test
+    void testBulkReadCentralDirectorySplitZip() throws Exception {
+        final File lastFile = getFile("COMPRESS-477/split_zip_created_by_zip/split_zip_created_by_zip_zip64.zip");
+        try (SeekableByteChannel expectedChannel = ZipSplitReadOnlySeekableByteChannel.buildFromLastSplitSegment(lastFile);
+                SeekableByteChannel actualChannel = ZipSplitReadOnlySeekableByteChannel.buildFromLastSplitSegment(lastFile);
+                ZipFile expected = ZipFile.builder().setChannel(expectedChannel).get();
+                ZipFile actual = ZipFile.builder().setChannel(actualChannel).setBulkReadCentralDirectory(true).get()) {
+            assertSameEntries(expected, actual);
+        }
+    }
+
     @Test
     void testCDOrder() throws Exception {
         readOrderTest();
@@ -363,6 +486,46 @@ private void testCDOrderInMemory(final ZipFile zipFile) {
         assertEntryName(list, 22, "ZipFile");
     }
 
+    @Test
+    void testCompactEntryTable() throws Exception {
+        for (final String archive : Arrays.asList("bla.zip", "mixed.zip", "ordertest.zip", "COMPRESS-227.zip", "COMPRESS-210_unix_time_zip_test.zip",
+                "utf8-winzip-test.zip", "utf8-7zip-test.zip")) {
+            for (final boolean ignoreLocalFileHeader : new boolean[] { false, true }) {
+                try (ZipFile expected = ZipFile.builder().setPath(getPath(archive)).setIgnoreLocalFileHeader(ignoreLocalFileHeader).get();
+                        ZipFile actual = ZipFile.builder().setPath(getPath(archive)).setIgnoreLocalFileHeader(ignoreLocalFileHeader).setCompactEntryTable(true)
+                                .get()) {
+                    assertSameEntries(expected, actual);
+                    assertEquals(Collections.list(expected.getEntriesInPhysicalOrder()), Collections.list(actual.getEntriesInPhysicalOrder()));
+                    assertEquals(expected.stream().collect(Collectors.toList()), actual.stream().collect(Collectors.toList()));
+                    for (final ZipArchiveEntry entry : Collections.list(expected.getEntries())) {
+                        assertEquals(entry, actual.getEntry(entry.getName()));
+                        assertEquals(toList(expected.getEntries(entry.getName())), toList(actual.getEntries(entry.getName())));
+                        assertEquals(toList(expected.getEntriesInPhysicalOrder(entry.getName())), toList(actual.getEntriesInPhysicalOrder(entry.getName())));
+                    }
+                    // reading may resolve data offsets lazily, so compare contents only after comparing entries
+                    for (final ZipArchiveEntry entry : Collections.list(expected.getEntries())) {
+                        if (expected.canReadEntryData(entry)) {
+                            try (InputStream expectedIn = expected.getInputStream(entry);
+                                    InputStream actualIn = actual.getInputStream(actual.getEntry(entry.getName()))) {
+                                assertArrayEquals(IOUtils.toByteArray(expectedIn), IOUtils.toByteArray(actualIn));
+                            }
+                        }
+                    }
+                    assertNull(actual.getEntry("does/not/exist"));
+                    assertFalse(actual.getEntries("does/not/exist").iterator().hasNext());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testCompactEntryTableDuplicateEntries() throws Exception {
+        try (ZipFile zipFile = ZipFile.builder().setURI(getURI("COMPRESS-227.zip")).setCompactEntryTable(true).get()) {
+            assertEquals(2, toList(zipFile.getEntries("test1.txt")).size());
+            assertEquals(toList(zipFile.getEntries("test1.txt")).get(0), zipFile.getEntry("test1.txt"));
+        }
+    }
+
     @Test
     void testConcurrentReadFile() throws Exception {
         // mixed.zip contains both inflated and stored files
@@ -475,6 +638,59 @@ void testDelayedOffsetsAndSizes() throws Exception {
         }
     }
 
+    @Test
+    void testDirectoryIndex() throws Exception {
+        final Path archive = createTempPath("tree", ".zip");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archive)) {
+            for (final String name : new String[] { "META-INF/", "META-INF/MANIFEST.MF", "META-INF/services/a.B", "org/x/Y.class", "META-INF/services/c.D",
+                    "org/x/Z.class", "top.txt", "org/x/Y.class", "org/x" }) {
+                zos.putArchiveEntry(new ZipArchiveEntry(name));
+                zos.closeArchiveEntry();
+            }
+        }
+        for (final boolean directoryIndex : new boolean[] { false, true }) {
+            try (ZipFile zipFile = ZipFile.builder().setPath(archive).setDirectoryIndex(directoryIndex).get()) {
+                assertEquals(Arrays.asList("META-INF/", "org/", "top.txt"), zipFile.listChildren(""));
+                assertEquals(Arrays.asList("META-INF/MANIFEST.MF", "META-INF/services/"), zipFile.listChildren("META-INF/"));
+                assertEquals(Arrays.asList("org/x/", "org/x"), zipFile.listChildren("org"));
+                assertEquals(Arrays.asList("org/x/Y.class", "org/x/Z.class"), zipFile.listChildren("org/x/"));
+                assertTrue(zipFile.listChildren("top.txt").isEmpty());
+                assertTrue(zipFile.listChildren("missing/").isEmpty());
+
+                assertEquals(Arrays.asList("META-INF/services/a.B", "META-INF/services/c.D"), names(zipFile.getEntriesUnder("META-INF/services")));
+                assertEquals(Arrays.asList("META-INF/MANIFEST.MF", "META-INF/services/a.B", "META-INF/services/c.D"),
+                        names(zipFile.getEntriesUnder("META-INF/")).stream().sorted().collect(Collectors.toList()));
+                assertEquals(Arrays.asList("org/x", "org/x/Y.class", "org/x/Y.class", "org/x/Z.class"),
+                        names(zipFile.getEntriesUnder("org")).stream().sorted().collect(Collectors.toList()));
+                assertEquals(9, zipFile.getEntriesUnder("").size());
+                assertTrue(zipFile.getEntriesUnder("org/x/Y.class").isEmpty());
+                assertTrue(zipFile.getEntriesUnder("or").isEmpty());
+            }
+        }
+    }
+
+    @Test
+    void testDirectoryIndexDeeplyNested() throws Exception {
+        final Path archive = createTempPath("deep", ".zip");
+        final StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 30_000; i++) {
+            name.append("a/");
+        }
+        name.append("leaf");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archive)) {
+            zos.putArchiveEntry(new ZipArchiveEntry(name.toString()));
+            zos.closeArchiveEntry();
+        }
+        try (ZipFile zipFile = ZipFile.builder().setPath(archive).setDirectoryIndex(true).get()) {
+            assertEquals(Arrays.asList(name.toString()), names(zipFile.getEntriesUnder("")));
+            assertEquals(Arrays.asList("a/a/"), zipFile.listChildren("a/"));
+        }
+    }
+
+    private static List<String> names(final List<ZipArchiveEntry> entries) {
+        return entries.stream().map(ZipArchiveEntry::getName).collect(Collectors.toList());
+    }
+
     @Test
     void testDoubleClose() throws Exception {
         readOrderTest();
@@ -724,6 +940,132 @@ void testGetEntriesInPhysicalOrder() throws Exception {
         }
     }
 
+    @Test
+    void testIndexPath() throws Exception {
+        for (final String name : new String[] { "bla.zip", "mixed.zip", "COMPRESS-227.zip", "utf8-winzip-test.zip" }) {
+            final Path archive = createTempPath("index", ".zip");
+            Files.copy(getPath(name), archive, StandardCopyOption.REPLACE_EXISTING);
+            final Path index = getTempDirPath().resolve(name + ".idx");
+            try (ZipFile expected = ZipFile.builder().setPath(archive).get()) {
+                try (ZipFile created = ZipFile.builder().setPath(archive).setIndexPath(index).get()) {
+                    assertTrue(Files.isRegularFile(index), name);
+                    assertSameEntries(expected, created);
+                }
+                final FileTime written = Files.getLastModifiedTime(index);
+                try (ZipFile loaded = ZipFile.builder().setPath(archive).setIndexPath(index).get()) {
+                    assertSameEntries(expected, loaded);
+                    for (final ZipArchiveEntry entry : Collections.list(expected.getEntries())) {
+                        if (expected.canReadEntryData(entry)) {
+                            try (InputStream expectedIn = expected.getInputStream(entry);
+                                    InputStream actualIn = loaded.getInputStream(loaded.getEntry(entry.getName()))) {
+                                assertArrayEquals(IOUtils.toByteArray(expectedIn), IOUtils.toByteArray(actualIn));
+                            }
+                        }
+                    }
+                }
+                assertEquals(written, Files.getLastModifiedTime(index), name);
+            }
+        }
+    }
+
+    @Test
+    void testIndexPathGarbage() throws Exception {
+        final Path archive = createTempPath("index", ".zip");
+        Files.copy(getPath("mixed.zip"), archive, StandardCopyOption.REPLACE_EXISTING);
+        final Path index = getTempDirPath().resolve("mixed.zip.idx");
+        try (ZipFile zipFile = ZipFile.builder().setPath(archive).setIndexPath(index).get()) {
+            assertTrue(Files.isRegularFile(index));
+        }
+        final byte[] valid = Files.readAllBytes(index);
+        // valid header followed by an encoding name that isn't modified UTF-8
+        final byte[] badEncoding = valid.clone();
+        Arrays.fill(badEncoding, 26, 28, (byte) 0xff);
+        final byte[] random = new byte[valid.length];
+        new Random(42).nextBytes(random);
+        System.arraycopy(valid, 0, random, 0, 8);
+        for (final byte[] garbage : new byte[][] { badEncoding, random }) {
+            Files.write(index, garbage);
+            try (ZipFile zipFile = ZipFile.builder().setPath(archive).setIndexPath(index).get();
+                    ZipFile expected = ZipFile.builder().setPath(archive).get()) {
+                assertSameEntries(expected, zipFile);
+            }
+            assertArrayEquals(valid, Files.readAllBytes(index));
+        }
+        // index can't be written
+        final Path unwritable = getTempDirPath().resolve("missing").resolve("mixed.zip.idx");
+        try (ZipFile zipFile = ZipFile.builder().setPath(archive).setIndexPath(unwritable).get();
+                ZipFile expected = ZipFile.builder().setPath(archive).get()) {
+            assertSameEntries(expected, zipFile);
+        }
+        assertFalse(Files.exists(unwritable.getParent()));
+    }
+
+    @Test
+    void testIndexPathStale() throws Exception {
+        final Path archive = createTempPath("index", ".zip");
+        Files.copy(getPath("mixed.zip"), archive, StandardCopyOption.REPLACE_EXISTING);
+        final Path index = getTempDirPath().resolve("mixed.zip.idx");
+        try (ZipFile zipFile = ZipFile.builder().setPath(archive).setIndexPath(index).get()) {
+            assertTrue(Files.isRegularFile(index));
+        }
+        final byte[] valid = Files.readAllBytes(index);
+        // archive touched
+        Files.setLastModifiedTime(archive, FileTime.fromMillis(Files.getLastModifiedTime(archive).toMillis() - 10_000));
+        try (ZipFile zipFile = ZipFile.builder().setPath(archive).setIndexPath(index).get();
+                ZipFile expected = ZipFile.builder().setPath(archive).get()) {
+            assertSameEntries(expected, zipFile);
+        }
+        assertFalse(Arrays.equals(valid, Files.readAllBytes(index)));
+        // different options
+        try (ZipFile zipFile = ZipFile.builder().setPath(archive).setIndexPath(index).setIgnoreLocalFileHeader(true).get();
+                ZipFile expected = ZipFile.builder().setPath(archive).setIgnoreLocalFileHeader(true).get()) {
+            assertSameEntries(expected, zipFile);
+        }
+        try (ZipFile zipFile = ZipFile.builder().setPath(archive).setIndexPath(index).get()) {
+            assertNotNull(zipFile.getEntry("stored.txt"));
+        }
+        // truncated and corrupt indexes
+        final byte[] current = Files.readAllBytes(index);
+        for (final byte[] corrupt : new byte[][] { Arrays.copyOf(current, current.length / 2), new byte[0], "not an index".getBytes(UTF_8) }) {
+            Files.write(index, corrupt);
+            try (ZipFile zipFile = ZipFile.builder().setPath(archive).setIndexPath(index).get();
+                    ZipFile expected = ZipFile.builder().setPath(archive).get()) {
+                assertSameEntries(expected, zipFile);
+            }
+            assertArrayEquals(current, Files.readAllBytes(index));
+        }
+    }
+
+    @Test
+    void testInflaterPool() throws Exception {
+        try (InflaterPool pool = new InflaterPool(2);
+                ZipFile expected = ZipFile.builder().setURI(getURI("mixed.zip")).get();
+                ZipFile actual = ZipFile.builder().setURI(getURI("mixed.zip")).setInflaterPool(pool).get()) {
+            final ZipArchiveEntry entry = actual.getEntry("inflated.txt");
+            final byte[] content;
+            try (InputStream in = expected.getInputStream(entry)) {
+                content = IOUtils.toByteArray(in);
+            }
+            try (InputStream in1 = actual.getInputStream(entry);
+                    InputStream in2 = actual.getInputStream(entry)) {
+                assertArrayEquals(content, IOUtils.toByteArray(in1));
+                assertArrayEquals(content, IOUtils.toByteArray(in2));
+                // closing twice hands the inflater back once
+                in1.close();
+            }
+            assertEquals(2, pool.getMissCount());
+            assertEquals(2, pool.getIdleCount());
+            for (int i = 0; i < 3; i++) {
+                try (InputStream in = actual.getInputStream(entry)) {
+                    assertArrayEquals(content, IOUtils.toByteArray(in));
+                }
+            }
+            assertEquals(2, pool.getMissCount());
+            assertEquals(3, pool.getHitCount());
+            assertEquals(2, pool.getIdleCount());
+        }
+    }
+
     /**
      * Test non power of 2 alignment.
      */
@@ -732,6 +1074,43 @@ void testInvalidAlignment() {
         assertThrows(IllegalArgumentException.class, () -> new ZipArchiveEntry("dummy").setAlignment(3));
     }
 
+    @Test
+    void testMapEntryData() throws Exception {
+        final Path archive = createTempPath("mapped", ".zip");
+        final byte[] data = new byte[100 * 1024];
+        new Random(42).nextBytes(data);
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archive)) {
+            for (int i = 0; i < 20; i++) {
+                final ZipArchiveEntry entry = new ZipArchiveEntry("entry-" + i);
+                entry.setMethod(i % 2 == 0 ? ZipEntry.STORED : ZipEntry.DEFLATED);
+                zos.putArchiveEntry(entry);
+                zos.write(data, 0, i * 5000);
+                zos.write(new byte[i * 1000]);
+                zos.closeArchiveEntry();
+            }
+        }
+        try (ZipFile expected = ZipFile.builder().setPath(archive).get();
+                ZipFile actual = ZipFile.builder().setPath(archive).setMapEntryData(true).get()) {
+            for (final ZipArchiveEntry entry : Collections.list(expected.getEntries())) {
+                try (InputStream expectedIn = expected.getInputStream(entry);
+                        InputStream actualIn = actual.getInputStream(actual.getEntry(entry.getName()))) {
+                    assertArrayEquals(IOUtils.toByteArray(expectedIn), IOUtils.toByteArray(actualIn), entry.getName());
+                    assertEquals(((InputStreamStatistics) expectedIn).getUncompressedCount(), ((InputStreamStatistics) actualIn).getUncompressedCount());
+                }
+            }
+            // mapped single byte reads
+            try (InputStream in = actual.getInputStream(actual.getEntry("entry-3"))) {
+                assertEquals(data[0] & 0xff, in.read());
+                assertEquals(data[1] & 0xff, in.read());
+            }
+        }
+        // archives not backed by a FileChannel are read as usual
+        try (ZipFile zipFile = ZipFile.builder().setChannel(new SeekableInMemoryByteChannel(Files.readAllBytes(archive))).setMapEntryData(true).get();
+                InputStream in = zipFile.getInputStream(zipFile.getEntry("entry-1"))) {
+            assertArrayEquals(ArrayUtils.addAll(Arrays.copyOf(data, 5000), new byte[1000]), IOUtils.toByteArray(in));
+        }
+    }
+
     @Test
     void testMultiByteReadConsistentlyReturnsMinusOneAtEofUsingBzip2() throws Exception {
         multiByteReadConsistentlyReturnsMinusOneAtEof(getFile("bzip2-zip.zip"));
@@ -795,6 +1174,42 @@ void testOffsets() throws Exception {
         }
     }
 
+    @Test
+    void testParallelCentralDirectoryParsing() throws Exception {
+        // several ranges, names that need the Unicode extra fields and a Zip64 entry
+        final Path archive = createTempPath("parallel", ".zip");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archive)) {
+            zos.setEncoding("CP437");
+            zos.setUseLanguageEncodingFlag(false);
+            zos.setCreateUnicodeExtraFields(ZipArchiveOutputStream.UnicodeExtraFieldPolicy.ALWAYS);
+            for (int i = 0; i < 20_000; i++) {
+                final ZipArchiveEntry entry = new ZipArchiveEntry(String.format("dir-%d/\u00e4\u20ac-%05d.txt", i % 7, i));
+                entry.setComment(i % 3 == 0 ? "comment " + i : null);
+                zos.setUseZip64(i == 12_345 ? Zip64Mode.Always : Zip64Mode.AsNeeded);
+                zos.putArchiveEntry(entry);
+                zos.write(Integer.toString(i).getBytes(UTF_8));
+                zos.closeArchiveEntry();
+            }
+        }
+        for (final boolean compactEntryTable : new boolean[] { false, true }) {
+            try (ZipFile expected = ZipFile.builder().setPath(archive).setCharset("CP437").get();
+                    ZipFile actual = ZipFile.builder().setPath(archive).setCharset("CP437").setCompactEntryTable(compactEntryTable)
+                            .setParallelCentralDirectoryParsing(true).get()) {
+                assertSameEntries(expected, actual);
+                final ZipArchiveEntry entry = actual.getEntry("dir-4/\u00e4\u20ac-12345.txt");
+                assertNotNull(entry);
+                try (InputStream in = actual.getInputStream(entry)) {
+                    assertEquals("12345", IOUtils.toString(in, UTF_8));
+                }
+            }
+        }
+        // few entries are parsed sequentially
+        try (ZipFile expected = ZipFile.builder().setURI(getURI("ordertest.zip")).get();
+                ZipFile actual = ZipFile.builder().setURI(getURI("ordertest.zip")).setParallelCentralDirectoryParsing(true).get()) {
+            assertSameEntries(expected, actual);
+        }
+    }
+
     @Test
     void testPhysicalOrder() throws Exception {
         readOrderTest();
@@ -1042,6 +1457,34 @@ void testThrowsExceptionWhenWritingPreamble() throws IOException {
         }
     }
 
+    @Test
+    void testTransferTo() throws Exception {
+        final byte[] data = Files.readAllBytes(getPath("mixed.zip"));
+        try (ZipFile fileBacked = ZipFile.builder().setPath(getPath("mixed.zip")).get();
+                ZipFile memoryBacked = ZipFile.builder().setSeekableByteChannel(ByteArraySeekableByteChannel.wrap(data)).get()) {
+            for (final ZipFile zipFile : new ZipFile[] { fileBacked, memoryBacked }) {
+                for (final ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+                    final byte[] content;
+                    final byte[] raw;
+                    try (InputStream in = zipFile.getInputStream(entry);
+                            InputStream rawIn = zipFile.getRawInputStream(entry)) {
+                        content = IOUtils.toByteArray(in);
+                        raw = IOUtils.toByteArray(rawIn);
+                    }
+                    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    assertEquals(content.length, zipFile.transferTo(entry, Channels.newChannel(out)));
+                    assertArrayEquals(content, out.toByteArray());
+                    out.reset();
+                    assertEquals(raw.length, zipFile.transferRawTo(entry, Channels.newChannel(out)));
+                    assertArrayEquals(raw, out.toByteArray());
+                }
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertThrows(IllegalArgumentException.class, () -> fileBacked.transferTo(new ZipArchiveEntry("inflated.txt"), Channels.newChannel(out)));
+            assertThrows(IllegalArgumentException.class, () -> fileBacked.transferRawTo(new ZipArchiveEntry("inflated.txt"), Channels.newChannel(out)));
+        }
+    }
+
     @Test
     void testUnixSymlinkSampleFile() throws Exception {
         final String entryPrefix = "COMPRESS-214_unix_symlinks/";
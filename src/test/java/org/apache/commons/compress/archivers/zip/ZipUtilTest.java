@@ -32,6 +32,8 @@
 import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Random;
+import java.util.zip.CRC32;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -105,6 +107,21 @@ void testBigToLong() {
                 "ZipUtil.bigToLong(BigInteger) should have thrown IllegalArgumentException");
     }
 
+    @Test
+    void testCrc32Combine() {
+        final byte[] data = new byte[100_000];
+        new Random(7).nextBytes(data);
+        final CRC32 expected = new CRC32();
+        expected.update(data);
+        for (final int split : new int[] { 0, 1, 4096, 65_537, data.length }) {
+            final CRC32 crc1 = new CRC32();
+            crc1.update(data, 0, split);
+            final CRC32 crc2 = new CRC32();
+            crc2.update(data, split, data.length - split);
+            assertEquals(expected.getValue(), ZipUtil.crc32Combine(crc1.getValue(), crc2.getValue(), data.length - split));
+        }
+    }
+
     @Test
     void testFromDosTime() {
         ZipLong testDosTime = new ZipLong(1 << 21);
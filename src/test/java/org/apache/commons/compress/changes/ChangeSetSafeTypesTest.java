@@ -19,17 +19,24 @@
 package org.apache.commons.compress.changes;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.compress.AbstractTest;
 import org.apache.commons.compress.archivers.ArchiveEntry;
@@ -42,10 +49,12 @@
 import org.apache.commons.compress.archivers.cpio.CpioArchiveOutputStream;
 import org.apache.commons.compress.archivers.jar.JarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -871,4 +880,98 @@ void testDeletePlusAddSame(final String archiverName) throws Exception {
     void testRenameAndDelete() {
     }
 
+    private ChangeSetResults sync(final Path archive, final Path directory, final Path result, final boolean parallel) throws Exception {
+        try (ZipFile zipFile = ZipFile.builder().setPath(archive).get();
+                ZipArchiveOutputStream out = new ZipArchiveOutputStream(result)) {
+            final ChangeSetPerformer<ZipArchiveInputStream, ZipArchiveOutputStream, ZipArchiveEntry> performer = new ChangeSetPerformer<>(
+                    ChangeSet.sync(zipFile, directory));
+            return parallel ? performer.perform(zipFile, out, new ParallelScatterZipCreator(Executors.newFixedThreadPool(2)))
+                    : performer.perform(zipFile, out);
+        }
+    }
+
+    @Test
+    void testSyncZipFile() throws Exception {
+        final Path dir = createTempDirectory("sync");
+        Files.createDirectories(dir.resolve("sub"));
+        Files.write(dir.resolve("a.txt"), "aaa".getBytes(StandardCharsets.UTF_8));
+        Files.write(dir.resolve("b.txt"), "bbb".getBytes(StandardCharsets.UTF_8));
+        Files.write(dir.resolve("d.txt"), "ddd".getBytes(StandardCharsets.UTF_8));
+        Files.write(dir.resolve("sub/c.txt"), "ccc".getBytes(StandardCharsets.UTF_8));
+        final Path empty = createTempFile("empty", ".zip").toPath();
+        new ZipArchiveOutputStream(empty).close();
+        final Path first = createTempFile("first", ".zip").toPath();
+        ChangeSetResults results = sync(empty, dir, first, false);
+        assertEquals(Arrays.asList("a.txt", "b.txt", "d.txt", "sub/c.txt"), results.getAddedFromChangeSet());
+        // touched but unchanged, modified with the same size, deleted and new files
+        final FileTime later = FileTime.fromMillis(Files.getLastModifiedTime(dir.resolve("a.txt")).toMillis() + 60_000);
+        Files.setLastModifiedTime(dir.resolve("a.txt"), later);
+        Files.write(dir.resolve("b.txt"), "BBB".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(dir.resolve("b.txt"), later);
+        Files.delete(dir.resolve("d.txt"));
+        Files.write(dir.resolve("e.txt"), "eee".getBytes(StandardCharsets.UTF_8));
+        final Path second = createTempFile("second", ".zip").toPath();
+        results = sync(first, dir, second, true);
+        assertEquals(Arrays.asList("b.txt", "e.txt"), results.getAddedFromChangeSet());
+        assertEquals(Arrays.asList("a.txt", "sub/c.txt"), results.getAddedFromStream());
+        assertEquals(Arrays.asList("d.txt"), results.getDeleted());
+        try (ZipFile zipFile = ZipFile.builder().setPath(second).get()) {
+            for (final String name : Arrays.asList("a.txt", "b.txt", "e.txt", "sub/c.txt")) {
+                try (InputStream in = zipFile.getInputStream(zipFile.getEntry(name))) {
+                    assertEquals(new String(Files.readAllBytes(dir.resolve(name)), StandardCharsets.UTF_8), IOUtils.toString(in, StandardCharsets.UTF_8));
+                }
+            }
+            assertNull(zipFile.getEntry("d.txt"));
+        }
+        // nothing changed
+        results = sync(second, dir, createTempFile("third", ".zip").toPath(), false);
+        assertTrue(results.getAddedFromChangeSet().isEmpty());
+        assertEquals(4, results.getAddedFromStream().size());
+    }
+
+    @Test
+    void testSyncZipFileSkipsBrokenLinks() throws Exception {
+        final Path dir = createTempDirectory("sync");
+        Files.write(dir.resolve("a.txt"), "aaa".getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.createSymbolicLink(dir.resolve("broken"), dir.resolve("missing"));
+        } catch (final IOException | UnsupportedOperationException e) {
+            assumeTrue(false, "symbolic links are not supported");
+        }
+        final Path empty = createTempFile("empty", ".zip").toPath();
+        new ZipArchiveOutputStream(empty).close();
+        final ChangeSetResults results = sync(empty, dir, createTempFile("synced", ".zip").toPath(), false);
+        assertEquals(Arrays.asList("a.txt"), results.getAddedFromChangeSet());
+    }
+
+    @Test
+    void testSyncZipFileWithinDosTimePrecision() throws Exception {
+        final Path dir = createTempDirectory("sync");
+        final FileTime time = FileTime.fromMillis(System.currentTimeMillis() / 10_000 * 10_000);
+        final Path archive = createTempFile("precise", ".zip").toPath();
+        try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(archive)) {
+            for (final String name : Arrays.asList("dos.txt", "precise.txt")) {
+                final ZipArchiveEntry entry = new ZipArchiveEntry(name);
+                if (name.equals("dos.txt")) {
+                    entry.setTime(time.toMillis());
+                } else {
+                    // adds extended timestamp and NTFS fields
+                    entry.setLastModifiedTime(time);
+                }
+                out.putArchiveEntry(entry);
+                out.write("old".getBytes(StandardCharsets.UTF_8));
+                out.closeArchiveEntry();
+            }
+        }
+        // modified with the same size one second later
+        for (final String name : Arrays.asList("dos.txt", "precise.txt")) {
+            Files.write(dir.resolve(name), "new".getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(dir.resolve(name), FileTime.fromMillis(time.toMillis() + 1000));
+        }
+        final ChangeSetResults results = sync(archive, dir, createTempFile("synced", ".zip").toPath(), false);
+        // a DOS time can't tell the change apart
+        assertEquals(Arrays.asList("precise.txt"), results.getAddedFromChangeSet());
+        assertEquals(Arrays.asList("dos.txt"), results.getAddedFromStream());
+    }
+
 }
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.compressors.deflate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+class DeflaterPoolTest {
+
+    private static final byte[] DATA = "Hello, world. Hello, world. Hello, world.".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void testAcquireAfterRelease() {
+        try (DeflaterPool pool = new DeflaterPool(1)) {
+            final Deflater deflater = pool.acquire(Deflater.BEST_SPEED, Deflater.DEFAULT_STRATEGY, true);
+            deflater.setInput(DATA);
+            pool.release(deflater, true);
+            final Deflater reused = pool.acquire(Deflater.BEST_COMPRESSION, Deflater.FILTERED, true);
+            assertSame(deflater, reused);
+            assertEquals(0, reused.getTotalIn());
+            assertEquals(1, pool.getHitCount());
+            assertEquals(1, pool.getMissCount());
+            // a deflater is only reused with the same header mode
+            final Deflater zlib = pool.acquire(Deflater.BEST_COMPRESSION, Deflater.DEFAULT_STRATEGY, false);
+            assertNotSame(reused, zlib);
+            assertEquals(2, pool.getMissCount());
+            pool.release(reused, true);
+            pool.release(zlib, false);
+            assertEquals(2, pool.getIdleCount());
+        }
+    }
+
+    @Test
+    void testCapacity() {
+        try (DeflaterPool pool = new DeflaterPool(1)) {
+            final Deflater deflater1 = pool.acquire(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, true);
+            final Deflater deflater2 = pool.acquire(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, true);
+            assertNotSame(deflater1, deflater2);
+            pool.release(deflater1, true);
+            pool.release(deflater2, true);
+            assertEquals(1, pool.getIdleCount());
+            assertThrows(NullPointerException.class, () -> deflater2.deflate(new byte[1]));
+        }
+    }
+
+    @Test
+    void testClose() {
+        final DeflaterPool pool = new DeflaterPool(2);
+        final Deflater idle = pool.acquire(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, true);
+        final Deflater inUse = pool.acquire(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, true);
+        pool.release(idle, true);
+        pool.close();
+        assertEquals(0, pool.getIdleCount());
+        assertThrows(NullPointerException.class, () -> idle.deflate(new byte[1]));
+        pool.release(inUse, true);
+        assertEquals(0, pool.getIdleCount());
+        assertThrows(NullPointerException.class, () -> inUse.deflate(new byte[1]));
+    }
+
+    @Test
+    void testCompressorStreams() throws IOException {
+        try (DeflaterPool pool = new DeflaterPool(1)) {
+            final DeflateParameters deflateParameters = new DeflateParameters();
+            deflateParameters.setDeflaterPool(pool);
+            final GzipParameters gzipParameters = new GzipParameters();
+            gzipParameters.setDeflaterPool(pool);
+            for (int i = 0; i < 3; i++) {
+                final ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+                try (DeflateCompressorOutputStream out = new DeflateCompressorOutputStream(deflated, deflateParameters)) {
+                    out.write(DATA);
+                }
+                try (InputStream in = new DeflateCompressorInputStream(new ByteArrayInputStream(deflated.toByteArray()))) {
+                    assertArrayEquals(DATA, IOUtils.toByteArray(in));
+                }
+                final ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+                try (GzipCompressorOutputStream out = new GzipCompressorOutputStream(gzipped, gzipParameters)) {
+                    out.write(DATA);
+                }
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray()))) {
+                    assertArrayEquals(DATA, IOUtils.toByteArray(in));
+                }
+            }
+            // one deflater per header mode, reused by all but the first stream of each kind
+            assertEquals(2, pool.getMissCount());
+            assertEquals(4, pool.getHitCount());
+            assertEquals(2, pool.getIdleCount());
+        }
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new DeflaterPool(0));
+    }
+}
@@ -33,14 +33,21 @@
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.NonWritableChannelException;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.commons.io.channels.ByteArraySeekableByteChannel;
 import org.apache.commons.lang3.ArrayUtils;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 // @formatter:off
 /**
@@ -284,6 +291,43 @@ void testForSeekableByteChannelsThrowsOnNullArg() {
         assertThrows(NullPointerException.class, () -> MultiReadOnlySeekableByteChannel.forSeekableByteChannels((SeekableByteChannel[]) null));
     }
 
+    @Test
+    void testOpensFilesOnFirstRead(@TempDir final Path dir) throws IOException {
+        final byte[] expected = new byte[1000];
+        new Random(42).nextBytes(expected);
+        final byte[][] groups = grouped(expected, 37);
+        final List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < groups.length; i++) {
+            paths.add(Files.write(dir.resolve("segment-" + i), groups[i]));
+            if (i % 5 == 0) {
+                paths.add(Files.write(dir.resolve("empty-" + i), ArrayUtils.EMPTY_BYTE_ARRAY));
+            }
+        }
+        final OpenOption[] options = { StandardOpenOption.READ };
+        for (final int maxOpenChannels : new int[] { 1, 2, 100 }) {
+            try (SeekableByteChannel multi = new MultiReadOnlySeekableByteChannel(paths.toArray(new Path[0]), options, maxOpenChannels)) {
+                check(expected, multi);
+                final Random random = new Random(maxOpenChannels);
+                for (int i = 0; i < 100; i++) {
+                    final int position = random.nextInt(expected.length);
+                    final ByteBuffer buf = ByteBuffer.allocate(50);
+                    multi.position(position);
+                    final int read = multi.read(buf);
+                    assertEquals(Math.min(50, expected.length - position), read);
+                    assertArrayEquals(Arrays.copyOfRange(expected, position, position + read), Arrays.copyOf(buf.array(), read));
+                }
+            }
+        }
+        try (SeekableByteChannel multi = new MultiReadOnlySeekableByteChannel(paths.toArray(new Path[0]), options, 1)) {
+            // the last file is only opened when it is read
+            Files.delete(paths.get(paths.size() - 1));
+            assertEquals(37, multi.read(ByteBuffer.allocate(37)));
+            multi.position(expected.length - 1);
+            assertThrows(NoSuchFileException.class, () -> multi.read(ByteBuffer.allocate(1)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new MultiReadOnlySeekableByteChannel(paths.toArray(new Path[0]), options, 0));
+    }
+
     /*
      * <q>Setting the position to a value that is greater than the current size is legal but does not change the size of the entity. A later attempt to read
      * bytes at such a position will immediately return an end-of-file indication</q>